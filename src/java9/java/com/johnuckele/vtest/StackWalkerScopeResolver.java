@@ -0,0 +1,32 @@
+package com.johnuckele.vtest;
+
+import java.util.Collections;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A ScopeResolver backed by StackWalker. Frames are walked lazily and the walk stops at the first caller frame, so only
+ * a handful of frames are ever decoded. This class references Java 9 APIs, so it is compiled apart from the Java 8
+ * sources in src/java9 and must only be loaded through ScopeResolver.create().
+ *
+ * @author John Uckele
+ */
+final class StackWalkerScopeResolver extends ScopeResolver
+{
+    private static final StackWalker WALKER = StackWalker.getInstance(Collections.<StackWalker.Option> emptySet(),
+            MAX_DEPTH);
+
+    private static final Function<Stream<StackWalker.StackFrame>, StackWalker.StackFrame> FIND_CALLER = frames -> frames
+            .limit(MAX_DEPTH).filter(frame -> !isInternal(frame.getClassName())).findFirst().orElse(null);
+
+    @Override
+    Scope resolve()
+    {
+        StackWalker.StackFrame frame = WALKER.walk(FIND_CALLER);
+        if (frame == null)
+        {
+            return Scope.NONE;
+        }
+        return scope(frame.getClassName(), frame.getMethodName());
+    }
+}
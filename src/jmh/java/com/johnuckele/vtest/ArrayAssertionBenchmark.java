@@ -0,0 +1,89 @@
+package com.johnuckele.vtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures array equality assertions on large arrays against wrapping the arrays in Lists, which is what callers had
+ * to do before Tester had array overloads.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArrayAssertionBenchmark
+{
+    @Param({ "1000", "4000000" })
+    public int length;
+
+    private OutputSink previousSink;
+    private int[]      ints;
+    private int[]      intsCopy;
+    private double[]   doubles;
+    private double[]   doublesCopy;
+    private Integer[]  boxedInts;
+    private Integer[]  boxedIntsCopy;
+
+    @Setup
+    public void setUp()
+    {
+        previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(new DiscardingSink());
+        ints = new int[length];
+        doubles = new double[length];
+        for (int i = 0; i < length; i++)
+        {
+            ints[i] = i;
+            doubles[i] = i;
+        }
+        intsCopy = ints.clone();
+        doublesCopy = doubles.clone();
+        boxedInts = new Integer[length];
+        for (int i = 0; i < length; i++)
+        {
+            boxedInts[i] = i;
+        }
+        boxedIntsCopy = boxedInts.clone();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setOutputSink(previousSink);
+    }
+
+    @Benchmark
+    public void equalIntArray()
+    {
+        Tester.equal("int[] equal", ints, intsCopy);
+    }
+
+    @Benchmark
+    public void equalDoubleArrayWithMargin()
+    {
+        Tester.equal("double[] equal", doubles, doublesCopy, 0.001);
+    }
+
+    @Benchmark
+    public void equalBoxedList()
+    {
+        Tester.equal("List equal", Arrays.asList(boxedInts), Arrays.asList(boxedIntsCopy));
+    }
+}
@@ -0,0 +1,184 @@
+package com.johnuckele.vtest;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one passing assertion from each Tester overload family against a bare JUnit assertTrue, for every verbosity
+ * and for both a discarding synchronous sink and an AsyncSink. Run through the jmh Gradle task with -Pjmh.threads=N to
+ * measure contention between threads.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssertionBenchmark
+{
+    @Param({ "FULL", "FAILURES_ONLY", "SUMMARY_ONLY" })
+    public Verbosity verbosity;
+
+    @Param({ "discard", "async" })
+    public String sink;
+
+    @Param({ "10", "10000" })
+    public int size;
+
+    private OutputSink           previousSink;
+    private Verbosity            previousVerbosity;
+    private int                  intValue;
+    private double               doubleValue;
+    private BigDecimal           decimal;
+    private BigDecimal           largerDecimal;
+    private String               string;
+    private List<Integer>        list;
+    private List<Integer>        listCopy;
+    private Set<Integer>         set;
+    private Map<Integer, String> map;
+    private Integer              lastElement;
+
+    @Setup
+    public void setUp()
+    {
+        previousSink = Tester.getOutputSink();
+        previousVerbosity = Tester.getVerbosity();
+        if ("async".equals(sink))
+        {
+            Tester.setOutputSink(new AsyncSink(new PrintStream(new NullOutputStream()), AsyncSink.DEFAULT_CAPACITY));
+        }
+        else
+        {
+            Tester.setOutputSink(new DiscardingSink());
+        }
+        Tester.setVerbosity(verbosity);
+
+        intValue = size;
+        doubleValue = size;
+        decimal = new BigDecimal(size);
+        largerDecimal = decimal.add(BigDecimal.ONE);
+        string = String.valueOf(size);
+        list = new ArrayList<Integer>();
+        map = new HashMap<Integer, String>();
+        for (int i = 0; i < size; i++)
+        {
+            list.add(i);
+            map.put(i, string);
+        }
+        listCopy = new ArrayList<Integer>(list);
+        set = new HashSet<Integer>(list);
+        lastElement = size - 1;
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        OutputSink benchmarkSink = Tester.getOutputSink();
+        Tester.setOutputSink(previousSink);
+        Tester.setVerbosity(previousVerbosity);
+        benchmarkSink.close();
+    }
+
+    @Benchmark
+    public void junitAssertTrue()
+    {
+        Assert.assertTrue(intValue == size);
+    }
+
+    @Benchmark
+    public void equalInt()
+    {
+        Tester.equal("int equal", intValue, size);
+    }
+
+    @Benchmark
+    public void lessThanDouble()
+    {
+        Tester.lessThan("double lessThan", doubleValue, size + 1.0, 0.001);
+    }
+
+    @Benchmark
+    public void isTrue()
+    {
+        Tester.isTrue("isTrue", intValue == size);
+    }
+
+    @Benchmark
+    public void equalComparable()
+    {
+        Tester.equal("Comparable equal", decimal, decimal);
+    }
+
+    @Benchmark
+    public void lessThanComparable()
+    {
+        Tester.lessThan("Comparable lessThan", decimal, largerDecimal);
+    }
+
+    @Benchmark
+    public void equalString()
+    {
+        Tester.equal("String equal", string, string);
+    }
+
+    @Benchmark
+    public void equalObject()
+    {
+        Tester.equal("Object equal", list, listCopy);
+    }
+
+    @Benchmark
+    public void containsList()
+    {
+        Tester.contains("List contains", list, lastElement);
+    }
+
+    @Benchmark
+    public void containsSet()
+    {
+        Tester.contains("Set contains", set, lastElement);
+    }
+
+    @Benchmark
+    public void containsMap()
+    {
+        Tester.contains("Map contains", map, lastElement);
+    }
+
+    private static class NullOutputStream extends OutputStream
+    {
+        @Override
+        public void write(int b)
+        {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len)
+        {
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures passing deepEqual assertions over graphs of simulation-like state objects that do not override equals().
+ * Each node has primitive fields, an array, a map and references to its neighbours, so the graph is full of cycles.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeepEqualBenchmark
+{
+    public static class Particle
+    {
+        private final int                  id;
+        private final double               mass;
+        private final double[]             position = new double[3];
+        private final Map<String, Integer> labels   = new HashMap<String, Integer>();
+        private final List<Particle>       bonds    = new ArrayList<Particle>();
+
+        Particle(int id)
+        {
+            this.id = id;
+            this.mass = id * 0.5;
+            position[0] = id;
+            labels.put("group", id % 7);
+        }
+    }
+
+    @Param({ "1000", "10000" })
+    public int nodes;
+
+    private Verbosity      previousVerbosity;
+    private List<Particle> lhs;
+    private List<Particle> rhs;
+
+    private static List<Particle> graph(int size)
+    {
+        List<Particle> particles = new ArrayList<Particle>(size);
+        for (int i = 0; i < size; i++)
+        {
+            particles.add(new Particle(i));
+        }
+        for (int i = 0; i < size; i++)
+        {
+            particles.get(i).bonds.add(particles.get((i + 1) % size));
+            particles.get(i).bonds.add(particles.get((i * 31 + 7) % size));
+        }
+        return particles;
+    }
+
+    @Setup
+    public void setUp()
+    {
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        lhs = graph(nodes);
+        rhs = graph(nodes);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void deepEqual()
+    {
+        Tester.deepEqual("graphs", lhs, rhs);
+    }
+}
@@ -0,0 +1,33 @@
+package com.johnuckele.vtest;
+
+/**
+ * An OutputSink that discards every entry, so benchmarks measure rendering without console I/O. The length of the last
+ * entry is kept so that rendering cannot be optimized away.
+ *
+ * @author John Uckele
+ */
+public class DiscardingSink implements OutputSink
+{
+    private int lastLength;
+
+    @Override
+    public void println(CharSequence line)
+    {
+        lastLength = line.length();
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    public int getLastLength()
+    {
+        return lastLength;
+    }
+}
@@ -0,0 +1,92 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a passing equalIgnoringOrder on shuffled lists against the sort-and-compare approach it replaces, for boxed
+ * integers (counted as primitives) and for strings (counted in a HashMap).
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EqualIgnoringOrderBenchmark
+{
+    @Param({ "1000000" })
+    public int size;
+
+    private Verbosity     previousVerbosity;
+    private List<Integer> integers;
+    private List<Integer> shuffledIntegers;
+    private List<String>  strings;
+    private List<String>  shuffledStrings;
+
+    @Setup
+    public void setUp()
+    {
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        Random random = new Random(42);
+        integers = new ArrayList<Integer>(size);
+        strings = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++)
+        {
+            int value = random.nextInt(size / 4);
+            integers.add(value);
+            strings.add("element " + value);
+        }
+        shuffledIntegers = new ArrayList<Integer>(integers);
+        shuffledStrings = new ArrayList<String>(strings);
+        Collections.shuffle(shuffledIntegers, random);
+        Collections.shuffle(shuffledStrings, random);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void integers()
+    {
+        Tester.equalIgnoringOrder("integers", integers, shuffledIntegers);
+    }
+
+    @Benchmark
+    public void strings()
+    {
+        Tester.equalIgnoringOrder("strings", strings, shuffledStrings);
+    }
+
+    @Benchmark
+    public void sortedIntegers()
+    {
+        List<Integer> lhs = new ArrayList<Integer>(integers);
+        List<Integer> rhs = new ArrayList<Integer>(shuffledIntegers);
+        Collections.sort(lhs);
+        Collections.sort(rhs);
+        Tester.equal("sorted integers", lhs, rhs);
+    }
+}
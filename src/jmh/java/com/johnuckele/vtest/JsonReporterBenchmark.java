@@ -0,0 +1,76 @@
+package com.johnuckele.vtest;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures passing assertions while every assertion is also written as a JSON record, with the console output
+ * reduced to a summary.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonReporterBenchmark
+{
+    private JsonReporter previousReporter;
+    private Verbosity    previousVerbosity;
+    private int          intValue = 42;
+    private String       text     = "a string operand with \"quotes\"";
+
+    @Setup
+    public void setUp()
+    {
+        previousReporter = Tester.getJsonReporter();
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        Tester.setJsonReporter(new JsonReporter(new OutputStream()
+        {
+            @Override
+            public void write(int b)
+            {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len)
+            {
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.getJsonReporter().close();
+        Tester.setJsonReporter(previousReporter);
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void equalInt()
+    {
+        Tester.equal("int equal", intValue, 42);
+    }
+
+    @Benchmark
+    public void equalString()
+    {
+        Tester.equal("string equal", text, text);
+    }
+}
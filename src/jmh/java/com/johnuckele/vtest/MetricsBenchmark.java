@@ -0,0 +1,67 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of metrics on a passing assertion in summary-only mode. The "progress" mode only counts assertions
+ * for throughput reports, while the "scopes" mode also resolves each assertion's scope to keep per-scope metrics.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark
+{
+    @Param({ "off", "progress", "scopes" })
+    public String metrics;
+
+    private OutputSink previousSink;
+    private Verbosity  previousVerbosity;
+    private int        intValue = 42;
+
+    @Setup
+    public void setUp()
+    {
+        previousSink = Tester.getOutputSink();
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setOutputSink(new DiscardingSink());
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        if (metrics.equals("progress"))
+        {
+            Tester.setProgressInterval(1, TimeUnit.HOURS);
+        }
+        Tester.setMetricsEnabled(metrics.equals("scopes"));
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setProgressInterval(0, TimeUnit.HOURS);
+        Tester.setMetricsEnabled(false);
+        Tester.setOutputSink(previousSink);
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void equalInt()
+    {
+        Tester.equal("int equal", intValue, 42);
+    }
+}
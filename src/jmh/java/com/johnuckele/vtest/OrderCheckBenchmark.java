@@ -0,0 +1,84 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a passing isSorted on a large int array and a large list of boxed integers, which are checked in parallel
+ * chunks, against a sequential loop of lessOrEqual assertions over the same array.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCheckBenchmark
+{
+    @Param({ "50000000" })
+    public int size;
+
+    private Verbosity     previousVerbosity;
+    private int[]         array;
+    private List<Integer> list;
+
+    @Setup
+    public void setUp()
+    {
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        array = new int[size];
+        list = new ArrayList<Integer>(size / 10);
+        for (int i = 0; i < size; i++)
+        {
+            array[i] = i;
+        }
+        for (int i = 0; i < size / 10; i++)
+        {
+            list.add(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void array()
+    {
+        Tester.isSorted("array", array);
+    }
+
+    @Benchmark
+    public void list()
+    {
+        Tester.isSorted("list", list);
+    }
+
+    @Benchmark
+    public void pairwise()
+    {
+        for (int i = 1; i < array.length; i++)
+        {
+            Tester.lessOrEqual("pair", array[i - 1], array[i]);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.johnuckele.vtest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a passing equal on two large hash maps, which are compared in one combined parallel pass, against the four
+ * sequential walks of both equals() and both hashCode() calls that the assertion would otherwise make.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelEqualityBenchmark
+{
+    @Param({ "2000000" })
+    public int size;
+
+    private Verbosity             previousVerbosity;
+    private Map<Integer, Integer> lhs;
+    private Map<Integer, Integer> rhs;
+
+    @Setup
+    public void setUp()
+    {
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        lhs = new HashMap<Integer, Integer>();
+        for (int i = 0; i < size; i++)
+        {
+            lhs.put(i, i);
+        }
+        rhs = new HashMap<Integer, Integer>(lhs);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void combined()
+    {
+        Tester.equal("maps", lhs, rhs);
+    }
+
+    @Benchmark
+    public boolean sequential()
+    {
+        return lhs.equals(rhs) && rhs.equals(lhs) && lhs.hashCode() == rhs.hashCode();
+    }
+}
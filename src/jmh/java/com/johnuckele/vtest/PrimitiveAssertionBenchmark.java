@@ -0,0 +1,80 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures passing primitive assertions. Run with -prof gc to check the allocation rate: in the quiet verbosities a
+ * passing primitive assertion is expected to allocate 0 B/op.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveAssertionBenchmark
+{
+    @Param({ "FAILURES_ONLY", "SUMMARY_ONLY", "FULL" })
+    public Verbosity verbosity;
+
+    private OutputSink previousSink;
+    private Verbosity  previousVerbosity;
+    private int        intValue    = 42;
+    private long       longValue   = 42L;
+    private double     doubleValue = 42.0;
+
+    @Setup
+    public void setUp()
+    {
+        previousSink = Tester.getOutputSink();
+        previousVerbosity = Tester.getVerbosity();
+        Tester.setOutputSink(new DiscardingSink());
+        Tester.setVerbosity(verbosity);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        Tester.setOutputSink(previousSink);
+        Tester.setVerbosity(previousVerbosity);
+    }
+
+    @Benchmark
+    public void equalInt()
+    {
+        Tester.equal("int equal", intValue, 42);
+    }
+
+    @Benchmark
+    public void lessThanLong()
+    {
+        Tester.lessThan("long lessThan", longValue, 43L);
+    }
+
+    @Benchmark
+    public void equalDoubleWithMargin()
+    {
+        Tester.equal("double equal", doubleValue, 42.0, 0.001);
+    }
+
+    @Benchmark
+    public void isTrue()
+    {
+        Tester.isTrue("isTrue", intValue > 0);
+    }
+}
@@ -0,0 +1,50 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of resolving the calling test's scope through each ScopeResolver against the original
+ * Thread.getStackTrace() lookup that Tester.checkScope() used to perform on every assertion. The created resolver is
+ * the one ScopeResolver.create() picks, which is the StackWalker resolver on Java 9 and later.
+ *
+ * @author John Uckele
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScopeResolverBenchmark
+{
+    private final ScopeResolver createdResolver   = ScopeResolver.create();
+    private final ScopeResolver throwableResolver = new ThrowableScopeResolver();
+
+    @Benchmark
+    public StackTraceElement getStackTrace()
+    {
+        return Thread.currentThread().getStackTrace()[1];
+    }
+
+    @Benchmark
+    public Object createdResolver()
+    {
+        return createdResolver.resolve();
+    }
+
+    @Benchmark
+    public Object throwableResolver()
+    {
+        return throwableResolver.resolve();
+    }
+}
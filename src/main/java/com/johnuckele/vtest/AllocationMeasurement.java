@@ -0,0 +1,189 @@
+package com.johnuckele.vtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * The heap memory allocated by single calls of a task on the calling thread, read from the JVM's per-thread allocation
+ * counter. The task is warmed up first, for WARMUP_CALLS calls or WARMUP_NANOS, whichever ends sooner, so that it has
+ * been compiled, and allocations the compiler removes by escape analysis are not counted. Each of the MEASURED_CALLS
+ * calls after that is measured on its own.
+ *
+ * Reading the counter may itself allocate, as it does on Java 8, so the counter is calibrated by reading it twice with
+ * nothing in between, and the smallest difference seen is subtracted from every measurement. This makes the
+ * measurement exact enough to check that a task allocates nothing at all.
+ *
+ * @author John Uckele
+ */
+final class AllocationMeasurement
+{
+    private static final int  WARMUP_CALLS       = 10_000;
+    private static final long WARMUP_NANOS       = 200_000_000L;
+    private static final int  MEASURED_CALLS     = 50;
+    private static final int  CALIBRATION_ROUNDS = 16;
+
+    private static final com.sun.management.ThreadMXBean threads = allocationCounters();
+
+    private final long[] bytes;
+    private final long   collections;
+
+    private AllocationMeasurement(long[] bytes, long collections)
+    {
+        Arrays.sort(bytes);
+        this.bytes = bytes;
+        this.collections = collections;
+    }
+
+    /**
+     * Measure the bytes allocated by calls of a task on the calling thread.
+     *
+     * @param task
+     *            the task to measure
+     * @return the allocations of each measured call
+     * @throws UnsupportedOperationException
+     *             if this JVM does not count allocations per thread
+     */
+    static AllocationMeasurement measure(Callable<?> task)
+    {
+        if (task == null)
+        {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        if (threads == null)
+        {
+            throw new UnsupportedOperationException("This JVM does not count allocated bytes per thread");
+        }
+        long thread = Thread.currentThread().getId();
+        Blackhole blackhole = new Blackhole();
+        long deadline = System.nanoTime() + WARMUP_NANOS;
+        for (int i = 0; i < WARMUP_CALLS && System.nanoTime() - deadline < 0; i++)
+        {
+            call(task, blackhole);
+        }
+        long overhead = calibrate(thread);
+        long[] bytes = new long[MEASURED_CALLS];
+        long collectionsBefore = collections();
+        for (int i = 0; i < MEASURED_CALLS; i++)
+        {
+            long before = threads.getThreadAllocatedBytes(thread);
+            call(task, blackhole);
+            long after = threads.getThreadAllocatedBytes(thread);
+            bytes[i] = Math.max(0L, after - before - overhead);
+        }
+        return new AllocationMeasurement(bytes, collections() - collectionsBefore);
+    }
+
+    /**
+     * Get the median of the bytes allocated per call. The median is robust to the occasional call that allocates more,
+     * such as one that triggers lazy initialization, while a task that allocates on most calls still shows it.
+     *
+     * @return the median bytes allocated per call
+     */
+    long getMedian()
+    {
+        return bytes[bytes.length / 2];
+    }
+
+    long getMin()
+    {
+        return bytes[0];
+    }
+
+    long getMax()
+    {
+        return bytes[bytes.length - 1];
+    }
+
+    int getCalls()
+    {
+        return bytes.length;
+    }
+
+    /**
+     * Get the number of garbage collections that ran, on any thread, while the measured calls were made.
+     *
+     * @return the number of collections
+     */
+    long getCollections()
+    {
+        return collections;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "median of " + bytes.length + " calls; min " + getMin() + " bytes, max " + getMax() + " bytes, "
+                + collections + (collections == 1 ? " collection" : " collections");
+    }
+
+    private static void call(Callable<?> task, Blackhole blackhole)
+    {
+        try
+        {
+            blackhole.consume(task.call());
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("The measured task threw an exception", e);
+        }
+    }
+
+    private static long calibrate(long thread)
+    {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++)
+        {
+            long before = threads.getThreadAllocatedBytes(thread);
+            long after = threads.getThreadAllocatedBytes(thread);
+            overhead = Math.min(overhead, after - before);
+        }
+        return overhead;
+    }
+
+    private static long collections()
+    {
+        long total = 0;
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (GarbageCollectorMXBean collector : collectors)
+        {
+            // Collectors that do not count collections report -1
+            total += Math.max(0L, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounters()
+    {
+        try
+        {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean))
+            {
+                return null;
+            }
+            com.sun.management.ThreadMXBean counters = (com.sun.management.ThreadMXBean) bean;
+            if (!counters.isThreadAllocatedMemorySupported())
+            {
+                return null;
+            }
+            if (!counters.isThreadAllocatedMemoryEnabled())
+            {
+                counters.setThreadAllocatedMemoryEnabled(true);
+            }
+            return counters;
+        }
+        catch (LinkageError | UnsupportedOperationException e)
+        {
+            // The com.sun.management extensions are missing from this JVM
+            return null;
+        }
+    }
+}
@@ -0,0 +1,684 @@
+package com.johnuckele.vtest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Bulk comparison and search over primitive arrays. Exact mismatches use the JDK's intrinsic Arrays.mismatch when it is
+ * available (Java 9+). Otherwise, and for comparisons within a margin, arrays are compared in fixed-size blocks with a
+ * branch-free inner loop that the JIT can vectorize, and only a block that contains a difference is searched element
+ * by element.
+ *
+ * Every mismatch method returns the index of the first difference, the length of the shorter array if one is a prefix
+ * of the other, 0 if exactly one array is null, or -1 if the arrays are equal.
+ *
+ * @author John Uckele
+ */
+final class ArrayScanner
+{
+    private static final int BLOCK = 64;
+    private static final MethodHandle BOOLEAN_MISMATCH = findMismatch(boolean[].class);
+    private static final MethodHandle BYTE_MISMATCH = findMismatch(byte[].class);
+    private static final MethodHandle CHAR_MISMATCH = findMismatch(char[].class);
+    private static final MethodHandle SHORT_MISMATCH = findMismatch(short[].class);
+    private static final MethodHandle INT_MISMATCH = findMismatch(int[].class);
+    private static final MethodHandle LONG_MISMATCH = findMismatch(long[].class);
+    private static final MethodHandle FLOAT_MISMATCH = findMismatch(float[].class);
+    private static final MethodHandle DOUBLE_MISMATCH = findMismatch(double[].class);
+
+    private ArrayScanner()
+    {
+    }
+
+    private static MethodHandle findMismatch(Class<?> arrayType)
+    {
+        try
+        {
+            return MethodHandles.publicLookup().findStatic(java.util.Arrays.class, "mismatch",
+                    MethodType.methodType(int.class, arrayType, arrayType));
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return null;
+        }
+    }
+
+    private static int nullMismatch(Object lhs, Object rhs)
+    {
+        return lhs == rhs ? -1 : 0;
+    }
+
+    private static int tail(int index, int length, int lhsLength, int rhsLength)
+    {
+        return index < length || lhsLength != rhsLength ? index : -1;
+    }
+
+    /**
+     * Find the first index at which two boolean arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(boolean[] lhs, boolean[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (BOOLEAN_MISMATCH != null)
+        {
+            try
+            {
+                return (int) BOOLEAN_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            boolean difference = false;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two byte arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(byte[] lhs, byte[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (BYTE_MISMATCH != null)
+        {
+            try
+            {
+                return (int) BYTE_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            int difference = 0;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two char arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(char[] lhs, char[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (CHAR_MISMATCH != null)
+        {
+            try
+            {
+                return (int) CHAR_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            int difference = 0;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two short arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(short[] lhs, short[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (SHORT_MISMATCH != null)
+        {
+            try
+            {
+                return (int) SHORT_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            int difference = 0;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two int arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(int[] lhs, int[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (INT_MISMATCH != null)
+        {
+            try
+            {
+                return (int) INT_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            int difference = 0;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two long arrays differ.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(long[] lhs, long[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (LONG_MISMATCH != null)
+        {
+            try
+            {
+                return (int) LONG_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            long difference = 0L;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= lhs[j] ^ rhs[j];
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && lhs[i] == rhs[i])
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two float arrays differ. Elements are compared as Float.equals compares them, so
+     * NaN equals NaN, and 0.0 differs from -0.0.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(float[] lhs, float[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (FLOAT_MISMATCH != null)
+        {
+            try
+            {
+                return (int) FLOAT_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            int difference = 0;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= Float.floatToIntBits(lhs[j]) ^ Float.floatToIntBits(rhs[j]);
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && Float.floatToIntBits(lhs[i]) == Float.floatToIntBits(rhs[i]))
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two double arrays differ. Elements are compared as Double.equals compares them, so
+     * NaN equals NaN, and 0.0 differs from -0.0.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @return the index of the first difference, or -1 if the arrays are equal
+     */
+    static int mismatch(double[] lhs, double[] rhs)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        if (DOUBLE_MISMATCH != null)
+        {
+            try
+            {
+                return (int) DOUBLE_MISMATCH.invokeExact(lhs, rhs);
+            }
+            catch (Throwable e)
+            {
+                throw new IllegalStateException(e);
+            }
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            long difference = 0L;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                difference |= Double.doubleToLongBits(lhs[j]) ^ Double.doubleToLongBits(rhs[j]);
+            }
+            if (difference != 0)
+            {
+                break;
+            }
+        }
+        while (i < length && Double.doubleToLongBits(lhs[i]) == Double.doubleToLongBits(rhs[i]))
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two float arrays differ by more than a margin.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     * @return the index of the first difference, or -1 if the arrays are equal within the margin
+     */
+    static int mismatch(float[] lhs, float[] rhs, float margin)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            boolean outside = false;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                // Negated so that NaN is always outside the margin
+                outside |= !(Math.abs(lhs[j] - rhs[j]) <= margin);
+            }
+            if (outside)
+            {
+                break;
+            }
+        }
+        while (i < length && Math.abs(lhs[i] - rhs[i]) <= margin)
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first index at which two double arrays differ by more than a margin.
+     *
+     * @param lhs
+     *            the left hand array
+     * @param rhs
+     *            the right hand array
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     * @return the index of the first difference, or -1 if the arrays are equal within the margin
+     */
+    static int mismatch(double[] lhs, double[] rhs, double margin)
+    {
+        if (lhs == null || rhs == null)
+        {
+            return nullMismatch(lhs, rhs);
+        }
+        int length = Math.min(lhs.length, rhs.length);
+        int i = 0;
+        for (; i + BLOCK <= length; i += BLOCK)
+        {
+            boolean outside = false;
+            for (int j = i; j < i + BLOCK; j++)
+            {
+                // Negated so that NaN is always outside the margin
+                outside |= !(Math.abs(lhs[j] - rhs[j]) <= margin);
+            }
+            if (outside)
+            {
+                break;
+            }
+        }
+        while (i < length && Math.abs(lhs[i] - rhs[i]) <= margin)
+        {
+            i++;
+        }
+        return tail(i, length, lhs.length, rhs.length);
+    }
+
+    /**
+     * Find the first element of a boolean array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(boolean[] array, boolean value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a byte array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(byte[] array, byte value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a char array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(char[] array, char value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a short array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(short[] array, short value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a int array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(int[] array, int value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a long array equal to a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(long[] array, long value)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == value)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a float array within a margin of a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(float[] array, float value, float margin)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (Math.abs(array[i] - value) <= margin)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Find the first element of a double array within a margin of a value.
+     *
+     * @param array
+     *            the array to search
+     * @param value
+     *            the value to search for
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     * @return the index of the first matching element, or -1 if there is none
+     */
+    static int indexOf(double[] array, double value, double margin)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (Math.abs(array[i] - value) <= margin)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,233 @@
+package com.johnuckele.vtest;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An OutputSink that hands entries to a background writer thread through a lock-free ring buffer. Producers claim a
+ * slot with a single atomic increment and never contend on the PrintStream's lock; the writer drains published entries
+ * in batches and prints each batch with one call. Entries from one thread are always written in the order that thread
+ * produced them.
+ *
+ * The sink is flushed when Tester reports a failure, when a JUnit integration reports that a test has ended, when
+ * Tester.flush() is called, and when the JVM shuts down.
+ *
+ * @author John Uckele
+ */
+public class AsyncSink implements OutputSink
+{
+    /**
+     * The default number of entries that can be buffered before producers have to wait for the writer.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int  MAX_BATCH_CHARS = 64 * 1024;
+    private static final long PARK_NANOS      = 100000L;
+
+    private final PrintStream     out;
+    private final String[]        entries;
+    private final AtomicLongArray published;
+    private final int             mask;
+    private final AtomicLong      claimed = new AtomicLong();
+    private final Thread          writer;
+    private final Thread          shutdownHook;
+
+    private volatile long    consumed = 0;
+    private volatile long    written  = 0;
+    private volatile long    flushTo  = 0;
+    private volatile boolean sleeping = false;
+    private volatile boolean closed   = false;
+
+    /**
+     * Create a sink writing to System.out with the default capacity.
+     */
+    public AsyncSink()
+    {
+        this(System.out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a sink writing to a stream.
+     *
+     * @param out
+     *            the stream to write to
+     * @param capacity
+     *            the number of entries to buffer, rounded up to a power of two
+     */
+    public AsyncSink(PrintStream out, int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+        {
+            size <<= 1;
+        }
+        this.out = out;
+        this.entries = new String[size];
+        this.published = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++)
+        {
+            published.set(i, -1L);
+        }
+        writer = new Thread(this::drain, "vtest-output");
+        writer.setDaemon(true);
+        writer.start();
+        shutdownHook = new Thread(this::close, "vtest-output-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    @Override
+    public void println(CharSequence line)
+    {
+        String entry = line.toString();
+        if (closed)
+        {
+            out.println(entry);
+            return;
+        }
+        long sequence = claimed.getAndIncrement();
+        while (sequence - consumed >= entries.length)
+        {
+            if (closed && !writer.isAlive())
+            {
+                out.println(entry);
+                return;
+            }
+            // The ring is full, so wait for the writer to catch up
+            wake();
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        int index = (int) sequence & mask;
+        entries[index] = entry;
+        // A volatile store, so that the writer cannot go to sleep without seeing this entry
+        published.set(index, sequence);
+        if (sleeping)
+        {
+            wake();
+        }
+        if (closed)
+        {
+            // The sink closed while this entry was being published, and the writer may have stopped before it saw the
+            // entry. Once the writer has stopped, the entry is written here unless the writer got to it first.
+            awaitWriter();
+            if (consumed <= sequence)
+            {
+                entries[index] = null;
+                out.println(entry);
+            }
+        }
+    }
+
+    @Override
+    public void flush()
+    {
+        long target = claimed.get();
+        if (flushTo < target)
+        {
+            flushTo = target;
+        }
+        while (written < target && writer.isAlive())
+        {
+            wake();
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        flush();
+        closed = true;
+        wake();
+        try
+        {
+            writer.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            catch (IllegalStateException e)
+            {
+                // The JVM is already shutting down
+            }
+        }
+    }
+
+    private void wake()
+    {
+        LockSupport.unpark(writer);
+    }
+
+    private void awaitWriter()
+    {
+        while (writer.isAlive())
+        {
+            wake();
+            LockSupport.parkNanos(this, PARK_NANOS);
+        }
+    }
+
+    private void drain()
+    {
+        StringBuilder batch = new StringBuilder(MAX_BATCH_CHARS);
+        String separator = System.lineSeparator();
+        long next = 0;
+        while (true)
+        {
+            int index = (int) next & mask;
+            if (published.get(index) == next)
+            {
+                batch.append(entries[index]).append(separator);
+                entries[index] = null;
+                next++;
+                if (batch.length() < MAX_BATCH_CHARS)
+                {
+                    continue;
+                }
+            }
+            if (batch.length() > 0)
+            {
+                out.print(batch);
+                batch.setLength(0);
+                consumed = next;
+                if (flushTo <= written)
+                {
+                    continue;
+                }
+            }
+            if (written != next)
+            {
+                out.flush();
+                written = next;
+            }
+            if (closed && next == claimed.get())
+            {
+                return;
+            }
+            sleeping = true;
+            if (published.get((int) next & mask) != next && !closed)
+            {
+                LockSupport.park(this);
+            }
+            sleeping = false;
+        }
+    }
+}
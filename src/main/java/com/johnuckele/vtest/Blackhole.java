@@ -0,0 +1,29 @@
+package com.johnuckele.vtest;
+
+/**
+ * Consumes the results of timed tasks so that the JIT compiler cannot prove them unused and eliminate the work that
+ * produced them. Each result is compared against a volatile field that never holds a result, which the compiler must
+ * re-read on every call, so the comparison and everything it depends on has to be computed.
+ *
+ * @author John Uckele
+ */
+final class Blackhole
+{
+    private volatile Object bait = new Object();
+    private Object          trap;
+
+    /**
+     * Consume a value.
+     *
+     * @param value
+     *            the value to consume
+     */
+    void consume(Object value)
+    {
+        if (value == bait)
+        {
+            // Unreachable, since bait is never shared, but the compiler cannot know that
+            trap = value;
+        }
+    }
+}
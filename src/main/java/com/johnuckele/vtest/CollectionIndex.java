@@ -0,0 +1,216 @@
+package com.johnuckele.vtest;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Bulk membership checks against a collection in near-linear time. Sets already answer contains() cheaply and are
+ * queried directly. Large random access lists are indexed once into a hash map from element to position, and the index
+ * is cached per thread, keyed by the list's identity, so repeated checks against the same list reuse it.
+ *
+ * A list's modification count is not visible outside java.util, so a cached index is validated differently: it is
+ * dropped when the list's size changes, every hit is verified against the list at the indexed position, and before an
+ * element is reported missing the index is rebuilt from the list's current contents. A stale index can therefore cost
+ * a rebuild, but never a wrong answer.
+ *
+ * An index holds its list weakly, but its elements strongly. The indexes of collected lists are therefore freed through
+ * a reference queue as soon as their thread next checks membership, rather than when their cache slot is reused.
+ *
+ * @author John Uckele
+ */
+final class CollectionIndex
+{
+    private static final int MIN_INDEXED_SIZE = 64;
+    private static final int CACHE_SIZE       = 4;
+
+    private static final ThreadLocal<Cache> cache = ThreadLocal.withInitial(Cache::new);
+
+    private final WeakReference<List<?>> list;
+    private final int                    size;
+    private final Map<Object, Integer>   positions;
+
+    /**
+     * The indexes cached by one thread, and the queue their lists' references are enqueued on once the lists are
+     * collected.
+     */
+    private static final class Cache
+    {
+        private final CollectionIndex[]        entries   = new CollectionIndex[CACHE_SIZE];
+        private final ReferenceQueue<List<?>> collected = new ReferenceQueue<List<?>>();
+
+        /**
+         * Free the indexes of the lists that have been collected.
+         */
+        CollectionIndex[] expunge()
+        {
+            for (Reference<? extends List<?>> reference = collected.poll(); reference != null; reference = collected
+                    .poll())
+            {
+                for (int i = 0; i < entries.length; i++)
+                {
+                    if (entries[i] != null && entries[i].list == reference)
+                    {
+                        entries[i] = null;
+                    }
+                }
+            }
+            return entries;
+        }
+    }
+
+    private CollectionIndex(List<?> list, ReferenceQueue<List<?>> collected)
+    {
+        this.list = new WeakReference<List<?>>(list, collected);
+        this.size = list.size();
+        this.positions = new HashMap<Object, Integer>(Math.max(16, (int) (size / 0.75f) + 1));
+        for (int i = size - 1; i >= 0; i--)
+        {
+            positions.put(list.get(i), i);
+        }
+    }
+
+    /**
+     * Find the values that a collection does not contain.
+     *
+     * @param collection
+     *            the collection to search
+     * @param values
+     *            the values to search for
+     * @param <K>
+     *            the type of the values
+     * @return the missing values in the order they were given, or an empty list if none are missing
+     */
+    static <K> List<K> missing(Collection<?> collection, Collection<? extends K> values)
+    {
+        List<K> missing = Collections.emptyList();
+        if (collection instanceof Set || collection.size() < MIN_INDEXED_SIZE)
+        {
+            for (K value : values)
+            {
+                if (!collection.contains(value))
+                {
+                    missing = add(missing, value);
+                }
+            }
+        }
+        else if (collection instanceof List && collection instanceof RandomAccess)
+        {
+            List<?> list = (List<?>) collection;
+            CollectionIndex index = cached(list);
+            boolean fresh = index == null;
+            if (fresh)
+            {
+                index = store(list);
+            }
+            for (K value : values)
+            {
+                if (!index.contains(list, value))
+                {
+                    if (!fresh)
+                    {
+                        index = store(list);
+                        fresh = true;
+                    }
+                    if (!index.contains(list, value))
+                    {
+                        missing = add(missing, value);
+                    }
+                }
+            }
+        }
+        else
+        {
+            Set<Object> elements = new HashSet<Object>(collection);
+            for (K value : values)
+            {
+                if (!elements.contains(value))
+                {
+                    missing = add(missing, value);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private static <K> List<K> add(List<K> missing, K value)
+    {
+        if (missing.isEmpty())
+        {
+            missing = new ArrayList<K>();
+        }
+        missing.add(value);
+        return missing;
+    }
+
+    private static CollectionIndex cached(List<?> list)
+    {
+        CollectionIndex[] entries = cache.get().expunge();
+        for (int i = 0; i < entries.length; i++)
+        {
+            CollectionIndex entry = entries[i];
+            if (entry != null && entry.list.get() == list)
+            {
+                if (entry.size == list.size())
+                {
+                    return entry;
+                }
+                entries[i] = null;
+            }
+        }
+        return null;
+    }
+
+    private static CollectionIndex store(List<?> list)
+    {
+        Cache localCache = cache.get();
+        CollectionIndex[] entries = localCache.expunge();
+        CollectionIndex index = new CollectionIndex(list, localCache.collected);
+        for (int i = 0; i < entries.length; i++)
+        {
+            if (entries[i] == null || entries[i].list.get() == list)
+            {
+                entries[i] = index;
+                return index;
+            }
+        }
+        // The cache is full, so evict an entry picked by the new list's identity
+        entries[(System.identityHashCode(list) & Integer.MAX_VALUE) % entries.length] = index;
+        return index;
+    }
+
+    /**
+     * Count the indexes cached by the current thread, after freeing those of collected lists.
+     *
+     * @return the number of cached indexes
+     */
+    static int countCached()
+    {
+        int count = 0;
+        for (CollectionIndex entry : cache.get().expunge())
+        {
+            if (entry != null)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean contains(List<?> indexedList, Object value)
+    {
+        Integer position = positions.get(value);
+        return position != null && position < indexedList.size()
+                && Objects.equals(indexedList.get(position), value);
+    }
+}
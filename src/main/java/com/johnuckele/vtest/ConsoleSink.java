@@ -0,0 +1,56 @@
+package com.johnuckele.vtest;
+
+import java.io.PrintStream;
+
+/**
+ * An OutputSink that synchronously prints every entry to a PrintStream. This is Tester's default sink, and by default
+ * it prints to whatever System.out is at the time of each call.
+ *
+ * @author John Uckele
+ */
+public class ConsoleSink implements OutputSink
+{
+    private final PrintStream out;
+
+    /**
+     * Create a sink printing to System.out.
+     */
+    public ConsoleSink()
+    {
+        this(null);
+    }
+
+    /**
+     * Create a sink printing to a fixed stream.
+     *
+     * @param out
+     *            the stream to print to
+     */
+    public ConsoleSink(PrintStream out)
+    {
+        this.out = out;
+    }
+
+    @Override
+    public void println(CharSequence line)
+    {
+        stream().println(line);
+    }
+
+    @Override
+    public void flush()
+    {
+        stream().flush();
+    }
+
+    @Override
+    public void close()
+    {
+        flush();
+    }
+
+    private PrintStream stream()
+    {
+        return out != null ? out : System.out;
+    }
+}
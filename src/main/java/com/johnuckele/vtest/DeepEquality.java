@@ -0,0 +1,865 @@
+package com.johnuckele.vtest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Compares two object graphs structurally and finds the path to their first difference. Lists, queues and arrays are
+ * compared element by element, sets by membership, maps by key, and other collections, such as a map's values() view,
+ * as multisets. Classes from the java and javax packages are compared with equals(), and every other class is compared
+ * field by field, including private and inherited fields, whether or not it overrides equals().
+ *
+ * The fields of each class are resolved once into an accessor plan of MethodHandles, which is cached in a ClassValue,
+ * so repeated comparisons of the same types do no reflection. Graphs are walked with an explicit stack rather than by
+ * recursion, so long chains of objects cannot overflow the thread's stack, and pairs of objects that have already been
+ * compared are remembered by identity, so cycles and shared subgraphs are only walked once.
+ *
+ * A set member is first looked up with the other set's contains(). Members left over on both sides are then matched
+ * structurally, but only against the members that share their structural hash: a hash of the first few levels of
+ * their graph, read through the accessor plans so that it agrees with the field by field comparison. Sets whose
+ * leftover members all share a hash, such as members that differ only in floating point fields, still take time
+ * proportional to the product of their sizes. The elements of a multiset are matched the same way, all of them
+ * structurally, since such collections have no contains() faster than a scan.
+ *
+ * @author John Uckele
+ */
+final class DeepEquality
+{
+    /**
+     * Stands in for the missing side of a difference, such as a map entry that only one map has.
+     */
+    static final Object ABSENT = new Object()
+    {
+        @Override
+        public String toString()
+        {
+            return "(absent)";
+        }
+    };
+
+    private static final ClassValue<Accessor[]> plans = new ClassValue<Accessor[]>()
+    {
+        @Override
+        protected Accessor[] computeValue(Class<?> type)
+        {
+            return plan(type);
+        }
+    };
+
+    private static final int MAX_HASH_DEPTH    = 4;
+    private static final int MAX_HASH_ELEMENTS = 16;
+
+    private final double          margin;
+    private final Deque<Node>     stack   = new ArrayDeque<Node>();
+    private final IdentityPairSet visited = new IdentityPairSet();
+
+    private DeepEquality(double margin)
+    {
+        this.margin = margin;
+    }
+
+    /**
+     * Find the first difference between two object graphs.
+     *
+     * @param lhs
+     *            the left hand graph
+     * @param rhs
+     *            the right hand graph
+     * @param margin
+     *            the maximum difference between two floating point values that are still considered the same
+     * @return the first difference, or null if the graphs are structurally equal
+     */
+    static Difference firstDifference(Object lhs, Object rhs, double margin)
+    {
+        return new DeepEquality(margin).compare(lhs, rhs);
+    }
+
+    private Difference compare(Object root, Object otherRoot)
+    {
+        stack.push(Node.root(root, otherRoot));
+        while (!stack.isEmpty())
+        {
+            Node node = stack.pop();
+            Object lhs = node.lhs;
+            Object rhs = node.rhs;
+            if (node.different)
+            {
+                return node.difference(lhs, rhs);
+            }
+            if (lhs == rhs)
+            {
+                continue;
+            }
+            if (lhs == null || rhs == null)
+            {
+                return node.difference(lhs, rhs);
+            }
+            if (lhs instanceof List && rhs instanceof List)
+            {
+                if (visited.add(lhs, rhs))
+                {
+                    pushElements(node, ((List<?>) lhs).toArray(), ((List<?>) rhs).toArray());
+                }
+            }
+            else if (lhs instanceof Set && rhs instanceof Set)
+            {
+                if (visited.add(lhs, rhs))
+                {
+                    Difference difference = compareSets(node, (Set<?>) lhs, (Set<?>) rhs);
+                    if (difference != null)
+                    {
+                        return difference;
+                    }
+                }
+            }
+            else if (lhs instanceof Map && rhs instanceof Map)
+            {
+                if (visited.add(lhs, rhs))
+                {
+                    Difference difference = compareMaps(node, (Map<?, ?>) lhs, (Map<?, ?>) rhs);
+                    if (difference != null)
+                    {
+                        return difference;
+                    }
+                }
+            }
+            else if (isBag(lhs) && isBag(rhs))
+            {
+                if (lhs instanceof Queue != rhs instanceof Queue)
+                {
+                    return node.difference(lhs, rhs);
+                }
+                if (visited.add(lhs, rhs))
+                {
+                    if (lhs instanceof Queue)
+                    {
+                        pushElements(node, ((Collection<?>) lhs).toArray(), ((Collection<?>) rhs).toArray());
+                    }
+                    else
+                    {
+                        Difference difference = compareBags(node, (Collection<?>) lhs, (Collection<?>) rhs);
+                        if (difference != null)
+                        {
+                            return difference;
+                        }
+                    }
+                }
+            }
+            else if (lhs.getClass() != rhs.getClass())
+            {
+                return node.difference(lhs, rhs);
+            }
+            else if (lhs instanceof Double || lhs instanceof Float)
+            {
+                if (!withinMargin(((Number) lhs).doubleValue(), ((Number) rhs).doubleValue()))
+                {
+                    return node.difference(lhs, rhs);
+                }
+            }
+            else if (lhs.getClass().isArray())
+            {
+                if (visited.add(lhs, rhs))
+                {
+                    Difference difference = compareArrays(node, lhs, rhs);
+                    if (difference != null)
+                    {
+                        return difference;
+                    }
+                }
+            }
+            else
+            {
+                Accessor[] plan = plans.get(lhs.getClass());
+                if (plan == null)
+                {
+                    if (!lhs.equals(rhs))
+                    {
+                        return node.difference(lhs, rhs);
+                    }
+                }
+                else if (visited.add(lhs, rhs))
+                {
+                    Difference difference = compareFields(node, plan, lhs, rhs);
+                    if (difference != null)
+                    {
+                        return difference;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private void pushElements(Node node, Object[] lhs, Object[] rhs)
+    {
+        int length = Math.min(lhs.length, rhs.length);
+        if (lhs.length != rhs.length)
+        {
+            // Pushed beneath the common elements, so that a changed element is reported ahead of a changed length
+            stack.push(node.child(length).different(length < lhs.length ? lhs[length] : ABSENT,
+                    length < rhs.length ? rhs[length] : ABSENT));
+        }
+        // Pushed in reverse, so that elements are compared in order
+        for (int i = length - 1; i >= 0; i--)
+        {
+            stack.push(node.child(i, lhs[i], rhs[i]));
+        }
+    }
+
+    private Difference compareSets(Node node, Set<?> lhs, Set<?> rhs)
+    {
+        List<Object> unmatched = new ArrayList<Object>();
+        for (Object element : lhs)
+        {
+            if (!rhs.contains(element))
+            {
+                unmatched.add(element);
+            }
+        }
+        // Elements without a usable equals() have to be matched structurally, against candidates with the same hash
+        List<Object> candidates = new ArrayList<Object>();
+        Map<Integer, List<Object>> buckets = new HashMap<Integer, List<Object>>();
+        for (Object element : rhs)
+        {
+            if (!lhs.contains(element))
+            {
+                candidates.add(element);
+                buckets.computeIfAbsent(structuralHash(element, 0), hash -> new ArrayList<Object>()).add(element);
+            }
+        }
+        Set<Object> matched = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+        for (Object element : unmatched)
+        {
+            Object match = removeMatch(buckets.get(structuralHash(element, 0)), element);
+            if (match == null)
+            {
+                return node.member(element).difference(element, ABSENT);
+            }
+            matched.add(match);
+        }
+        for (Object candidate : candidates)
+        {
+            if (!matched.remove(candidate))
+            {
+                return node.member(candidate).difference(ABSENT, candidate);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check that a value is a collection that is neither a list nor a set, such as a queue or a map's values() view.
+     */
+    private static boolean isBag(Object value)
+    {
+        return value instanceof Collection && !(value instanceof List) && !(value instanceof Set);
+    }
+
+    /**
+     * Compare two unordered collections as multisets, matching each element structurally against the elements of the
+     * other side that share its structural hash.
+     */
+    private Difference compareBags(Node node, Collection<?> lhs, Collection<?> rhs)
+    {
+        Map<Integer, List<Object>> buckets = new HashMap<Integer, List<Object>>();
+        for (Object element : rhs)
+        {
+            buckets.computeIfAbsent(structuralHash(element, 0), hash -> new ArrayList<Object>()).add(element);
+        }
+        for (Object element : lhs)
+        {
+            if (removeMatch(buckets.get(structuralHash(element, 0)), element) == null)
+            {
+                return node.member(element).difference(element, ABSENT);
+            }
+        }
+        for (List<Object> bucket : buckets.values())
+        {
+            if (!bucket.isEmpty())
+            {
+                return node.member(bucket.get(0)).difference(ABSENT, bucket.get(0));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remove the first candidate that is structurally equal to an element.
+     *
+     * @return the candidate removed, or null if none matched
+     */
+    private Object removeMatch(List<Object> candidates, Object element)
+    {
+        if (candidates == null)
+        {
+            return null;
+        }
+        for (Iterator<Object> iterator = candidates.iterator(); iterator.hasNext();)
+        {
+            Object candidate = iterator.next();
+            if (new DeepEquality(margin).compare(element, candidate) == null)
+            {
+                iterator.remove();
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hash the first levels of a graph so that graphs this class finds equal always hash alike. Floating point values
+     * are left out, since they only need to be equal within the margin, and so are nested sets, whose members may be
+     * matched by equals() rather than structurally. Only the first elements of lists and arrays are hashed.
+     */
+    private static int structuralHash(Object value, int depth)
+    {
+        if (value == null || value instanceof Double || value instanceof Float || value instanceof Set)
+        {
+            return 0;
+        }
+        else if (depth == MAX_HASH_DEPTH)
+        {
+            return 1;
+        }
+        else if (value instanceof List)
+        {
+            List<?> list = (List<?>) value;
+            int hash = list.size();
+            int count = 0;
+            for (Iterator<?> iterator = list.iterator(); iterator.hasNext() && count < MAX_HASH_ELEMENTS; count++)
+            {
+                hash = hash * 31 + structuralHash(iterator.next(), depth + 1);
+            }
+            return hash;
+        }
+        else if (value instanceof Queue)
+        {
+            Collection<?> queue = (Collection<?>) value;
+            int hash = queue.size();
+            int count = 0;
+            for (Iterator<?> iterator = queue.iterator(); iterator.hasNext() && count < MAX_HASH_ELEMENTS; count++)
+            {
+                hash = hash * 31 + structuralHash(iterator.next(), depth + 1);
+            }
+            return hash;
+        }
+        else if (value instanceof Collection)
+        {
+            // Summed, so that the hash of an unordered collection does not depend on its iteration order
+            Collection<?> bag = (Collection<?>) value;
+            int hash = bag.size();
+            for (Object element : bag)
+            {
+                hash += structuralHash(element, depth + 1);
+            }
+            return hash;
+        }
+        else if (value instanceof Map)
+        {
+            // Keys are matched with containsKey(), so their own hash codes are consistent with the comparison
+            int hash = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+            {
+                hash += (entry.getKey() == null ? 0 : entry.getKey().hashCode())
+                        ^ structuralHash(entry.getValue(), depth + 1);
+            }
+            return hash;
+        }
+        else if (value instanceof Object[])
+        {
+            Object[] array = (Object[]) value;
+            int hash = array.length;
+            for (int i = 0; i < array.length && i < MAX_HASH_ELEMENTS; i++)
+            {
+                hash = hash * 31 + structuralHash(array[i], depth + 1);
+            }
+            return hash;
+        }
+        else if (value instanceof double[] || value instanceof float[])
+        {
+            return Array.getLength(value);
+        }
+        else if (value.getClass().isArray())
+        {
+            return Array.getLength(value) * 31 + value.getClass().hashCode();
+        }
+        Accessor[] plan = plans.get(value.getClass());
+        if (plan == null)
+        {
+            return value.hashCode();
+        }
+        int hash = value.getClass().hashCode();
+        try
+        {
+            for (Accessor accessor : plan)
+            {
+                if (accessor.kind == Accessor.REFERENCE)
+                {
+                    hash = hash * 31 + structuralHash((Object) accessor.getter.invokeExact(value), depth + 1);
+                }
+                else if (accessor.kind == Accessor.LONG)
+                {
+                    hash = hash * 31 + Long.hashCode((long) accessor.getter.invokeExact(value));
+                }
+                else if (accessor.kind == Accessor.BOOLEAN)
+                {
+                    hash = hash * 31 + Boolean.hashCode((boolean) accessor.getter.invokeExact(value));
+                }
+            }
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException("Cannot read the fields of " + value.getClass().getName(), e);
+        }
+        return hash;
+    }
+
+    private Difference compareMaps(Node node, Map<?, ?> lhs, Map<?, ?> rhs)
+    {
+        List<Node> children = new ArrayList<Node>(lhs.size());
+        for (Map.Entry<?, ?> entry : lhs.entrySet())
+        {
+            Object key = entry.getKey();
+            if (!rhs.containsKey(key))
+            {
+                return node.entry(key).difference(entry.getValue(), ABSENT);
+            }
+            children.add(node.entry(key, entry.getValue(), rhs.get(key)));
+        }
+        if (lhs.size() != rhs.size())
+        {
+            for (Map.Entry<?, ?> entry : rhs.entrySet())
+            {
+                if (!lhs.containsKey(entry.getKey()))
+                {
+                    return node.entry(entry.getKey()).difference(ABSENT, entry.getValue());
+                }
+            }
+        }
+        for (int i = children.size() - 1; i >= 0; i--)
+        {
+            stack.push(children.get(i));
+        }
+        return null;
+    }
+
+    private Difference compareArrays(Node node, Object lhs, Object rhs)
+    {
+        int mismatch;
+        if (lhs instanceof Object[])
+        {
+            pushElements(node, (Object[]) lhs, (Object[]) rhs);
+            return null;
+        }
+        else if (lhs instanceof int[])
+        {
+            mismatch = ArrayScanner.mismatch((int[]) lhs, (int[]) rhs);
+        }
+        else if (lhs instanceof long[])
+        {
+            mismatch = ArrayScanner.mismatch((long[]) lhs, (long[]) rhs);
+        }
+        else if (lhs instanceof double[])
+        {
+            mismatch = ArrayScanner.mismatch((double[]) lhs, (double[]) rhs, margin);
+        }
+        else if (lhs instanceof float[])
+        {
+            mismatch = ArrayScanner.mismatch((float[]) lhs, (float[]) rhs, (float) margin);
+        }
+        else if (lhs instanceof byte[])
+        {
+            mismatch = ArrayScanner.mismatch((byte[]) lhs, (byte[]) rhs);
+        }
+        else if (lhs instanceof short[])
+        {
+            mismatch = ArrayScanner.mismatch((short[]) lhs, (short[]) rhs);
+        }
+        else if (lhs instanceof char[])
+        {
+            mismatch = ArrayScanner.mismatch((char[]) lhs, (char[]) rhs);
+        }
+        else
+        {
+            mismatch = ArrayScanner.mismatch((boolean[]) lhs, (boolean[]) rhs);
+        }
+        if (mismatch < 0)
+        {
+            return null;
+        }
+        int lhsLength = Array.getLength(lhs);
+        int rhsLength = Array.getLength(rhs);
+        return node.child(mismatch).difference(mismatch < lhsLength ? Array.get(lhs, mismatch) : ABSENT,
+                mismatch < rhsLength ? Array.get(rhs, mismatch) : ABSENT);
+    }
+
+    private Difference compareFields(Node node, Accessor[] plan, Object lhs, Object rhs)
+    {
+        try
+        {
+            // Primitive fields are compared immediately, ahead of reference fields, which are pushed in reverse
+            // declaration order so that they are compared in declaration order
+            for (int i = plan.length - 1; i >= 0; i--)
+            {
+                Accessor accessor = plan[i];
+                if (accessor.kind == Accessor.REFERENCE)
+                {
+                    stack.push(node.field(accessor.name, (Object) accessor.getter.invokeExact(lhs),
+                            (Object) accessor.getter.invokeExact(rhs)));
+                }
+            }
+            for (Accessor accessor : plan)
+            {
+                boolean same;
+                if (accessor.kind == Accessor.LONG)
+                {
+                    same = (long) accessor.getter.invokeExact(lhs) == (long) accessor.getter.invokeExact(rhs);
+                }
+                else if (accessor.kind == Accessor.DOUBLE)
+                {
+                    same = withinMargin((double) accessor.getter.invokeExact(lhs),
+                            (double) accessor.getter.invokeExact(rhs));
+                }
+                else if (accessor.kind == Accessor.BOOLEAN)
+                {
+                    same = (boolean) accessor.getter.invokeExact(lhs) == (boolean) accessor.getter.invokeExact(rhs);
+                }
+                else
+                {
+                    continue;
+                }
+                if (!same)
+                {
+                    return node.field(accessor.name).difference(accessor.field.get(lhs), accessor.field.get(rhs));
+                }
+            }
+            return null;
+        }
+        catch (Throwable e)
+        {
+            throw new IllegalStateException("Cannot read the fields of " + lhs.getClass().getName(), e);
+        }
+    }
+
+    private boolean withinMargin(double lhs, double rhs)
+    {
+        return lhs == rhs || Math.abs(lhs - rhs) <= margin;
+    }
+
+    /**
+     * Build the accessor plan of a class: a getter for every instance field declared by the class and its
+     * superclasses, superclass fields first.
+     *
+     * @return the plan, or null if the class should be compared with equals()
+     */
+    private static Accessor[] plan(Class<?> type)
+    {
+        String name = type.getName();
+        if (type.isPrimitive() || Enum.class.isAssignableFrom(type) || name.startsWith("java.")
+                || name.startsWith("javax."))
+        {
+            return null;
+        }
+        List<Accessor> accessors = new ArrayList<Accessor>();
+        Class<?> superclass = type.getSuperclass();
+        if (superclass != null && superclass != Object.class)
+        {
+            Accessor[] inherited = plans.get(superclass);
+            if (inherited == null)
+            {
+                // The class extends a JDK class whose fields cannot be read, so only equals() can compare it
+                return null;
+            }
+            for (Accessor accessor : inherited)
+            {
+                accessors.add(accessor);
+            }
+        }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (Field field : type.getDeclaredFields())
+        {
+            if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic())
+            {
+                continue;
+            }
+            try
+            {
+                field.setAccessible(true);
+                accessors.add(new Accessor(field, lookup.unreflectGetter(field)));
+            }
+            catch (IllegalAccessException e)
+            {
+                return null;
+            }
+            catch (RuntimeException e)
+            {
+                // Module encapsulation (InaccessibleObjectException) on Java 9+
+                return null;
+            }
+        }
+        return accessors.toArray(new Accessor[accessors.size()]);
+    }
+
+    /**
+     * The first difference between two object graphs.
+     */
+    static final class Difference
+    {
+        private final String path;
+        private final Object lhs;
+        private final Object rhs;
+
+        Difference(String path, Object lhs, Object rhs)
+        {
+            this.path = path;
+            this.lhs = lhs;
+            this.rhs = rhs;
+        }
+
+        /**
+         * Get the path from the roots to the differing values, such as "root.bodies[3].position".
+         *
+         * @return the path to the difference
+         */
+        String getPath()
+        {
+            return path;
+        }
+
+        Object getLhs()
+        {
+            return lhs;
+        }
+
+        Object getRhs()
+        {
+            return rhs;
+        }
+    }
+
+    /**
+     * A field of a class, with a getter adapted to one of four kinds so that primitives are compared without boxing.
+     */
+    private static final class Accessor
+    {
+        static final int REFERENCE = 0;
+        static final int LONG      = 1;
+        static final int DOUBLE    = 2;
+        static final int BOOLEAN   = 3;
+
+        final Field        field;
+        final String       name;
+        final int          kind;
+        final MethodHandle getter;
+
+        Accessor(Field field, MethodHandle getter)
+        {
+            Class<?> type = field.getType();
+            this.field = field;
+            this.name = field.getName();
+            if (!type.isPrimitive())
+            {
+                kind = REFERENCE;
+                this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            }
+            else if (type == double.class || type == float.class)
+            {
+                kind = DOUBLE;
+                this.getter = getter.asType(MethodType.methodType(double.class, Object.class));
+            }
+            else if (type == boolean.class)
+            {
+                kind = BOOLEAN;
+                this.getter = getter.asType(MethodType.methodType(boolean.class, Object.class));
+            }
+            else
+            {
+                kind = LONG;
+                this.getter = getter.asType(MethodType.methodType(long.class, Object.class));
+            }
+        }
+    }
+
+    /**
+     * A pair of values to compare, linked to its parent so that its path is only built if it differs.
+     */
+    private static final class Node
+    {
+        private static final int ROOT   = 0;
+        private static final int FIELD  = 1;
+        private static final int INDEX  = 2;
+        private static final int KEY    = 3;
+        private static final int MEMBER = 4;
+
+        final Node    parent;
+        final Object  segment;
+        final int     kind;
+        final Object  lhs;
+        final Object  rhs;
+        final boolean different;
+
+        private Node(Node parent, Object segment, int kind, Object lhs, Object rhs, boolean different)
+        {
+            this.parent = parent;
+            this.segment = segment;
+            this.kind = kind;
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.different = different;
+        }
+
+        static Node root(Object lhs, Object rhs)
+        {
+            return new Node(null, null, ROOT, lhs, rhs, false);
+        }
+
+        Node field(String name, Object fieldLhs, Object fieldRhs)
+        {
+            return new Node(this, name, FIELD, fieldLhs, fieldRhs, false);
+        }
+
+        Node field(String name)
+        {
+            return field(name, null, null);
+        }
+
+        Node child(int index, Object elementLhs, Object elementRhs)
+        {
+            return new Node(this, index, INDEX, elementLhs, elementRhs, false);
+        }
+
+        Node child(int index)
+        {
+            return child(index, null, null);
+        }
+
+        Node entry(Object key, Object valueLhs, Object valueRhs)
+        {
+            return new Node(this, key, KEY, valueLhs, valueRhs, false);
+        }
+
+        Node entry(Object key)
+        {
+            return entry(key, null, null);
+        }
+
+        Node member(Object element)
+        {
+            return new Node(this, element, MEMBER, null, null, false);
+        }
+
+        /**
+         * Create a copy of this node holding a pair already known to differ, to be reported when it is reached.
+         */
+        Node different(Object differentLhs, Object differentRhs)
+        {
+            return new Node(parent, segment, kind, differentLhs, differentRhs, true);
+        }
+
+        Difference difference(Object differentLhs, Object differentRhs)
+        {
+            return new Difference(path(), differentLhs, differentRhs);
+        }
+
+        String path()
+        {
+            StringBuilder path = new StringBuilder();
+            appendPath(path);
+            return path.toString();
+        }
+
+        private void appendPath(StringBuilder path)
+        {
+            if (parent == null)
+            {
+                path.append("root");
+                return;
+            }
+            parent.appendPath(path);
+            if (kind == FIELD)
+            {
+                path.append('.').append(segment);
+            }
+            else if (kind == MEMBER)
+            {
+                path.append('{').append(segment).append('}');
+            }
+            else
+            {
+                path.append('[').append(segment).append(']');
+            }
+        }
+    }
+
+    /**
+     * An open addressing hash set of pairs of objects, compared by identity.
+     */
+    private static final class IdentityPairSet
+    {
+        private Object[] pairs = new Object[64];
+        private int      size;
+
+        /**
+         * Add a pair to the set.
+         *
+         * @return true if the pair was not already in the set
+         */
+        boolean add(Object lhs, Object rhs)
+        {
+            if ((size + 1) * 4 > pairs.length)
+            {
+                resize();
+            }
+            int mask = pairs.length / 2 - 1;
+            int slot = hash(lhs, rhs) & mask;
+            while (pairs[slot * 2] != null)
+            {
+                if (pairs[slot * 2] == lhs && pairs[slot * 2 + 1] == rhs)
+                {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            pairs[slot * 2] = lhs;
+            pairs[slot * 2 + 1] = rhs;
+            size++;
+            return true;
+        }
+
+        private void resize()
+        {
+            Object[] previousPairs = pairs;
+            pairs = new Object[previousPairs.length * 2];
+            size = 0;
+            for (int i = 0; i < previousPairs.length; i += 2)
+            {
+                if (previousPairs[i] != null)
+                {
+                    add(previousPairs[i], previousPairs[i + 1]);
+                }
+            }
+        }
+
+        private static int hash(Object lhs, Object rhs)
+        {
+            int hash = System.identityHashCode(lhs) * 31 + System.identityHashCode(rhs);
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.johnuckele.vtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random doubles for property tests without boxing them.
+ *
+ * @author John Uckele
+ * @see Generators
+ * @see Tester#forAllDoubles(String, DoubleGenerator, java.util.function.DoublePredicate)
+ */
+@FunctionalInterface
+public interface DoubleGenerator
+{
+    /**
+     * Generate a value. The value must depend only on the numbers drawn from the random source, so that a seed always
+     * reproduces the same values.
+     *
+     * @param random
+     *            the source of randomness
+     * @return the generated value
+     */
+    double next(SplittableRandom random);
+
+    /**
+     * Get values that are simpler than a value that fails a property, to be tried in order when shrinking it to a
+     * minimal counterexample. By default a value cannot be shrunk.
+     *
+     * @param value
+     *            the value to shrink
+     * @return the candidates, simplest first
+     */
+    default double[] shrink(double value)
+    {
+        return new double[0];
+    }
+}
@@ -0,0 +1,42 @@
+package com.johnuckele.vtest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates random values of any type for property tests. Ints, longs and doubles have their own generators, which do
+ * not box.
+ *
+ * @author John Uckele
+ * @param <T>
+ *            the type of the generated values
+ * @see Generators
+ * @see Tester#forAll(String, Generator, java.util.function.Predicate)
+ */
+@FunctionalInterface
+public interface Generator<T>
+{
+    /**
+     * Generate a value. The value must depend only on the numbers drawn from the random source, so that a seed always
+     * reproduces the same values.
+     *
+     * @param random
+     *            the source of randomness
+     * @return the generated value
+     */
+    T next(SplittableRandom random);
+
+    /**
+     * Get values that are simpler than a value that fails a property, to be tried in order when shrinking it to a
+     * minimal counterexample. By default a value cannot be shrunk.
+     *
+     * @param value
+     *            the value to shrink
+     * @return the candidates, simplest first
+     */
+    default List<T> shrink(T value)
+    {
+        return Collections.emptyList();
+    }
+}
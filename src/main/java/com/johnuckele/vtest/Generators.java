@@ -0,0 +1,327 @@
+package com.johnuckele.vtest;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generators for property tests. Numbers are drawn uniformly from their range, except that about one draw in ten is
+ * one of the range's edge cases: its minimum, its maximum, or the value nearest zero. Failing values shrink towards
+ * the value nearest zero, so that a counterexample is reported in its simplest form.
+ *
+ * @author John Uckele
+ * @see Tester#forAllInts(String, IntGenerator, java.util.function.IntPredicate)
+ */
+public final class Generators
+{
+    private static final int EDGE_CASE_ODDS     = 32;
+    private static final int MAX_DOUBLE_HALVING = 16;
+
+    private Generators()
+    {
+    }
+
+    /**
+     * Generate any int.
+     *
+     * @return the generator
+     */
+    public static IntGenerator ints()
+    {
+        return ints(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Generate ints in a range.
+     *
+     * @param min
+     *            the smallest value generated
+     * @param max
+     *            the largest value generated
+     * @return the generator
+     */
+    public static IntGenerator ints(int min, int max)
+    {
+        if (min > max)
+        {
+            throw new IllegalArgumentException("min must not be greater than max: " + min + " > " + max);
+        }
+        int target = (int) nearestZero(min, max);
+        return new IntGenerator()
+        {
+            @Override
+            public int next(SplittableRandom random)
+            {
+                int edge = random.nextInt(EDGE_CASE_ODDS);
+                if (edge == 0)
+                {
+                    return min;
+                }
+                else if (edge == 1)
+                {
+                    return max;
+                }
+                else if (edge == 2)
+                {
+                    return target;
+                }
+                return (int) random.nextLong(min, (long) max + 1);
+            }
+
+            @Override
+            public int[] shrink(int value)
+            {
+                long[] candidates = towards(value, target);
+                int[] shrunk = new int[candidates.length];
+                for (int i = 0; i < candidates.length; i++)
+                {
+                    shrunk[i] = (int) candidates[i];
+                }
+                return shrunk;
+            }
+        };
+    }
+
+    /**
+     * Generate any long.
+     *
+     * @return the generator
+     */
+    public static LongGenerator longs()
+    {
+        return longs(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Generate longs in a range.
+     *
+     * @param min
+     *            the smallest value generated
+     * @param max
+     *            the largest value generated
+     * @return the generator
+     */
+    public static LongGenerator longs(long min, long max)
+    {
+        if (min > max)
+        {
+            throw new IllegalArgumentException("min must not be greater than max: " + min + " > " + max);
+        }
+        long target = nearestZero(min, max);
+        return new LongGenerator()
+        {
+            @Override
+            public long next(SplittableRandom random)
+            {
+                int edge = random.nextInt(EDGE_CASE_ODDS);
+                if (edge == 0)
+                {
+                    return min;
+                }
+                else if (edge == 1)
+                {
+                    return max;
+                }
+                else if (edge == 2)
+                {
+                    return target;
+                }
+                else if (max == Long.MAX_VALUE)
+                {
+                    return min == Long.MIN_VALUE ? random.nextLong() : random.nextLong(min - 1, max) + 1;
+                }
+                return random.nextLong(min, max + 1);
+            }
+
+            @Override
+            public long[] shrink(long value)
+            {
+                return towards(value, target);
+            }
+        };
+    }
+
+    /**
+     * Generate doubles in a finite range. NaN and infinities are never generated.
+     *
+     * @param min
+     *            the smallest value generated
+     * @param max
+     *            the largest value generated
+     * @return the generator
+     */
+    public static DoubleGenerator doubles(double min, double max)
+    {
+        if (!(min <= max) || Double.isInfinite(min) || Double.isInfinite(max))
+        {
+            throw new IllegalArgumentException("doubles need a finite range: " + min + " to " + max);
+        }
+        double target = min > 0.0 ? min : max < 0.0 ? max : 0.0;
+        return new DoubleGenerator()
+        {
+            @Override
+            public double next(SplittableRandom random)
+            {
+                int edge = random.nextInt(EDGE_CASE_ODDS);
+                if (edge == 0)
+                {
+                    return min;
+                }
+                else if (edge == 1)
+                {
+                    return max;
+                }
+                else if (edge == 2)
+                {
+                    return target;
+                }
+                // Interpolated rather than scaled by max - min, which overflows for the widest ranges
+                double fraction = random.nextDouble();
+                return fraction * max + (1.0 - fraction) * min;
+            }
+
+            @Override
+            public double[] shrink(double value)
+            {
+                double[] candidates = new double[MAX_DOUBLE_HALVING + 2];
+                int count = 0;
+                if (value != target)
+                {
+                    candidates[count++] = target;
+                }
+                double whole = (double) (long) value;
+                if (whole != value && whole != target && whole >= min && whole <= max)
+                {
+                    candidates[count++] = whole;
+                }
+                double distance = (value - target) / 2.0;
+                for (int i = 0; i < MAX_DOUBLE_HALVING && value - distance != value; i++, distance /= 2.0)
+                {
+                    candidates[count++] = value - distance;
+                }
+                return Arrays.copyOf(candidates, count);
+            }
+        };
+    }
+
+    /**
+     * Generate int arrays. Failing arrays shrink by dropping elements, and then by shrinking the elements that remain.
+     *
+     * @param elements
+     *            the generator of each element
+     * @param maxLength
+     *            the length of the longest array generated
+     * @return the generator
+     */
+    public static Generator<int[]> intArrays(IntGenerator elements, int maxLength)
+    {
+        if (elements == null || maxLength < 0)
+        {
+            throw new IllegalArgumentException("int arrays need an element generator and a maxLength of at least 0");
+        }
+        return new Generator<int[]>()
+        {
+            @Override
+            public int[] next(SplittableRandom random)
+            {
+                int[] array = new int[random.nextInt(maxLength + 1)];
+                for (int i = 0; i < array.length; i++)
+                {
+                    array[i] = elements.next(random);
+                }
+                return array;
+            }
+
+            @Override
+            public List<int[]> shrink(int[] value)
+            {
+                return shrinkArray(value, elements);
+            }
+        };
+    }
+
+    /**
+     * Get the candidates for shrinking an int array: the empty array, each half, the array without each element, and
+     * then the array with each element shrunk. The candidates are built as they are tried, since most are not.
+     */
+    private static List<int[]> shrinkArray(int[] value, IntGenerator elements)
+    {
+        int length = value.length;
+        int removals = length == 0 ? 0 : length == 1 ? 1 : length + 3;
+        int[][] shrunkElements = new int[length][];
+        int[] firstCandidate = new int[length + 1];
+        for (int i = 0; i < length; i++)
+        {
+            shrunkElements[i] = elements.shrink(value[i]);
+            firstCandidate[i + 1] = firstCandidate[i] + shrunkElements[i].length;
+        }
+        return new AbstractList<int[]>()
+        {
+            @Override
+            public int[] get(int index)
+            {
+                if (index < removals)
+                {
+                    if (index == 0)
+                    {
+                        return new int[0];
+                    }
+                    else if (index == 1)
+                    {
+                        return Arrays.copyOf(value, length / 2);
+                    }
+                    else if (index == 2)
+                    {
+                        return Arrays.copyOfRange(value, length / 2, length);
+                    }
+                    int removed = index - 3;
+                    int[] candidate = new int[length - 1];
+                    System.arraycopy(value, 0, candidate, 0, removed);
+                    System.arraycopy(value, removed + 1, candidate, removed, length - removed - 1);
+                    return candidate;
+                }
+                int offset = index - removals;
+                int element = Arrays.binarySearch(firstCandidate, offset);
+                // Skip past elements that have no candidates, which share their first index with the next element
+                element = element < 0 ? -element - 2 : element;
+                while (firstCandidate[element + 1] == offset)
+                {
+                    element++;
+                }
+                int[] candidate = value.clone();
+                candidate[element] = shrunkElements[element][offset - firstCandidate[element]];
+                return candidate;
+            }
+
+            @Override
+            public int size()
+            {
+                return removals + firstCandidate[length];
+            }
+        };
+    }
+
+    /**
+     * Get the value in a range nearest to zero.
+     */
+    private static long nearestZero(long min, long max)
+    {
+        return min > 0 ? min : max < 0 ? max : 0;
+    }
+
+    /**
+     * Get the candidates for shrinking a whole number: the target, and then values halving the distance from the
+     * target down to one. The target lies between zero and the value, so the distance cannot overflow.
+     */
+    private static long[] towards(long value, long target)
+    {
+        long[] candidates = new long[64];
+        int count = 0;
+        for (long distance = value - target; distance != 0; distance /= 2)
+        {
+            candidates[count++] = value - distance;
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+}
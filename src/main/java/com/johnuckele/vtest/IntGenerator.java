@@ -0,0 +1,37 @@
+package com.johnuckele.vtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random ints for property tests without boxing them.
+ *
+ * @author John Uckele
+ * @see Generators
+ * @see Tester#forAllInts(String, IntGenerator, java.util.function.IntPredicate)
+ */
+@FunctionalInterface
+public interface IntGenerator
+{
+    /**
+     * Generate a value. The value must depend only on the numbers drawn from the random source, so that a seed always
+     * reproduces the same values.
+     *
+     * @param random
+     *            the source of randomness
+     * @return the generated value
+     */
+    int next(SplittableRandom random);
+
+    /**
+     * Get values that are simpler than a value that fails a property, to be tried in order when shrinking it to a
+     * minimal counterexample. By default a value cannot be shrunk.
+     *
+     * @param value
+     *            the value to shrink
+     * @return the candidates, simplest first
+     */
+    default int[] shrink(int value)
+    {
+        return new int[0];
+    }
+}
@@ -0,0 +1,338 @@
+package com.johnuckele.vtest;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes one JSON object per assertion, one object per line (JSON Lines), so that tooling can consume test results
+ * without scraping Tester's console output. Each record has the form:
+ *
+ * <pre>
+ * {"class":"FooTests","method":"bar","message":"a","operator":"==","operands":["4","4"],"outcome":"passed","nanos":85}
+ * </pre>
+ *
+ * where operands are rendered with the same bounds as the console output, and nanos is the time taken to evaluate the
+ * assertion, excluding rendering. Records are encoded straight from the rendered line into a per-thread UTF-8 buffer,
+ * and each complete record is appended to a shared buffered stream, so records from different threads never
+ * interleave.
+ *
+ * @author John Uckele
+ */
+public class JsonReporter implements AutoCloseable
+{
+    private static final int    BUFFER_SIZE = 64 * 1024;
+    private static final byte[] HEX         = "0123456789abcdef".getBytes();
+
+    private final OutputStream         out;
+    private final byte[]               buffer   = new byte[BUFFER_SIZE];
+    private final ThreadLocal<Encoder> encoders = ThreadLocal.withInitial(Encoder::new);
+    private int                        buffered;
+    private boolean                    closed;
+
+    /**
+     * Create a reporter writing records to a stream. The stream is closed when the reporter is closed.
+     *
+     * @param out
+     *            the stream to write to
+     */
+    public JsonReporter(OutputStream out)
+    {
+        if (out == null)
+        {
+            throw new IllegalArgumentException("out must not be null");
+        }
+        this.out = out;
+    }
+
+    /**
+     * Create a reporter writing records to a file, replacing its contents.
+     *
+     * @param fileName
+     *            the name of the file to write to
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public JsonReporter(String fileName) throws IOException
+    {
+        this(new FileOutputStream(fileName));
+    }
+
+    /**
+     * Write a record for an assertion whose line has just been rendered on the current thread.
+     *
+     * @param scope
+     *            the scope of the assertion
+     * @param renderer
+     *            the current thread's renderer, holding the assertion's line
+     * @param evaluation
+     *            the outcome of the assertion
+     * @param nanos
+     *            the time taken to evaluate the assertion
+     */
+    void record(Scope scope, Renderer renderer, boolean evaluation, long nanos)
+    {
+        Encoder encoder = encoders.get();
+        encoder.reset();
+        encoder.raw("{\"class\":").string(scope.getClassName());
+        encoder.raw(",\"method\":").string(scope.getMethodName());
+        encoder.raw(",\"message\":").string(renderer.message());
+        String operator = renderer.operator();
+        if (operator != null)
+        {
+            encoder.raw(",\"operator\":").string(operator);
+        }
+        encoder.raw(",\"operands\":[");
+        CharSequence line = renderer.done();
+        for (int i = 0; i < renderer.operandCount(); i++)
+        {
+            if (i > 0)
+            {
+                encoder.raw(",");
+            }
+            encoder.string(line, renderer.operandStart(i), renderer.operandEnd(i));
+        }
+        encoder.raw(evaluation ? "],\"outcome\":\"passed\",\"nanos\":" : "],\"outcome\":\"failed\",\"nanos\":");
+        encoder.number(nanos).raw("}\n");
+        write(encoder.bytes, encoder.length);
+    }
+
+    /**
+     * Write all buffered records to the underlying stream.
+     */
+    public synchronized void flush()
+    {
+        try
+        {
+            drain();
+            out.flush();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flush and close the underlying stream. Records received after closing are dropped.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        flush();
+        closed = true;
+        try
+        {
+            out.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void write(byte[] bytes, int length)
+    {
+        if (closed)
+        {
+            return;
+        }
+        try
+        {
+            if (buffered + length > buffer.length)
+            {
+                drain();
+            }
+            if (length > buffer.length)
+            {
+                out.write(bytes, 0, length);
+            }
+            else
+            {
+                System.arraycopy(bytes, 0, buffer, buffered, length);
+                buffered += length;
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() throws IOException
+    {
+        if (buffered > 0)
+        {
+            out.write(buffer, 0, buffered);
+            buffered = 0;
+        }
+    }
+
+    /**
+     * A growable UTF-8 byte buffer with JSON string escaping, reused for every record on one thread.
+     */
+    static final class Encoder
+    {
+        private byte[] bytes = new byte[512];
+        private int    length;
+
+        void reset()
+        {
+            if (bytes.length > BUFFER_SIZE)
+            {
+                bytes = new byte[512];
+            }
+            length = 0;
+        }
+
+        Encoder raw(String ascii)
+        {
+            ensure(ascii.length());
+            for (int i = 0; i < ascii.length(); i++)
+            {
+                bytes[length++] = (byte) ascii.charAt(i);
+            }
+            return this;
+        }
+
+        Encoder number(long value)
+        {
+            if (value == Long.MIN_VALUE)
+            {
+                // -Long.MIN_VALUE overflows back to itself, so its digits are written out directly
+                return raw("-9223372036854775808");
+            }
+            ensure(21);
+            if (value < 0)
+            {
+                bytes[length++] = '-';
+                value = -value;
+            }
+            int end = length + digits(value);
+            length = end;
+            do
+            {
+                bytes[--end] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            while (value > 0);
+            return this;
+        }
+
+        private static int digits(long value)
+        {
+            int digits = 1;
+            while (value >= 10)
+            {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        Encoder string(CharSequence chars)
+        {
+            if (chars == null)
+            {
+                return raw("null");
+            }
+            return string(chars, 0, chars.length());
+        }
+
+        Encoder string(CharSequence chars, int from, int to)
+        {
+            // Every char takes at most 6 bytes, as an escape sequence, and the quotes take 2 more
+            ensure((to - from) * 6 + 2);
+            bytes[length++] = '"';
+            for (int i = from; i < to; i++)
+            {
+                char c = chars.charAt(i);
+                if (c == '"' || c == '\\')
+                {
+                    bytes[length++] = '\\';
+                    bytes[length++] = (byte) c;
+                }
+                else if (c == '\n')
+                {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'n';
+                }
+                else if (c == '\t')
+                {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 't';
+                }
+                else if (c == '\r')
+                {
+                    bytes[length++] = '\\';
+                    bytes[length++] = 'r';
+                }
+                else if (c < 0x20)
+                {
+                    escape(c);
+                }
+                else if (c < 0x80)
+                {
+                    bytes[length++] = (byte) c;
+                }
+                else if (c < 0x800)
+                {
+                    bytes[length++] = (byte) (0xc0 | (c >> 6));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+                else if (Character.isHighSurrogate(c) && i + 1 < to && Character.isLowSurrogate(chars.charAt(i + 1)))
+                {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    bytes[length++] = (byte) (0xf0 | (codePoint >> 18));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (codePoint & 0x3f));
+                }
+                else if (Character.isSurrogate(c))
+                {
+                    // An unpaired surrogate cannot be encoded as UTF-8, so it is kept as an escape
+                    escape(c);
+                }
+                else
+                {
+                    bytes[length++] = (byte) (0xe0 | (c >> 12));
+                    bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    bytes[length++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            bytes[length++] = '"';
+            return this;
+        }
+
+        private void escape(char c)
+        {
+            bytes[length++] = '\\';
+            bytes[length++] = 'u';
+            bytes[length++] = HEX[(c >> 12) & 0xf];
+            bytes[length++] = HEX[(c >> 8) & 0xf];
+            bytes[length++] = HEX[(c >> 4) & 0xf];
+            bytes[length++] = HEX[c & 0xf];
+        }
+
+        private void ensure(int extra)
+        {
+            if (length + extra > bytes.length)
+            {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
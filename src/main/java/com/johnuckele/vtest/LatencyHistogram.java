@@ -0,0 +1,177 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies in nanoseconds that can be recorded into from many threads without contention. Values below
+ * 16 are counted exactly, and larger values are counted in four buckets per power of two, so percentiles are reported
+ * with a relative error of at most 25%. Each bucket is a LongAdder that is only created once a value falls into it.
+ *
+ * @author John Uckele
+ */
+public final class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS     = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_VALUES    = 16;
+    private static final int EXACT_BITS      = 4;
+    private static final int BUCKETS         = EXACT_VALUES + (63 - EXACT_BITS) * SUB_BUCKETS;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<LongAdder>(BUCKETS);
+    private final LongAdder                       count   = new LongAdder();
+    private final LongAdder                       sum     = new LongAdder();
+    private final AtomicLong                      max     = new AtomicLong();
+
+    LatencyHistogram()
+    {
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos
+     *            the latency in nanoseconds; negative values are recorded as 0
+     */
+    void record(long nanos)
+    {
+        long value = Math.max(0L, nanos);
+        int index = bucket(value);
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null)
+        {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+        count.increment();
+        sum.add(value);
+        long localMax = max.get();
+        while (value > localMax && !max.compareAndSet(localMax, value))
+        {
+            localMax = max.get();
+        }
+    }
+
+    /**
+     * Clear all recorded latencies. Latencies recorded concurrently with a reset may or may not be kept.
+     */
+    void reset()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null)
+            {
+                bucket.reset();
+            }
+        }
+        count.reset();
+        sum.reset();
+        max.set(0L);
+    }
+
+    /**
+     * Get the number of latencies recorded.
+     *
+     * @return the number of latencies recorded
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * Get the largest latency recorded.
+     *
+     * @return the largest latency in nanoseconds, or 0 if none have been recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Get the mean of the recorded latencies.
+     *
+     * @return the mean latency in nanoseconds, or 0 if none have been recorded
+     */
+    public double getMean()
+    {
+        long localCount = count.sum();
+        return localCount == 0 ? 0.0 : (double) sum.sum() / localCount;
+    }
+
+    /**
+     * Get an upper bound of a percentile of the recorded latencies.
+     *
+     * @param percentile
+     *            the percentile to get, from 0 to 100
+     * @return the upper bound of the bucket holding the percentile in nanoseconds, never more than the largest latency,
+     *         or 0 if none have been recorded
+     */
+    public long getPercentile(double percentile)
+    {
+        if (percentile < 0.0 || percentile > 100.0)
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null)
+            {
+                counts[i] = bucket.sum();
+                total += counts[i];
+            }
+        }
+        if (total == 0)
+        {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            seen += counts[i];
+            if (seen >= rank)
+            {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "count " + getCount() + ", mean " + Math.round(getMean()) + "ns, p50 " + getPercentile(50.0)
+                + "ns, p99 " + getPercentile(99.0) + "ns, max " + getMax() + "ns";
+    }
+
+    static int bucket(long value)
+    {
+        if (value < EXACT_VALUES)
+        {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_VALUES + (exponent - EXACT_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int bucket)
+    {
+        if (bucket < EXACT_VALUES)
+        {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT_VALUES) / SUB_BUCKETS + EXACT_BITS;
+        long subBucket = (bucket - EXACT_VALUES) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKETS + subBucket) * width) + width - 1;
+    }
+}
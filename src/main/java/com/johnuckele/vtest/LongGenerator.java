@@ -0,0 +1,37 @@
+package com.johnuckele.vtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random longs for property tests without boxing them.
+ *
+ * @author John Uckele
+ * @see Generators
+ * @see Tester#forAllLongs(String, LongGenerator, java.util.function.LongPredicate)
+ */
+@FunctionalInterface
+public interface LongGenerator
+{
+    /**
+     * Generate a value. The value must depend only on the numbers drawn from the random source, so that a seed always
+     * reproduces the same values.
+     *
+     * @param random
+     *            the source of randomness
+     * @return the generated value
+     */
+    long next(SplittableRandom random);
+
+    /**
+     * Get values that are simpler than a value that fails a property, to be tried in order when shrinking it to a
+     * minimal counterexample. By default a value cannot be shrunk.
+     *
+     * @param value
+     *            the value to shrink
+     * @return the candidates, simplest first
+     */
+    default long[] shrink(long value)
+    {
+        return new long[0];
+    }
+}
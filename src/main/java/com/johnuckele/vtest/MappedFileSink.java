@@ -0,0 +1,490 @@
+package com.johnuckele.vtest;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An OutputSink that writes UTF-8 text straight into memory-mapped log files, so that writing an entry is a copy into
+ * the page cache rather than a trip through a stream. The log is split into numbered segment files, name-0.log,
+ * name-1.log and so on, and a new segment is started whenever an entry does not fit in the current one. Concatenating
+ * the segments in order gives the whole log.
+ *
+ * Alongside the segments, an append-only index, name.index, gets one tab separated line for each scope header: the
+ * segment number and byte offset at which the header starts, followed by the class and method names, so the output of
+ * one test can be found without scanning the log. Each segment is unmapped and truncated to the bytes actually written
+ * when it is finished, and the sink is closed when the JVM shuts down. Until then, the unwritten end of the current
+ * segment reads as zero bytes, so a reader following the log while tests run should stop at the first zero byte.
+ *
+ * Writers do not lock each other out: each entry's bytes are reserved in the current segment with a single atomic
+ * update of its position, and threads then encode their entries side by side. Only starting a new segment takes a
+ * lock, and the old segment is finished once every entry reserved in it has been written. An entry that another thread
+ * is still encoding can briefly read as zero bytes too.
+ *
+ * @author John Uckele
+ */
+public class MappedFileSink implements OutputSink
+{
+    /**
+     * The default size of each segment file, in bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final byte[]       LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final long         PARK_NANOS     = 10000L;
+    private static final MethodHandle UNMAP          = findUnmap();
+
+    private final File   directory;
+    private final String name;
+    private final int    segmentSize;
+    private final Writer index;
+    private final Thread shutdownHook;
+
+    private int              segmentCount = 0;
+    private volatile Segment current;
+    private volatile boolean closed       = false;
+
+    /**
+     * A mapped segment file. Entries claim their bytes by advancing the reserved position, and count them as written
+     * once they are encoded. A sealed segment accepts no more reservations.
+     */
+    private static final class Segment
+    {
+        private static final int SEALED = -1;
+
+        final int              number;
+        final FileChannel      channel;
+        final MappedByteBuffer buffer;
+        final AtomicInteger    reserved = new AtomicInteger();
+        final AtomicInteger    written  = new AtomicInteger();
+
+        Segment(int number, FileChannel channel, MappedByteBuffer buffer)
+        {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Reserve room for an entry.
+         *
+         * @return the offset of the reserved bytes, or -1 if the segment is sealed or has no room
+         */
+        int reserve(int length)
+        {
+            while (true)
+            {
+                int position = reserved.get();
+                if (position == SEALED || length > buffer.capacity() - position)
+                {
+                    return -1;
+                }
+                if (reserved.compareAndSet(position, position + length))
+                {
+                    return position;
+                }
+            }
+        }
+
+        /**
+         * Stop further reservations.
+         *
+         * @return the number of bytes reserved before the segment was sealed
+         */
+        int seal()
+        {
+            return reserved.getAndSet(SEALED);
+        }
+    }
+
+    /**
+     * Create a sink writing to a directory, with the default segment size and a file name unique to this JVM.
+     *
+     * @param directory
+     *            the directory to write the segments and index to, which is created if it does not exist
+     * @throws IOException
+     *             if the directory or the first segment cannot be created
+     */
+    public MappedFileSink(File directory) throws IOException
+    {
+        this(directory, "vtest-" + processId(), DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Create a sink writing to a directory.
+     *
+     * @param directory
+     *            the directory to write the segments and index to, which is created if it does not exist
+     * @param name
+     *            the base name of the segment and index files; existing files with this name are replaced
+     * @param segmentSize
+     *            the size in bytes of each segment file
+     * @throws IOException
+     *             if the directory or the first segment cannot be created
+     */
+    public MappedFileSink(File directory, String name, int segmentSize) throws IOException
+    {
+        if (segmentSize < 1)
+        {
+            throw new IllegalArgumentException("segmentSize must be positive: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.index = new OutputStreamWriter(new FileOutputStream(new File(directory, name + ".index")),
+                StandardCharsets.UTF_8);
+        current = open(segmentSize);
+        shutdownHook = new Thread(this::close, "vtest-mapped-file-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Get the file that a segment of the log is written to.
+     *
+     * @param number
+     *            the number of the segment, starting from 0
+     * @return the segment's file
+     */
+    public File getSegmentFile(int number)
+    {
+        return new File(directory, name + "-" + number + ".log");
+    }
+
+    /**
+     * Get the file that the index of scope headers is written to.
+     *
+     * @return the index file
+     */
+    public File getIndexFile()
+    {
+        return new File(directory, name + ".index");
+    }
+
+    @Override
+    public void println(CharSequence line)
+    {
+        write(line, null, null);
+    }
+
+    @Override
+    public void printHeader(CharSequence header, String className, String methodName)
+    {
+        write(header, className, methodName);
+    }
+
+    /**
+     * Flush the index. Entries are visible to readers of the segment files as soon as they are written, so they need no
+     * flushing.
+     */
+    @Override
+    public void flush()
+    {
+        synchronized (index)
+        {
+            if (closed)
+            {
+                return;
+            }
+            try
+            {
+                index.flush();
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        synchronized (this)
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            try
+            {
+                finish(current);
+                synchronized (index)
+                {
+                    index.close();
+                }
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        if (Thread.currentThread() != shutdownHook)
+        {
+            try
+            {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+            catch (IllegalStateException e)
+            {
+                // The JVM is already shutting down
+            }
+        }
+    }
+
+    /**
+     * Write an entry, and index it if it is a scope header.
+     */
+    private void write(CharSequence line, String className, String methodName)
+    {
+        int length = encodedLength(line) + LINE_SEPARATOR.length;
+        Segment segment = current;
+        int offset;
+        while ((offset = segment.reserve(length)) < 0)
+        {
+            segment = roll(segment, length);
+            if (segment == null)
+            {
+                // The sink is closed
+                return;
+            }
+        }
+        try
+        {
+            if (className != null)
+            {
+                synchronized (index)
+                {
+                    index.append(Integer.toString(segment.number)).append('\t').append(Integer.toString(offset))
+                            .append('\t').append(className).append('\t').append(methodName).append('\n');
+                }
+            }
+            int position = encode(line, segment.buffer, offset);
+            for (byte separator : LINE_SEPARATOR)
+            {
+                segment.buffer.put(position++, separator);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        finally
+        {
+            segment.written.addAndGet(length);
+        }
+    }
+
+    /**
+     * Start a new segment in place of one that has no room for an entry, unless another thread already has.
+     *
+     * @return the segment to write to next, or null if the sink is closed
+     */
+    private synchronized Segment roll(Segment full, int needed)
+    {
+        if (closed)
+        {
+            return null;
+        }
+        if (current != full)
+        {
+            return current;
+        }
+        try
+        {
+            current = open(Math.max(segmentSize, needed));
+            finish(full);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        return current;
+    }
+
+    private Segment open(int size) throws IOException
+    {
+        RandomAccessFile file = new RandomAccessFile(getSegmentFile(segmentCount), "rw");
+        file.setLength(0);
+        FileChannel channel = file.getChannel();
+        return new Segment(segmentCount++, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+    }
+
+    /**
+     * Seal a segment, wait for the entries reserved in it to be written, write it to disk, and unmap it before cutting
+     * off the part of it that was never reserved.
+     */
+    private static void finish(Segment segment) throws IOException
+    {
+        int end = segment.seal();
+        while (segment.written.get() < end)
+        {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+        segment.buffer.force();
+        unmap(segment.buffer);
+        segment.channel.truncate(end);
+        segment.channel.close();
+    }
+
+    /**
+     * Unmap a buffer now rather than when it is collected, since some platforms cannot truncate or replace a mapped
+     * file. The buffer must not be used afterwards.
+     */
+    static void unmap(ByteBuffer buffer)
+    {
+        if (UNMAP != null)
+        {
+            try
+            {
+                UNMAP.invokeExact(buffer);
+            }
+            catch (Throwable e)
+            {
+                // Left for the garbage collector to unmap
+            }
+        }
+    }
+
+    /**
+     * Find the JDK's internal way of unmapping a buffer: Unsafe.invokeCleaner on Java 9 and later, or the buffer's
+     * Cleaner on Java 8.
+     */
+    private static MethodHandle findUnmap()
+    {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            MethodHandle invokeCleaner = lookup.findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return invokeCleaner.bindTo(theUnsafe.get(null));
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            // Not Java 9 or later
+        }
+        try
+        {
+            Class<?> directBufferClass = Class.forName("sun.nio.ch.DirectBuffer");
+            Class<?> cleanerClass = Class.forName("sun.misc.Cleaner");
+            MethodHandle cleaner = lookup.findVirtual(directBufferClass, "cleaner", MethodType.methodType(
+                    cleanerClass));
+            MethodHandle clean = lookup.findVirtual(cleanerClass, "clean", MethodType.methodType(void.class));
+            return MethodHandles.filterReturnValue(cleaner, clean).asType(MethodType.methodType(void.class,
+                    ByteBuffer.class));
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            return null;
+        }
+    }
+
+    private static int encodedLength(CharSequence chars)
+    {
+        int length = chars.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++)
+        {
+            char c = chars.charAt(i);
+            if (c >= 0x80)
+            {
+                if (c < 0x800)
+                {
+                    bytes += 1;
+                }
+                else if (isSurrogatePair(chars, i))
+                {
+                    // The pair takes 4 bytes, and both chars have been counted once already
+                    bytes += 2;
+                    i++;
+                }
+                else if (!Character.isSurrogate(c))
+                {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode chars as UTF-8 into a buffer at an offset, which must have room for them. Unpaired surrogates are written
+     * as '?', as by String.getBytes(). The buffer's position is not used, so threads can encode into one buffer at
+     * once.
+     *
+     * @return the offset following the encoded chars
+     */
+    private static int encode(CharSequence chars, ByteBuffer buffer, int offset)
+    {
+        int position = offset;
+        int length = chars.length();
+        for (int i = 0; i < length; i++)
+        {
+            char c = chars.charAt(i);
+            if (c < 0x80)
+            {
+                buffer.put(position++, (byte) c);
+            }
+            else if (c < 0x800)
+            {
+                buffer.put(position++, (byte) (0xc0 | (c >> 6)));
+                buffer.put(position++, (byte) (0x80 | (c & 0x3f)));
+            }
+            else if (isSurrogatePair(chars, i))
+            {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                buffer.put(position++, (byte) (0xf0 | (codePoint >> 18)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+                buffer.put(position++, (byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+                buffer.put(position++, (byte) (0x80 | (codePoint & 0x3f)));
+            }
+            else if (Character.isSurrogate(c))
+            {
+                buffer.put(position++, (byte) '?');
+            }
+            else
+            {
+                buffer.put(position++, (byte) (0xe0 | (c >> 12)));
+                buffer.put(position++, (byte) (0x80 | ((c >> 6) & 0x3f)));
+                buffer.put(position++, (byte) (0x80 | (c & 0x3f)));
+            }
+        }
+        return position;
+    }
+
+    private static boolean isSurrogatePair(CharSequence chars, int index)
+    {
+        return Character.isHighSurrogate(chars.charAt(index)) && index + 1 < chars.length()
+                && Character.isLowSurrogate(chars.charAt(index + 1));
+    }
+
+    private static String processId()
+    {
+        // The runtime name is "pid@host" on all common JVMs
+        String runtimeName = ManagementFactory.getRuntimeMXBean().getName();
+        int separator = runtimeName.indexOf('@');
+        return separator > 0 ? runtimeName.substring(0, separator) : Long.toString(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,118 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tester's live assertion metrics: a total count of assertions for throughput, and per-scope counters and latency
+ * histograms. Per-scope metrics are off by default, because attributing an assertion to its scope requires resolving
+ * the scope even when nothing is printed. Each scope's metrics are held by its interned Scope, so recording an
+ * assertion takes no lookups beyond resolving the scope itself.
+ *
+ * @author John Uckele
+ */
+final class Metrics
+{
+    private static final LongAdder                           total  = new LongAdder();
+    private static final ConcurrentLinkedQueue<ScopeMetrics> scopes = new ConcurrentLinkedQueue<ScopeMetrics>();
+
+    private static volatile boolean          enabled  = Boolean.getBoolean("vtest.metrics");
+    private static volatile ProgressReporter progress = createProgressReporter(Long.getLong("vtest.progress", 0L));
+
+    private Metrics()
+    {
+    }
+
+    /**
+     * Check if assertions need to be counted, for per-scope metrics or for progress reports.
+     *
+     * @return true if assertions should be passed to count
+     */
+    static boolean isActive()
+    {
+        return enabled || progress != null;
+    }
+
+    static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    static void setEnabled(boolean newEnabled)
+    {
+        enabled = newEnabled;
+    }
+
+    /**
+     * Count an assertion towards the total.
+     */
+    static void count()
+    {
+        total.increment();
+    }
+
+    /**
+     * Record an assertion in its scope's metrics.
+     *
+     * @param scope
+     *            the scope the assertion was called from
+     * @param evaluation
+     *            the outcome of the assertion
+     * @param nanos
+     *            the time taken to evaluate the assertion
+     */
+    static void record(Scope scope, boolean evaluation, long nanos)
+    {
+        ScopeMetrics metrics = scope.getMetrics();
+        if (metrics == null)
+        {
+            metrics = scope.createMetrics();
+            if (metrics != null)
+            {
+                scopes.add(metrics);
+            }
+            else
+            {
+                metrics = scope.getMetrics();
+            }
+        }
+        metrics.record(evaluation, nanos);
+    }
+
+    static long getTotal()
+    {
+        return total.sum();
+    }
+
+    static List<ScopeMetrics> getScopeMetrics()
+    {
+        return new ArrayList<ScopeMetrics>(scopes);
+    }
+
+    static void reset()
+    {
+        total.reset();
+        for (ScopeMetrics metrics : scopes)
+        {
+            metrics.reset();
+        }
+    }
+
+    static synchronized void setProgressInterval(long interval, TimeUnit unit)
+    {
+        ProgressReporter previousProgress = progress;
+        progress = interval > 0 ? new ProgressReporter(unit.toNanos(interval)) : null;
+        if (previousProgress != null)
+        {
+            previousProgress.stop();
+        }
+    }
+
+    private static ProgressReporter createProgressReporter(long seconds)
+    {
+        return seconds > 0 ? new ProgressReporter(TimeUnit.SECONDS.toNanos(seconds)) : null;
+    }
+}
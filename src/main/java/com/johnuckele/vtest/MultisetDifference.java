@@ -0,0 +1,340 @@
+package com.johnuckele.vtest;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The difference between two collections compared as multisets, where order is ignored but the number of copies of
+ * each element matters. Both collections are counted in a single hash pass: each element of the left hand side adds one
+ * to its count and each element of the right hand side subtracts one, so the collections are equal exactly when every
+ * count ends at zero, and the non-zero counts are their symmetric difference.
+ *
+ * Collections of Integer, Long, Short, Byte or Character are counted in an open addressing table of primitive keys and
+ * counts, which needs no allocation per element. Other elements are counted in a HashMap.
+ *
+ * @author John Uckele
+ */
+final class MultisetDifference
+{
+    private final Map<Object, Integer> extraInLhs = new LinkedHashMap<Object, Integer>();
+    private final Map<Object, Integer> extraInRhs = new LinkedHashMap<Object, Integer>();
+
+    private MultisetDifference()
+    {
+    }
+
+    /**
+     * Check if two collections hold the same elements the same number of times, in any order.
+     *
+     * @param lhs
+     *            the left hand collection
+     * @param rhs
+     *            the right hand collection
+     * @return true if the collections are equal as multisets
+     */
+    static boolean isEqual(Collection<?> lhs, Collection<?> rhs)
+    {
+        if (lhs.size() != rhs.size())
+        {
+            return false;
+        }
+        LongCounts counts = LongCounts.count(lhs, rhs);
+        if (counts != null)
+        {
+            return counts.isBalanced();
+        }
+        return ObjectCounts.count(lhs, rhs).isBalanced();
+    }
+
+    /**
+     * Find the symmetric difference of two collections compared as multisets.
+     *
+     * @param lhs
+     *            the left hand collection
+     * @param rhs
+     *            the right hand collection
+     * @return the elements that one collection has more copies of than the other
+     */
+    static MultisetDifference of(Collection<?> lhs, Collection<?> rhs)
+    {
+        MultisetDifference difference = new MultisetDifference();
+        LongCounts counts = LongCounts.count(lhs, rhs);
+        if (counts != null)
+        {
+            counts.addTo(difference);
+        }
+        else
+        {
+            ObjectCounts.count(lhs, rhs).addTo(difference);
+        }
+        return difference;
+    }
+
+    /**
+     * Get the elements that the left hand side has more copies of.
+     *
+     * @return a map from each such element to the number of extra copies
+     */
+    Map<Object, Integer> getExtraInLhs()
+    {
+        return extraInLhs;
+    }
+
+    /**
+     * Get the elements that the right hand side has more copies of.
+     *
+     * @return a map from each such element to the number of extra copies
+     */
+    Map<Object, Integer> getExtraInRhs()
+    {
+        return extraInRhs;
+    }
+
+    private void add(Object element, int count)
+    {
+        if (count > 0)
+        {
+            extraInLhs.put(element, count);
+        }
+        else if (count < 0)
+        {
+            extraInRhs.put(element, -count);
+        }
+    }
+
+    /**
+     * Counts of arbitrary elements, held in mutable holders so that changing a count does not box.
+     */
+    private static final class ObjectCounts
+    {
+        private final Map<Object, int[]> counts;
+        private int                      unbalanced;
+
+        private ObjectCounts(int expectedSize)
+        {
+            counts = new HashMap<Object, int[]>(Math.max(16, (int) (expectedSize / 0.75f) + 1));
+        }
+
+        static ObjectCounts count(Collection<?> lhs, Collection<?> rhs)
+        {
+            ObjectCounts counts = new ObjectCounts(lhs.size());
+            for (Object element : lhs)
+            {
+                counts.add(element, 1);
+            }
+            for (Object element : rhs)
+            {
+                counts.add(element, -1);
+            }
+            return counts;
+        }
+
+        private void add(Object element, int delta)
+        {
+            int[] count = counts.get(element);
+            if (count == null)
+            {
+                count = new int[1];
+                counts.put(element, count);
+            }
+            int previous = count[0];
+            count[0] += delta;
+            if (previous == 0)
+            {
+                unbalanced++;
+            }
+            else if (count[0] == 0)
+            {
+                unbalanced--;
+            }
+        }
+
+        boolean isBalanced()
+        {
+            return unbalanced == 0;
+        }
+
+        void addTo(MultisetDifference difference)
+        {
+            for (Map.Entry<Object, int[]> entry : counts.entrySet())
+            {
+                difference.add(entry.getKey(), entry.getValue()[0]);
+            }
+        }
+    }
+
+    /**
+     * Counts of boxed integral elements, keyed by their primitive value in an open addressing table.
+     */
+    private static final class LongCounts
+    {
+        private final Class<?> type;
+        private long[]         keys;
+        private int[]          counts;
+        private boolean[]      used;
+        private int            size;
+        private int            unbalanced;
+
+        private LongCounts(Class<?> type, int expectedSize)
+        {
+            this.type = type;
+            int capacity = Integer.highestOneBit(Math.max(16, expectedSize) * 2 - 1) << 1;
+            keys = new long[capacity];
+            counts = new int[capacity];
+            used = new boolean[capacity];
+        }
+
+        /**
+         * Count two collections whose elements all have the same integral box type.
+         *
+         * @return the counts, or null if the collections hold anything other than elements of a single box type
+         */
+        static LongCounts count(Collection<?> lhs, Collection<?> rhs)
+        {
+            Iterator<?> first = lhs.iterator();
+            if (!first.hasNext())
+            {
+                first = rhs.iterator();
+                if (!first.hasNext())
+                {
+                    return null;
+                }
+            }
+            Object sample = first.next();
+            Class<?> type = sample == null ? null : sample.getClass();
+            if (type != Integer.class && type != Long.class && type != Short.class && type != Byte.class
+                    && type != Character.class)
+            {
+                return null;
+            }
+            LongCounts counts = new LongCounts(type, lhs.size());
+            if (!counts.addAll(lhs, 1) || !counts.addAll(rhs, -1))
+            {
+                return null;
+            }
+            return counts;
+        }
+
+        private boolean addAll(Collection<?> elements, int delta)
+        {
+            for (Object element : elements)
+            {
+                if (element == null || element.getClass() != type)
+                {
+                    return false;
+                }
+                long key = type == Character.class ? (Character) element : ((Number) element).longValue();
+                add(key, delta);
+            }
+            return true;
+        }
+
+        private void add(long key, int delta)
+        {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (used[slot] && keys[slot] != key)
+            {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot])
+            {
+                used[slot] = true;
+                keys[slot] = key;
+                if (++size * 2 > keys.length)
+                {
+                    resize();
+                    add(key, delta);
+                    return;
+                }
+            }
+            int previous = counts[slot];
+            counts[slot] += delta;
+            if (previous == 0)
+            {
+                unbalanced++;
+            }
+            else if (counts[slot] == 0)
+            {
+                unbalanced--;
+            }
+        }
+
+        private void resize()
+        {
+            long[] previousKeys = keys;
+            int[] previousCounts = counts;
+            boolean[] previousUsed = used;
+            keys = new long[previousKeys.length * 2];
+            counts = new int[previousKeys.length * 2];
+            used = new boolean[previousKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < previousKeys.length; i++)
+            {
+                if (previousUsed[i])
+                {
+                    int slot = hash(previousKeys[i]) & mask;
+                    while (used[slot])
+                    {
+                        slot = (slot + 1) & mask;
+                    }
+                    used[slot] = true;
+                    keys[slot] = previousKeys[i];
+                    counts[slot] = previousCounts[i];
+                }
+            }
+        }
+
+        private static int hash(long key)
+        {
+            // The finalizer of MurmurHash3, so that runs of consecutive keys spread over the table
+            long hash = key;
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+            return (int) hash;
+        }
+
+        boolean isBalanced()
+        {
+            return unbalanced == 0;
+        }
+
+        void addTo(MultisetDifference difference)
+        {
+            for (int i = 0; i < keys.length; i++)
+            {
+                if (used[i] && counts[i] != 0)
+                {
+                    difference.add(box(keys[i]), counts[i]);
+                }
+            }
+        }
+
+        private Object box(long key)
+        {
+            if (type == Integer.class)
+            {
+                return (int) key;
+            }
+            if (type == Long.class)
+            {
+                return key;
+            }
+            if (type == Short.class)
+            {
+                return (short) key;
+            }
+            if (type == Byte.class)
+            {
+                return (byte) key;
+            }
+            return (char) key;
+        }
+    }
+}
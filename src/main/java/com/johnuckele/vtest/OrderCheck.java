@@ -0,0 +1,328 @@
+package com.johnuckele.vtest;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds the first element of an array or list that is out of order with the element before it. Large arrays and random
+ * access lists are split into chunks that are checked in parallel on the common fork-join pool. Each chunk checks the
+ * pairs ending in its own range, so the pair that straddles the boundary between two chunks is checked by the later
+ * one, and every pair is checked exactly once.
+ *
+ * The chunks share the lowest out of order index found so far, and a chunk that starts after it is skipped, so a
+ * violation near the start ends the check early. Since a chunk only stops at its own first violation, the lowest index
+ * found once every chunk is done is the first violation in the whole array.
+ *
+ * Primitive arrays are checked with the primitive operators, except that doubles and floats are ordered as by
+ * Double.compare and Float.compare, which is the order Arrays.sort produces: -0.0 comes before 0.0 and NaN comes last.
+ *
+ * @author John Uckele
+ */
+final class OrderCheck extends RecursiveAction
+{
+    private static final long serialVersionUID = 1L;
+
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MIN_CHUNK_SIZE     = 1 << 14;
+
+    private final Object             values;
+    private final Comparator<Object> comparator;
+    private final boolean            strict;
+    private final int                from;
+    private final int                to;
+    private final int                chunkSize;
+    private final AtomicInteger      first;
+
+    private OrderCheck(Object values, Comparator<Object> comparator, boolean strict, int from, int to, int chunkSize,
+            AtomicInteger first)
+    {
+        this.values = values;
+        this.comparator = comparator;
+        this.strict = strict;
+        this.from = from;
+        this.to = to;
+        this.chunkSize = chunkSize;
+        this.first = first;
+    }
+
+    /**
+     * Find the first element of a primitive array that is out of order.
+     *
+     * @param array
+     *            an array of a primitive type
+     * @param strict
+     *            true if each element must be greater than the one before it, rather than not less
+     * @return the index of the first element that is out of order with the one before it, or -1 if there is none
+     */
+    static int firstUnordered(Object array, boolean strict)
+    {
+        return check(array, null, strict, Array.getLength(array));
+    }
+
+    /**
+     * Find the first element of an object array that is out of order.
+     *
+     * @param array
+     *            the array to check
+     * @param comparator
+     *            the order the elements should be in
+     * @param strict
+     *            true if each element must be greater than the one before it, rather than not less
+     * @return the index of the first element that is out of order with the one before it, or -1 if there is none
+     */
+    static <T> int firstUnordered(T[] array, Comparator<? super T> comparator, boolean strict)
+    {
+        return check(array, comparator, strict, array.length);
+    }
+
+    /**
+     * Find the first element of a list that is out of order. Lists without random access are checked sequentially.
+     *
+     * @param list
+     *            the list to check
+     * @param comparator
+     *            the order the elements should be in
+     * @param strict
+     *            true if each element must be greater than the one before it, rather than not less
+     * @return the index of the first element that is out of order with the one before it, or -1 if there is none
+     */
+    static <T> int firstUnordered(List<T> list, Comparator<? super T> comparator, boolean strict)
+    {
+        if (!(list instanceof RandomAccess))
+        {
+            SequenceScan scan = SequenceScan.sorted(list.iterator(), comparator, strict);
+            return (int) scan.getIndex();
+        }
+        return check(list, comparator, strict, list.size());
+    }
+
+    private static int check(Object values, Comparator<?> comparator, boolean strict, int length)
+    {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (length < PARALLEL_THRESHOLD || parallelism < 2)
+        {
+            return check(values, comparator, strict, length, Integer.MAX_VALUE);
+        }
+        return check(values, comparator, strict, length, Math.max(MIN_CHUNK_SIZE, length / (parallelism * 4)));
+    }
+
+    /**
+     * Find the first element out of order, split into chunks of a given size.
+     *
+     * @param values
+     *            a primitive array, object array or random access list
+     * @param comparator
+     *            the order the elements should be in, or null for a primitive array
+     * @param strict
+     *            true if each element must be greater than the one before it, rather than not less
+     * @param length
+     *            the number of elements to check
+     * @param chunkSize
+     *            the number of elements below which a chunk is not split, or Integer.MAX_VALUE to scan on the calling
+     *            thread
+     * @return the index of the first element that is out of order with the one before it, or -1 if there is none
+     */
+    @SuppressWarnings("unchecked")
+    static int check(Object values, Comparator<?> comparator, boolean strict, int length, int chunkSize)
+    {
+        AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+        if (chunkSize == Integer.MAX_VALUE)
+        {
+            new OrderCheck(values, (Comparator<Object>) comparator, strict, 1, length, length, first).scan();
+        }
+        else
+        {
+            ForkJoinPool.commonPool().invoke(new OrderCheck(values, (Comparator<Object>) comparator, strict, 1,
+                    length, chunkSize, first));
+        }
+        int index = first.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
+    @Override
+    protected void compute()
+    {
+        if (from >= first.get())
+        {
+            return;
+        }
+        if (to - from <= chunkSize)
+        {
+            scan();
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new OrderCheck(values, comparator, strict, from, middle, chunkSize, first),
+                new OrderCheck(values, comparator, strict, middle, to, chunkSize, first));
+    }
+
+    /**
+     * Check the pairs of elements ending in this chunk, and record the first that is out of order.
+     */
+    private void scan()
+    {
+        int index = scanRange();
+        if (index >= 0)
+        {
+            int previous = first.get();
+            while (index < previous && !first.compareAndSet(previous, index))
+            {
+                previous = first.get();
+            }
+        }
+    }
+
+    private int scanRange()
+    {
+        if (values instanceof int[])
+        {
+            return scan((int[]) values);
+        }
+        if (values instanceof long[])
+        {
+            return scan((long[]) values);
+        }
+        if (values instanceof double[])
+        {
+            return scan((double[]) values);
+        }
+        if (values instanceof float[])
+        {
+            return scan((float[]) values);
+        }
+        if (values instanceof short[])
+        {
+            return scan((short[]) values);
+        }
+        if (values instanceof byte[])
+        {
+            return scan((byte[]) values);
+        }
+        if (values instanceof char[])
+        {
+            return scan((char[]) values);
+        }
+        if (values instanceof Object[])
+        {
+            return scan((Object[]) values);
+        }
+        return scan((List<?>) values);
+    }
+
+    private int scan(int[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (array[i - 1] > array[i] || (strict && array[i - 1] == array[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(long[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (array[i - 1] > array[i] || (strict && array[i - 1] == array[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(double[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int comparison = Double.compare(array[i - 1], array[i]);
+            if (comparison > 0 || (strict && comparison == 0))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(float[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int comparison = Float.compare(array[i - 1], array[i]);
+            if (comparison > 0 || (strict && comparison == 0))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(short[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (array[i - 1] > array[i] || (strict && array[i - 1] == array[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(byte[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (array[i - 1] > array[i] || (strict && array[i - 1] == array[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(char[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (array[i - 1] > array[i] || (strict && array[i - 1] == array[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(Object[] array)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int comparison = comparator.compare(array[i - 1], array[i]);
+            if (comparison > 0 || (strict && comparison == 0))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int scan(List<?> list)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int comparison = comparator.compare(list.get(i - 1), list.get(i));
+            if (comparison > 0 || (strict && comparison == 0))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
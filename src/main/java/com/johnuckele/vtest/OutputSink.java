@@ -0,0 +1,48 @@
+package com.johnuckele.vtest;
+
+/**
+ * A destination for Tester's verbose output. Each call to println receives one entry of one or more complete lines,
+ * which must be written contiguously and in the order they were received from each thread.
+ *
+ * @author John Uckele
+ * @see ConsoleSink
+ * @see AsyncSink
+ * @see MappedFileSink
+ */
+public interface OutputSink
+{
+    /**
+     * Write an entry followed by a line separator. The CharSequence may be a reused buffer, so a sink that does not
+     * write it immediately must copy it before returning.
+     *
+     * @param line
+     *            the entry to write
+     */
+    void println(CharSequence line);
+
+    /**
+     * Write a scope header, which Tester prints when a thread starts making assertions from a new test method. Sinks
+     * that index their output by scope can override this; by default the header is written like any other entry.
+     *
+     * @param header
+     *            the header to write, with the same contract as an entry passed to println
+     * @param className
+     *            the name of the class the new scope belongs to
+     * @param methodName
+     *            the name of the method the new scope belongs to
+     */
+    default void printHeader(CharSequence header, String className, String methodName)
+    {
+        println(header);
+    }
+
+    /**
+     * Block until every entry received so far has been written to the underlying stream.
+     */
+    void flush();
+
+    /**
+     * Flush and release the sink. Entries received after closing are written synchronously, if at all.
+     */
+    void close();
+}
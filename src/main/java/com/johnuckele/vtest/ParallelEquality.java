@@ -0,0 +1,334 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compares two large lists, sets or maps for Tester's object equality, computing both directions of equals() and both
+ * hash codes in one combined pass instead of four separate walks. The pass is split into chunks that run in parallel
+ * on the common fork-join pool.
+ *
+ * A pass computes what the collection contracts define equals() and hashCode() to be, so it is only used for the JDK's
+ * own collections, which follow them; every other collection, and any collection below PARALLEL_THRESHOLD elements,
+ * is compared by calling its methods. Lists are walked side by side by index, so only random access lists are split.
+ * Sets and maps are each walked once, looking every element up in the other side, and are split by their
+ * spliterators. The elements must be safe to compare from several threads at once, as they are for any immutable
+ * type.
+ *
+ * @author John Uckele
+ */
+final class ParallelEquality
+{
+    /**
+     * The smallest size of collection that is compared in a combined pass.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int MIN_CHUNK_SIZE = 1 << 12;
+
+    private final boolean lhsEqual;
+    private final boolean rhsEqual;
+    private final int     lhsHashCode;
+    private final int     rhsHashCode;
+
+    private ParallelEquality(boolean lhsEqual, boolean rhsEqual, int lhsHashCode, int rhsHashCode)
+    {
+        this.lhsEqual = lhsEqual;
+        this.rhsEqual = rhsEqual;
+        this.lhsHashCode = lhsHashCode;
+        this.rhsHashCode = rhsHashCode;
+    }
+
+    /**
+     * Compare two objects in a combined pass if they are large JDK collections of the same kind and size.
+     *
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @return the outcome, or null if the objects must be compared by calling their methods
+     */
+    static ParallelEquality compare(Object lhs, Object rhs)
+    {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return compare(lhs, rhs, PARALLEL_THRESHOLD, parallelism < 2 ? Integer.MAX_VALUE : MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Compare two objects in a combined pass, split into chunks of a given size.
+     *
+     * @param threshold
+     *            the smallest size of collection to compare in a pass
+     * @param chunkSize
+     *            the number of elements below which a chunk is not split, or Integer.MAX_VALUE to walk on the calling
+     *            thread
+     */
+    static ParallelEquality compare(Object lhs, Object rhs, int threshold, int chunkSize)
+    {
+        if (!isCollection(lhs) || !isCollection(rhs))
+        {
+            return null;
+        }
+        if (lhs instanceof List && rhs instanceof List)
+        {
+            List<?> lhsList = (List<?>) lhs;
+            List<?> rhsList = (List<?>) rhs;
+            int size = lhsList.size();
+            if (size < threshold || size != rhsList.size() || !(lhs instanceof RandomAccess)
+                    || !(rhs instanceof RandomAccess))
+            {
+                return null;
+            }
+            ListPass pass = new ListPass(lhsList, rhsList, 0, size, chunkSize);
+            run(chunkSize, pass);
+            return new ParallelEquality(pass.lhsEqual, pass.rhsEqual, power(size) + pass.lhsHashCode,
+                    power(size) + pass.rhsHashCode);
+        }
+        else if (lhs instanceof Set && rhs instanceof Set)
+        {
+            Set<?> lhsSet = (Set<?>) lhs;
+            Set<?> rhsSet = (Set<?>) rhs;
+            if (lhsSet.size() < threshold || lhsSet.size() != rhsSet.size())
+            {
+                return null;
+            }
+            // A set equals another set that it contains every element of, so each side's walk decides the other's
+            MemberPass lhsPass = new MemberPass(lhsSet.spliterator(), rhsSet, chunkSize);
+            MemberPass rhsPass = new MemberPass(rhsSet.spliterator(), lhsSet, chunkSize);
+            run(chunkSize, lhsPass, rhsPass);
+            return new ParallelEquality(rhsPass.contained, lhsPass.contained, lhsPass.hashCode, rhsPass.hashCode);
+        }
+        else if (lhs instanceof Map && rhs instanceof Map)
+        {
+            Map<?, ?> lhsMap = (Map<?, ?>) lhs;
+            Map<?, ?> rhsMap = (Map<?, ?>) rhs;
+            if (lhsMap.size() < threshold || lhsMap.size() != rhsMap.size())
+            {
+                return null;
+            }
+            // A map equals another map that holds each of its own entries, so each side's walk decides its own
+            MemberPass lhsPass = new MemberPass(lhsMap.entrySet().spliterator(), rhsMap, chunkSize);
+            MemberPass rhsPass = new MemberPass(rhsMap.entrySet().spliterator(), lhsMap, chunkSize);
+            run(chunkSize, lhsPass, rhsPass);
+            return new ParallelEquality(lhsPass.contained, rhsPass.contained, lhsPass.hashCode, rhsPass.hashCode);
+        }
+        return null;
+    }
+
+    /**
+     * Check that an object is a JDK collection, apart from the identity based IdentityHashMap and its views, which do
+     * not follow the collection contracts.
+     */
+    private static boolean isCollection(Object value)
+    {
+        if (value == null)
+        {
+            return false;
+        }
+        String name = value.getClass().getName();
+        return name.startsWith("java.util.") && !name.startsWith("java.util.IdentityHashMap");
+    }
+
+    private static void run(int chunkSize, ForkJoinTask<?>... passes)
+    {
+        if (chunkSize == Integer.MAX_VALUE)
+        {
+            for (ForkJoinTask<?> pass : passes)
+            {
+                pass.invoke();
+            }
+        }
+        else
+        {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction()
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute()
+                {
+                    invokeAll(passes);
+                }
+            });
+        }
+    }
+
+    /**
+     * Raise 31 to a power, in the int arithmetic of List.hashCode.
+     */
+    private static int power(int exponent)
+    {
+        int result = 1;
+        int base = 31;
+        for (int remaining = exponent; remaining != 0; remaining >>>= 1, base *= base)
+        {
+            if ((remaining & 1) != 0)
+            {
+                result *= base;
+            }
+        }
+        return result;
+    }
+
+    boolean isLhsEqual()
+    {
+        return lhsEqual;
+    }
+
+    boolean isRhsEqual()
+    {
+        return rhsEqual;
+    }
+
+    int getLhsHashCode()
+    {
+        return lhsHashCode;
+    }
+
+    int getRhsHashCode()
+    {
+        return rhsHashCode;
+    }
+
+    /**
+     * Walks a range of two lists side by side, comparing each pair of elements in both directions and folding both
+     * hash codes. The hash of a range leaves out the leading power of 31 that List.hashCode starts from, so that two
+     * ranges combine by shifting the earlier one by the later one's length.
+     */
+    private static final class ListPass extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<?> lhs;
+        private final List<?> rhs;
+        private final int     from;
+        private final int     to;
+        private final int     chunkSize;
+        private boolean       lhsEqual = true;
+        private boolean       rhsEqual = true;
+        private int           lhsHashCode;
+        private int           rhsHashCode;
+
+        ListPass(List<?> lhs, List<?> rhs, int from, int to, int chunkSize)
+        {
+            this.lhs = lhs;
+            this.rhs = rhs;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (to - from > chunkSize)
+            {
+                int middle = (from + to) >>> 1;
+                ListPass left = new ListPass(lhs, rhs, from, middle, chunkSize);
+                ListPass right = new ListPass(lhs, rhs, middle, to, chunkSize);
+                invokeAll(left, right);
+                int shift = power(to - middle);
+                lhsEqual = left.lhsEqual && right.lhsEqual;
+                rhsEqual = left.rhsEqual && right.rhsEqual;
+                lhsHashCode = left.lhsHashCode * shift + right.lhsHashCode;
+                rhsHashCode = left.rhsHashCode * shift + right.rhsHashCode;
+                return;
+            }
+            for (int i = from; i < to; i++)
+            {
+                Object lhsElement = lhs.get(i);
+                Object rhsElement = rhs.get(i);
+                lhsEqual &= lhsElement == null ? rhsElement == null : lhsElement.equals(rhsElement);
+                rhsEqual &= rhsElement == null ? lhsElement == null : rhsElement.equals(lhsElement);
+                lhsHashCode = 31 * lhsHashCode + Objects.hashCode(lhsElement);
+                rhsHashCode = 31 * rhsHashCode + Objects.hashCode(rhsElement);
+            }
+        }
+    }
+
+    /**
+     * Walks the elements of a set or the entries of a map, checking that the other side holds each of them and
+     * summing their hash codes. The walk is split by the spliterator, forking each prefix it splits off.
+     */
+    private static final class MemberPass extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<?> spliterator;
+        private final Object         other;
+        private final int            chunkSize;
+        private boolean              contained = true;
+        private int                  hashCode;
+
+        MemberPass(Spliterator<?> spliterator, Object other, int chunkSize)
+        {
+            this.spliterator = spliterator;
+            this.other = other;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute()
+        {
+            List<MemberPass> forks = new ArrayList<MemberPass>();
+            Spliterator<?> prefix;
+            while (spliterator.estimateSize() > chunkSize && (prefix = spliterator.trySplit()) != null)
+            {
+                MemberPass fork = new MemberPass(prefix, other, chunkSize);
+                fork.fork();
+                forks.add(fork);
+            }
+            spliterator.forEachRemaining(this::visit);
+            for (MemberPass fork : forks)
+            {
+                fork.join();
+                contained &= fork.contained;
+                hashCode += fork.hashCode;
+            }
+        }
+
+        private void visit(Object member)
+        {
+            if (other instanceof Map)
+            {
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) member;
+                hashCode += Objects.hashCode(entry.getKey()) ^ Objects.hashCode(entry.getValue());
+            }
+            else
+            {
+                hashCode += Objects.hashCode(member);
+            }
+            try
+            {
+                contained &= holds(member);
+            }
+            catch (ClassCastException | NullPointerException e)
+            {
+                // A lookup the other side rejects, which equals() also takes to mean the member is not there
+                contained = false;
+            }
+        }
+
+        private boolean holds(Object member)
+        {
+            if (other instanceof Map)
+            {
+                Map<?, ?> map = (Map<?, ?>) other;
+                Map.Entry<?, ?> entry = (Map.Entry<?, ?>) member;
+                Object value = entry.getValue();
+                Object otherValue = map.get(entry.getKey());
+                return value == null ? otherValue == null && map.containsKey(entry.getKey()) : value.equals(
+                        otherValue);
+            }
+            return ((Set<?>) other).contains(member);
+        }
+    }
+}
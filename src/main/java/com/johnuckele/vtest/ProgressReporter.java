@@ -0,0 +1,58 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A daemon thread that periodically prints how many assertions have been made and the throughput since its last report,
+ * so that long suites show signs of life. Nothing is printed for intervals in which no assertions were made.
+ *
+ * @author John Uckele
+ */
+final class ProgressReporter
+{
+    private final long   intervalNanos;
+    private final Thread thread;
+
+    private volatile boolean stopped = false;
+
+    ProgressReporter(long intervalNanos)
+    {
+        this.intervalNanos = intervalNanos;
+        thread = new Thread(this::run, "vtest-progress");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop()
+    {
+        stopped = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void run()
+    {
+        long lastTotal = Metrics.getTotal();
+        long lastTime = System.nanoTime();
+        long deadline = lastTime + intervalNanos;
+        while (!stopped)
+        {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0)
+            {
+                LockSupport.parkNanos(this, remaining);
+                continue;
+            }
+            long total = Metrics.getTotal();
+            long time = System.nanoTime();
+            if (total > lastTotal)
+            {
+                long throughput = (long) ((total - lastTotal) * 1e9 / Math.max(1L, time - lastTime));
+                Tester.getOutputSink()
+                        .println("vtest progress: " + total + " assertions, " + throughput + " assertions/s");
+            }
+            lastTotal = total;
+            lastTime = time;
+            deadline = time + intervalNanos;
+        }
+    }
+}
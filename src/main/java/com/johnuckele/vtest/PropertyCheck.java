@@ -0,0 +1,417 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Checks a property against random values for Tester's forAll assertions. The trials are split into fixed chunks,
+ * each with its own random source seeded from the property's seed and the chunk's index, so the values tried are the
+ * same however the chunks are spread over threads. The chunks run in parallel on the common fork join pool, and
+ * chunks that start after a failing trial is found are skipped. The first failing trial is then replayed from its
+ * chunk's seed to recover its value, which is shrunk on the calling thread to a minimal counterexample.
+ *
+ * A property fails on a value if it returns false or throws. Properties run on several threads at once, so they must
+ * be thread safe.
+ *
+ * @author John Uckele
+ * @param <V>
+ *            the boxed type of the values tried
+ */
+final class PropertyCheck<V>
+{
+    /**
+     * The default number of values tried.
+     */
+    static final int DEFAULT_TRIALS = 1000;
+
+    private static final int  CHUNK_SIZE  = 256;
+    private static final int  MAX_SHRINKS = 1000;
+    private static final Long SEED        = Long.getLong("vtest.property.seed");
+
+    private static volatile int trials = Integer.getInteger("vtest.property.trials", DEFAULT_TRIALS);
+
+    /**
+     * A property bound to the generator of its values. Trials generate and test a value without boxing it, and only
+     * the replay and shrinking of a failure work with boxed values.
+     */
+    abstract static class Property<V>
+    {
+        abstract boolean trial(SplittableRandom random);
+
+        abstract V generate(SplittableRandom random);
+
+        abstract boolean holds(V value);
+
+        abstract List<V> shrink(V value);
+    }
+
+    private final int       trialCount;
+    private final long      seed;
+    private final int       failingTrial;
+    private final V         original;
+    private final V         counterexample;
+    private final int       shrinks;
+    private final Throwable thrown;
+
+    private PropertyCheck(int trialCount, long seed, int failingTrial, V original, V counterexample, int shrinks,
+            Throwable thrown)
+    {
+        this.trialCount = trialCount;
+        this.seed = seed;
+        this.failingTrial = failingTrial;
+        this.original = original;
+        this.counterexample = counterexample;
+        this.shrinks = shrinks;
+        this.thrown = thrown;
+    }
+
+    /**
+     * Set the number of values each property is tried against.
+     *
+     * @param count
+     *            the number of trials, at least 1
+     */
+    static void setTrials(int count)
+    {
+        if (count < 1)
+        {
+            throw new IllegalArgumentException("a property needs at least 1 trial: " + count);
+        }
+        trials = count;
+    }
+
+    static int getTrials()
+    {
+        return trials;
+    }
+
+    /**
+     * Get the seed for a property. Each property is seeded from its message so that every run tries the same values,
+     * unless the system property vtest.property.seed is set to try others.
+     *
+     * @param message
+     *            the property's message
+     * @return the seed
+     */
+    static long seed(String message)
+    {
+        if (SEED != null)
+        {
+            return SEED;
+        }
+        return message == null ? 0L : message.hashCode();
+    }
+
+    static Property<Integer> ofInts(IntGenerator generator, IntPredicate predicate)
+    {
+        requireNonNull(generator, predicate);
+        return new Property<Integer>()
+        {
+            @Override
+            boolean trial(SplittableRandom random)
+            {
+                return predicate.test(generator.next(random));
+            }
+
+            @Override
+            Integer generate(SplittableRandom random)
+            {
+                return generator.next(random);
+            }
+
+            @Override
+            boolean holds(Integer value)
+            {
+                return predicate.test(value);
+            }
+
+            @Override
+            List<Integer> shrink(Integer value)
+            {
+                int[] candidates = generator.shrink(value);
+                List<Integer> boxed = new ArrayList<Integer>(candidates.length);
+                for (int candidate : candidates)
+                {
+                    boxed.add(candidate);
+                }
+                return boxed;
+            }
+        };
+    }
+
+    static Property<Long> ofLongs(LongGenerator generator, LongPredicate predicate)
+    {
+        requireNonNull(generator, predicate);
+        return new Property<Long>()
+        {
+            @Override
+            boolean trial(SplittableRandom random)
+            {
+                return predicate.test(generator.next(random));
+            }
+
+            @Override
+            Long generate(SplittableRandom random)
+            {
+                return generator.next(random);
+            }
+
+            @Override
+            boolean holds(Long value)
+            {
+                return predicate.test(value);
+            }
+
+            @Override
+            List<Long> shrink(Long value)
+            {
+                long[] candidates = generator.shrink(value);
+                List<Long> boxed = new ArrayList<Long>(candidates.length);
+                for (long candidate : candidates)
+                {
+                    boxed.add(candidate);
+                }
+                return boxed;
+            }
+        };
+    }
+
+    static Property<Double> ofDoubles(DoubleGenerator generator, DoublePredicate predicate)
+    {
+        requireNonNull(generator, predicate);
+        return new Property<Double>()
+        {
+            @Override
+            boolean trial(SplittableRandom random)
+            {
+                return predicate.test(generator.next(random));
+            }
+
+            @Override
+            Double generate(SplittableRandom random)
+            {
+                return generator.next(random);
+            }
+
+            @Override
+            boolean holds(Double value)
+            {
+                return predicate.test(value);
+            }
+
+            @Override
+            List<Double> shrink(Double value)
+            {
+                double[] candidates = generator.shrink(value);
+                List<Double> boxed = new ArrayList<Double>(candidates.length);
+                for (double candidate : candidates)
+                {
+                    boxed.add(candidate);
+                }
+                return boxed;
+            }
+        };
+    }
+
+    static <T> Property<T> of(Generator<T> generator, Predicate<? super T> predicate)
+    {
+        requireNonNull(generator, predicate);
+        return new Property<T>()
+        {
+            @Override
+            boolean trial(SplittableRandom random)
+            {
+                return predicate.test(generator.next(random));
+            }
+
+            @Override
+            T generate(SplittableRandom random)
+            {
+                return generator.next(random);
+            }
+
+            @Override
+            boolean holds(T value)
+            {
+                return predicate.test(value);
+            }
+
+            @Override
+            List<T> shrink(T value)
+            {
+                return generator.shrink(value);
+            }
+        };
+    }
+
+    private static void requireNonNull(Object generator, Object predicate)
+    {
+        if (generator == null || predicate == null)
+        {
+            throw new IllegalArgumentException("a property needs a generator and a predicate");
+        }
+    }
+
+    /**
+     * Try a property against the current number of random values, and shrink the first that fails.
+     *
+     * @param property
+     *            the property to check
+     * @param seed
+     *            the seed of the values tried
+     * @return the outcome
+     */
+    static <V> PropertyCheck<V> check(Property<V> property, long seed)
+    {
+        int count = trials;
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        AtomicInteger first = new AtomicInteger(Integer.MAX_VALUE);
+        IntStream indices = IntStream.range(0, chunks);
+        if (chunks > 1 && ForkJoinPool.getCommonPoolParallelism() > 1)
+        {
+            indices = indices.parallel();
+        }
+        indices.forEach(chunk -> runChunk(property, seed, chunk, count, first));
+        int failing = first.get();
+        if (failing == Integer.MAX_VALUE)
+        {
+            return new PropertyCheck<V>(count, seed, -1, null, null, 0, null);
+        }
+
+        SplittableRandom random = random(seed, failing / CHUNK_SIZE);
+        V original = null;
+        for (int trial = failing / CHUNK_SIZE * CHUNK_SIZE; trial <= failing; trial++)
+        {
+            original = property.generate(random);
+        }
+        V counterexample = original;
+        int shrinks = 0;
+        search: while (shrinks < MAX_SHRINKS)
+        {
+            for (V candidate : property.shrink(counterexample))
+            {
+                if (!passes(property, candidate))
+                {
+                    counterexample = candidate;
+                    shrinks++;
+                    continue search;
+                }
+            }
+            break;
+        }
+        return new PropertyCheck<V>(count, seed, failing, original, counterexample, shrinks, thrown(property,
+                counterexample));
+    }
+
+    private static <V> void runChunk(Property<V> property, long seed, int chunk, int count, AtomicInteger first)
+    {
+        int begin = chunk * CHUNK_SIZE;
+        int end = Math.min(begin + CHUNK_SIZE, count);
+        SplittableRandom random = random(seed, chunk);
+        for (int trial = begin; trial < end && trial < first.get(); trial++)
+        {
+            boolean passed;
+            try
+            {
+                passed = property.trial(random);
+            }
+            catch (RuntimeException | AssertionError e)
+            {
+                passed = false;
+            }
+            if (!passed)
+            {
+                first.accumulateAndGet(trial, Math::min);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the random source of a chunk. The seed and index are mixed by a first random source, since sources seeded
+     * with neighbouring seeds produce the same values shifted by one.
+     */
+    private static SplittableRandom random(long seed, int chunk)
+    {
+        return new SplittableRandom(new SplittableRandom(seed + chunk).nextLong());
+    }
+
+    private static <V> boolean passes(Property<V> property, V value)
+    {
+        try
+        {
+            return property.holds(value);
+        }
+        catch (RuntimeException | AssertionError e)
+        {
+            return false;
+        }
+    }
+
+    private static <V> Throwable thrown(Property<V> property, V value)
+    {
+        try
+        {
+            property.holds(value);
+            return null;
+        }
+        catch (RuntimeException | AssertionError e)
+        {
+            return e;
+        }
+    }
+
+    boolean isPassed()
+    {
+        return failingTrial < 0;
+    }
+
+    int getTrialCount()
+    {
+        return trialCount;
+    }
+
+    long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return the index of the first failing trial, or -1 if every trial passed
+     */
+    int getFailingTrial()
+    {
+        return failingTrial;
+    }
+
+    V getOriginal()
+    {
+        return original;
+    }
+
+    V getCounterexample()
+    {
+        return counterexample;
+    }
+
+    int getShrinks()
+    {
+        return shrinks;
+    }
+
+    /**
+     * @return what the property threw on the counterexample, or null if it returned false
+     */
+    Throwable getThrown()
+    {
+        return thrown;
+    }
+}
@@ -0,0 +1,855 @@
+package com.johnuckele.vtest;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Renders assertion output lines into a reusable, per-thread buffer. Operands are rendered with bounded cost: strings
+ * are cut to a character budget, and collections, maps and arrays show their size and a sample of their first and last
+ * elements instead of every element. For failed equality between two sequences, a window around the first mismatch can
+ * be rendered instead of the head and tail.
+ *
+ * The renderer also remembers the structure of the line it is building, so that structured reporters can emit an
+ * assertion's message, operator and operands separately without parsing the rendered text. Each top level value is an
+ * operand, and the operator is the token the assertion appends with {@link #operator(String)}.
+ *
+ * @author John Uckele
+ */
+final class Renderer
+{
+    /**
+     * The default maximum number of elements rendered for a collection, map or array.
+     */
+    static final int DEFAULT_MAX_ELEMENTS = 20;
+
+    /**
+     * The default maximum number of characters rendered for a single operand.
+     */
+    static final int DEFAULT_MAX_CHARS = 1000;
+
+    private static final String ELLIPSIS          = "…";
+    private static final int    MAX_DEPTH         = 8;
+    private static final int    MAX_KEPT_CAPACITY = 64 * 1024;
+    private static final int    MAX_OPERANDS      = 4;
+
+    private static final ThreadLocal<Renderer> renderers = ThreadLocal.withInitial(Renderer::new);
+
+    private static volatile int maxElements = Integer.getInteger("vtest.render.elements", DEFAULT_MAX_ELEMENTS);
+    private static volatile int maxChars    = Integer.getInteger("vtest.render.chars", DEFAULT_MAX_CHARS);
+
+    private final StringBuilder line          = new StringBuilder(256);
+    private final StringBuilder entry         = new StringBuilder(256);
+    private final int[]         operandBounds = new int[MAX_OPERANDS * 2];
+    private int                 limit;
+    private String              message;
+    private String              operator;
+    private int                 operandCount;
+    private long                began;
+    private long                finished;
+
+    private Renderer()
+    {
+    }
+
+    /**
+     * Start rendering a new assertion line on the current thread's buffer.
+     *
+     * @param message
+     *            the assertion's message
+     * @return the current thread's renderer
+     */
+    static Renderer begin(String message)
+    {
+        Renderer renderer = renderers.get();
+        if (renderer.line.capacity() > MAX_KEPT_CAPACITY)
+        {
+            renderer.line.setLength(0);
+            renderer.line.trimToSize();
+        }
+        renderer.line.setLength(0);
+        renderer.line.append("\t\t").append(message);
+        renderer.message = message;
+        renderer.operator = null;
+        renderer.operandCount = 0;
+        renderer.began = System.nanoTime();
+        return renderer;
+    }
+
+    /**
+     * Join a rendered line and the status printed beneath it into one entry, so that a sink writes them together. The
+     * entry is built in a buffer that the renderer reuses, with the same lifetime as a line returned by done().
+     *
+     * @param rendered
+     *            the rendered line
+     * @param status
+     *            the status line
+     * @return the entry
+     */
+    CharSequence entry(CharSequence rendered, String status)
+    {
+        if (entry.capacity() > MAX_KEPT_CAPACITY)
+        {
+            entry.setLength(0);
+            entry.trimToSize();
+        }
+        entry.setLength(0);
+        return entry.append(rendered).append(System.lineSeparator()).append(status);
+    }
+
+    /**
+     * Get the current thread's renderer, holding the last line rendered on this thread.
+     *
+     * @return the current thread's renderer
+     */
+    static Renderer current()
+    {
+        return renderers.get();
+    }
+
+    /**
+     * Set the bounds used to render operands.
+     *
+     * @param elements
+     *            the maximum number of elements rendered for a collection, map or array
+     * @param chars
+     *            the maximum number of characters rendered for a single operand
+     */
+    static void setLimits(int elements, int chars)
+    {
+        if (elements < 2 || chars < 16)
+        {
+            throw new IllegalArgumentException("render limits must be at least 2 elements and 16 characters");
+        }
+        maxElements = elements;
+        maxChars = chars;
+    }
+
+    /**
+     * Find the first index at which two sequences differ. Lists, arrays and CharSequences are sequences. If one
+     * sequence is a prefix of the other, the first index past the shorter one is returned.
+     *
+     * @param lhs
+     *            the left hand side of the comparison
+     * @param rhs
+     *            the right hand side of the comparison
+     * @return the index of the first mismatch, or -1 if the operands are not both sequences or do not differ
+     */
+    static int firstMismatch(Object lhs, Object rhs)
+    {
+        if (lhs instanceof CharSequence && rhs instanceof CharSequence)
+        {
+            CharSequence lhsChars = (CharSequence) lhs;
+            CharSequence rhsChars = (CharSequence) rhs;
+            int length = Math.min(lhsChars.length(), rhsChars.length());
+            for (int i = 0; i < length; i++)
+            {
+                if (lhsChars.charAt(i) != rhsChars.charAt(i))
+                {
+                    return i;
+                }
+            }
+            return lhsChars.length() == rhsChars.length() ? -1 : length;
+        }
+        if (lhs instanceof List && rhs instanceof List)
+        {
+            Iterator<?> lhsIterator = ((List<?>) lhs).iterator();
+            Iterator<?> rhsIterator = ((List<?>) rhs).iterator();
+            int index = 0;
+            while (lhsIterator.hasNext() && rhsIterator.hasNext())
+            {
+                if (!equal(lhsIterator.next(), rhsIterator.next()))
+                {
+                    return index;
+                }
+                index++;
+            }
+            return lhsIterator.hasNext() || rhsIterator.hasNext() ? index : -1;
+        }
+        if (lhs != null && rhs != null && lhs.getClass().isArray() && lhs.getClass() == rhs.getClass())
+        {
+            int lhsLength = Array.getLength(lhs);
+            int rhsLength = Array.getLength(rhs);
+            int length = Math.min(lhsLength, rhsLength);
+            if (lhs instanceof Object[])
+            {
+                Object[] lhsObjects = (Object[]) lhs;
+                Object[] rhsObjects = (Object[]) rhs;
+                for (int i = 0; i < length; i++)
+                {
+                    if (!equal(lhsObjects[i], rhsObjects[i]))
+                    {
+                        return i;
+                    }
+                }
+            }
+            else
+            {
+                for (int i = 0; i < length; i++)
+                {
+                    if (!Array.get(lhs, i).equals(Array.get(rhs, i)))
+                    {
+                        return i;
+                    }
+                }
+            }
+            return lhsLength == rhsLength ? -1 : length;
+        }
+        return -1;
+    }
+
+    private static boolean equal(Object lhs, Object rhs)
+    {
+        return lhs == null ? rhs == null : lhs.equals(rhs);
+    }
+
+    /**
+     * Append literal text to the line.
+     *
+     * @param text
+     *            the text to append
+     * @return this renderer
+     */
+    Renderer text(String text)
+    {
+        line.append(text);
+        return this;
+    }
+
+    /**
+     * Append an operator to the line, surrounded by spaces, and record it as the line's operator.
+     *
+     * @param token
+     *            the operator token, without surrounding spaces
+     * @return this renderer
+     */
+    Renderer operator(String token)
+    {
+        if (operator == null)
+        {
+            operator = token;
+        }
+        line.append(' ').append(token).append(' ');
+        return this;
+    }
+
+    /**
+     * Append a bounded rendering of an operand to the line.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(Object value)
+    {
+        int start = line.length();
+        limit = start + maxChars;
+        appendValue(value, 0);
+        return operand(start);
+    }
+
+    /**
+     * Append a boolean operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(boolean value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append a char operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(char value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append an int, short or byte operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(int value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append a long operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(long value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append a float operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(float value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append a double operand to the line without allocating.
+     *
+     * @param value
+     *            the operand to render
+     * @return this renderer
+     */
+    Renderer value(double value)
+    {
+        int start = line.length();
+        line.append(value);
+        return operand(start);
+    }
+
+    /**
+     * Append a bounded rendering of two operands separated by an operator.
+     *
+     * @param lhs
+     *            the left hand operand
+     * @param operator
+     *            the operator token, without surrounding spaces
+     * @param rhs
+     *            the right hand operand
+     * @param locateDifference
+     *            true to render sequence operands around their first mismatch, as for failed equality
+     * @return this renderer
+     */
+    Renderer comparison(Object lhs, String operator, Object rhs, boolean locateDifference)
+    {
+        int mismatch = locateDifference ? firstMismatch(lhs, rhs) : -1;
+        return difference(lhs, operator, rhs, mismatch).firstDifference(mismatch);
+    }
+
+    /**
+     * Append a bounded rendering of two sequence operands separated by an operator, showing both around a known
+     * mismatch.
+     *
+     * @param lhs
+     *            the left hand operand
+     * @param operator
+     *            the operator token, without surrounding spaces
+     * @param rhs
+     *            the right hand operand
+     * @param mismatch
+     *            the index of the first difference between the operands, or -1 to render them normally
+     * @return this renderer
+     */
+    Renderer difference(Object lhs, String operator, Object rhs, int mismatch)
+    {
+        if (mismatch < 0)
+        {
+            return value(lhs).operator(operator).value(rhs);
+        }
+        return valueAround(lhs, mismatch).operator(operator).valueAround(rhs, mismatch);
+    }
+
+    /**
+     * Append the index of the first difference between two operands.
+     *
+     * @param mismatch
+     *            the index of the first difference, or -1 to append nothing
+     * @return this renderer
+     */
+    Renderer firstDifference(int mismatch)
+    {
+        if (mismatch >= 0)
+        {
+            line.append(" (first difference at index ").append(mismatch).append(')');
+        }
+        return this;
+    }
+
+    /**
+     * Append the path to the first difference between two object graphs and the values that differ there.
+     *
+     * @param difference
+     *            the first difference, or null to append nothing
+     * @return this renderer
+     */
+    Renderer firstDifference(DeepEquality.Difference difference)
+    {
+        if (difference != null)
+        {
+            line.append(" (first difference at ").append(difference.getPath()).append(": ");
+            limit = line.length() + maxChars;
+            appendValue(difference.getLhs(), 0);
+            line.append(" != ");
+            limit = line.length() + maxChars;
+            appendValue(difference.getRhs(), 0);
+            line.append(')');
+        }
+        return this;
+    }
+
+    /**
+     * Append a bounded rendering of a sequence operand, showing a window of elements around an index instead of the
+     * sequence's head and tail. Operands that are not sequences, or that are short enough to be rendered whole, are
+     * rendered as by value(Object).
+     *
+     * @param value
+     *            the operand to render
+     * @param index
+     *            the index to center the window on, usually from firstMismatch
+     * @return this renderer
+     */
+    Renderer valueAround(Object value, int index)
+    {
+        int start = line.length();
+        limit = start + maxChars;
+        int window = Math.max(1, maxElements / 2);
+        if (fitsWhole(value))
+        {
+            appendValue(value, 0);
+        }
+        else if (value instanceof CharSequence)
+        {
+            CharSequence chars = (CharSequence) value;
+            int from = Math.max(0, index - maxChars / 2);
+            int to = Math.min(chars.length(), from + maxChars);
+            if (from > 0)
+            {
+                line.append(ELLIPSIS);
+            }
+            line.append(chars, from, to);
+            if (to < chars.length())
+            {
+                line.append(ELLIPSIS);
+            }
+            line.append(" (length ").append(chars.length()).append(')');
+        }
+        else if (value instanceof List)
+        {
+            List<?> list = (List<?>) value;
+            int size = list.size();
+            int from = Math.max(0, index - window);
+            int to = Math.min(size, index + window + 1);
+            line.append('[');
+            if (from > 0)
+            {
+                line.append(ELLIPSIS).append(", ");
+            }
+            ListIterator<?> iterator = list.listIterator(from);
+            for (int i = from; i < to && withinLimit(); i++)
+            {
+                appendSeparator(i - from);
+                appendElement(iterator.next(), value, 1);
+            }
+            if (to < size)
+            {
+                line.append(", ").append(ELLIPSIS);
+            }
+            line.append("] (size ").append(size).append(')');
+        }
+        else if (value != null && value.getClass().isArray())
+        {
+            int length = Array.getLength(value);
+            int from = Math.max(0, index - window);
+            int to = Math.min(length, index + window + 1);
+            line.append('[');
+            if (from > 0)
+            {
+                line.append(ELLIPSIS).append(", ");
+            }
+            for (int i = from; i < to && withinLimit(); i++)
+            {
+                appendSeparator(i - from);
+                appendArrayElement(value, i, 1);
+            }
+            if (to < length)
+            {
+                line.append(", ").append(ELLIPSIS);
+            }
+            line.append("] (length ").append(length).append(')');
+        }
+        else
+        {
+            appendValue(value, 0);
+        }
+        return operand(start);
+    }
+
+    /**
+     * Get the rendered line. The returned buffer is reused by the next assertion on this thread.
+     *
+     * @return the rendered line
+     */
+    CharSequence done()
+    {
+        return line;
+    }
+
+    /**
+     * Get the message of the last line rendered.
+     *
+     * @return the assertion's message
+     */
+    String message()
+    {
+        return message;
+    }
+
+    /**
+     * Get the operator of the last line rendered.
+     *
+     * @return the operator token, or null if the line has no operator
+     */
+    String operator()
+    {
+        return operator;
+    }
+
+    /**
+     * Get the number of operands recorded for the last line rendered. Only the first few operands are recorded.
+     *
+     * @return the number of operands
+     */
+    int operandCount()
+    {
+        return operandCount;
+    }
+
+    /**
+     * Get the index in the rendered line at which an operand starts.
+     *
+     * @param operand
+     *            the index of the operand
+     * @return the index of the operand's first character
+     */
+    int operandStart(int operand)
+    {
+        return operandBounds[operand * 2];
+    }
+
+    /**
+     * Get the index in the rendered line at which an operand ends.
+     *
+     * @param operand
+     *            the index of the operand
+     * @return the index after the operand's last character
+     */
+    int operandEnd(int operand)
+    {
+        return operandBounds[operand * 2 + 1];
+    }
+
+    /**
+     * Get the time at which the last line was begun, which is the time at which the assertion finished evaluating.
+     *
+     * @return the value of System.nanoTime() when the line was begun
+     */
+    long began()
+    {
+        return began;
+    }
+
+    /**
+     * Note the time at which the last line was finished, for assertions whose rendering is being timed.
+     */
+    void finish()
+    {
+        finished = System.nanoTime();
+    }
+
+    /**
+     * Get the time at which the last line was finished.
+     *
+     * @return the value of System.nanoTime() when finish was last called, which is before the line was begun if it has
+     *         not been called since
+     */
+    long finished()
+    {
+        return finished;
+    }
+
+    private Renderer operand(int start)
+    {
+        if (operandCount < MAX_OPERANDS)
+        {
+            operandBounds[operandCount * 2] = start;
+            operandBounds[operandCount * 2 + 1] = line.length();
+            operandCount++;
+        }
+        return this;
+    }
+
+    private static boolean fitsWhole(Object value)
+    {
+        if (value instanceof CharSequence)
+        {
+            return ((CharSequence) value).length() <= maxChars;
+        }
+        if (value instanceof List)
+        {
+            return ((List<?>) value).size() <= maxElements;
+        }
+        if (value != null && value.getClass().isArray())
+        {
+            return Array.getLength(value) <= maxElements;
+        }
+        return true;
+    }
+
+    private boolean withinLimit()
+    {
+        return line.length() < limit;
+    }
+
+    private void appendSeparator(int rendered)
+    {
+        if (rendered > 0)
+        {
+            line.append(", ");
+        }
+    }
+
+    private void appendValue(Object value, int depth)
+    {
+        if (!withinLimit())
+        {
+            line.append(ELLIPSIS);
+        }
+        else if (value == null)
+        {
+            line.append("null");
+        }
+        else if (depth >= MAX_DEPTH)
+        {
+            line.append(ELLIPSIS);
+        }
+        else if (value instanceof CharSequence)
+        {
+            appendChars((CharSequence) value);
+        }
+        else if (value instanceof Collection)
+        {
+            appendCollection((Collection<?>) value, depth);
+        }
+        else if (value instanceof Map)
+        {
+            appendMap((Map<?, ?>) value, depth);
+        }
+        else if (value.getClass().isArray())
+        {
+            appendArray(value, depth);
+        }
+        else
+        {
+            appendChars(String.valueOf(value));
+        }
+    }
+
+    private void appendElement(Object element, Object container, int depth)
+    {
+        if (element == container)
+        {
+            line.append(container instanceof Map ? "(this Map)" : "(this Collection)");
+        }
+        else
+        {
+            appendValue(element, depth);
+        }
+    }
+
+    private void appendChars(CharSequence chars)
+    {
+        int remaining = limit - line.length();
+        if (chars.length() <= remaining)
+        {
+            line.append(chars);
+        }
+        else
+        {
+            line.append(chars, 0, Math.max(0, remaining)).append(ELLIPSIS).append(" (length ").append(chars.length())
+                    .append(')');
+        }
+    }
+
+    private void appendCollection(Collection<?> collection, int depth)
+    {
+        int size = collection.size();
+        int head = size <= maxElements ? size : (maxElements + 1) / 2;
+        int tail = size <= maxElements ? 0 : maxElements - head;
+        if (tail > 0 && !(collection instanceof List))
+        {
+            // Only lists can be walked from the end cheaply, so other collections show a longer head instead
+            head = maxElements;
+            tail = 0;
+        }
+        line.append('[');
+        Iterator<?> iterator = collection.iterator();
+        int rendered = 0;
+        while (rendered < head && iterator.hasNext() && withinLimit())
+        {
+            appendSeparator(rendered++);
+            appendElement(iterator.next(), collection, depth + 1);
+        }
+        boolean truncated = rendered < size;
+        if (truncated)
+        {
+            appendSeparator(rendered);
+            line.append(ELLIPSIS);
+        }
+        if (tail > 0 && rendered == head)
+        {
+            List<?> list = (List<?>) collection;
+            int from = size - tail;
+            if (list instanceof RandomAccess)
+            {
+                for (int i = from; i < size && withinLimit(); i++)
+                {
+                    line.append(", ");
+                    appendElement(list.get(i), collection, depth + 1);
+                }
+            }
+            else
+            {
+                ListIterator<?> tailIterator = list.listIterator(from);
+                while (tailIterator.hasNext() && withinLimit())
+                {
+                    line.append(", ");
+                    appendElement(tailIterator.next(), collection, depth + 1);
+                }
+            }
+        }
+        line.append(']');
+        if (truncated)
+        {
+            line.append(" (size ").append(size).append(')');
+        }
+    }
+
+    private void appendMap(Map<?, ?> map, int depth)
+    {
+        int size = map.size();
+        line.append('{');
+        int rendered = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet())
+        {
+            if (rendered == maxElements || !withinLimit())
+            {
+                break;
+            }
+            appendSeparator(rendered++);
+            appendElement(entry.getKey(), map, depth + 1);
+            line.append('=');
+            appendElement(entry.getValue(), map, depth + 1);
+        }
+        if (rendered < size)
+        {
+            appendSeparator(rendered);
+            line.append(ELLIPSIS).append("} (size ").append(size).append(')');
+        }
+        else
+        {
+            line.append('}');
+        }
+    }
+
+    private void appendArray(Object array, int depth)
+    {
+        int length = Array.getLength(array);
+        int head = length <= maxElements ? length : (maxElements + 1) / 2;
+        int tail = length <= maxElements ? 0 : maxElements - head;
+        line.append('[');
+        int rendered = 0;
+        while (rendered < head && withinLimit())
+        {
+            appendSeparator(rendered);
+            appendArrayElement(array, rendered++, depth + 1);
+        }
+        boolean truncated = rendered < length;
+        if (truncated)
+        {
+            appendSeparator(rendered);
+            line.append(ELLIPSIS);
+        }
+        for (int i = length - tail; rendered == head && i < length && withinLimit(); i++)
+        {
+            line.append(", ");
+            appendArrayElement(array, i, depth + 1);
+        }
+        line.append(']');
+        if (truncated)
+        {
+            line.append(" (length ").append(length).append(')');
+        }
+    }
+
+    /**
+     * Append one element of an array, without boxing elements of primitive arrays.
+     */
+    private void appendArrayElement(Object array, int index, int depth)
+    {
+        if (array instanceof Object[])
+        {
+            appendElement(((Object[]) array)[index], array, depth);
+        }
+        else if (array instanceof int[])
+        {
+            line.append(((int[]) array)[index]);
+        }
+        else if (array instanceof long[])
+        {
+            line.append(((long[]) array)[index]);
+        }
+        else if (array instanceof double[])
+        {
+            line.append(((double[]) array)[index]);
+        }
+        else if (array instanceof float[])
+        {
+            line.append(((float[]) array)[index]);
+        }
+        else if (array instanceof byte[])
+        {
+            line.append(((byte[]) array)[index]);
+        }
+        else if (array instanceof short[])
+        {
+            line.append(((short[]) array)[index]);
+        }
+        else if (array instanceof char[])
+        {
+            line.append(((char[]) array)[index]);
+        }
+        else
+        {
+            line.append(((boolean[]) array)[index]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The class and method that a Tester assertion was called from. Scopes are interned by the ScopeResolver, so two
+ * scopes for the same call site are always the same instance and may be compared by identity.
+ *
+ * @author John Uckele
+ */
+final class Scope
+{
+    /**
+     * The scope before any assertion has been made.
+     */
+    static final Scope NONE = new Scope("", "");
+
+    private static final AtomicReferenceFieldUpdater<Scope, ScopeMetrics> METRICS = AtomicReferenceFieldUpdater
+            .newUpdater(Scope.class, ScopeMetrics.class, "metrics");
+
+    private final String          className;
+    private final String          methodName;
+    private volatile ScopeMetrics metrics;
+
+    Scope(String className, String methodName)
+    {
+        this.className = className;
+        this.methodName = methodName;
+    }
+
+    String getClassName()
+    {
+        return className;
+    }
+
+    String getMethodName()
+    {
+        return methodName;
+    }
+
+    /**
+     * Get the metrics of the assertions made in this scope.
+     *
+     * @return the scope's metrics, or null if they have not been created yet
+     */
+    ScopeMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Create the metrics of the assertions made in this scope, unless another thread has already created them.
+     *
+     * @return the new metrics, or null if the scope already has metrics
+     */
+    ScopeMetrics createMetrics()
+    {
+        ScopeMetrics created = new ScopeMetrics(this);
+        return METRICS.compareAndSet(this, null, created) ? created : null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return className + "." + methodName;
+    }
+}
@@ -0,0 +1,110 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live assertion counts and latencies for one scope, the test method that the assertions were called from. Counters
+ * are LongAdders, so threads asserting in the same scope do not contend with each other.
+ *
+ * @author John Uckele
+ * @see Tester#getMetrics()
+ */
+public final class ScopeMetrics
+{
+    private final Scope            scope;
+    private final LongAdder        passed  = new LongAdder();
+    private final LongAdder        failed  = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    ScopeMetrics(Scope scope)
+    {
+        this.scope = scope;
+    }
+
+    void record(boolean evaluation, long nanos)
+    {
+        if (evaluation)
+        {
+            passed.increment();
+        }
+        else
+        {
+            failed.increment();
+        }
+        latency.record(nanos);
+    }
+
+    void reset()
+    {
+        passed.reset();
+        failed.reset();
+        latency.reset();
+    }
+
+    /**
+     * Get the name of the class the assertions were called from.
+     *
+     * @return the class name
+     */
+    public String getClassName()
+    {
+        return scope.getClassName();
+    }
+
+    /**
+     * Get the name of the method the assertions were called from.
+     *
+     * @return the method name
+     */
+    public String getMethodName()
+    {
+        return scope.getMethodName();
+    }
+
+    /**
+     * Get the number of assertions that passed.
+     *
+     * @return the number of passed assertions
+     */
+    public long getPassed()
+    {
+        return passed.sum();
+    }
+
+    /**
+     * Get the number of assertions that failed, including soft assertions.
+     *
+     * @return the number of failed assertions
+     */
+    public long getFailed()
+    {
+        return failed.sum();
+    }
+
+    /**
+     * Get the number of assertions made.
+     *
+     * @return the number of assertions
+     */
+    public long getTotal()
+    {
+        return passed.sum() + failed.sum();
+    }
+
+    /**
+     * Get the histogram of the time taken to evaluate each assertion, excluding rendering and output.
+     *
+     * @return the live latency histogram
+     */
+    public LatencyHistogram getLatency()
+    {
+        return latency;
+    }
+
+    @Override
+    public String toString()
+    {
+        return scope + ": " + getTotal() + " assertions, " + getPassed() + " passed, " + getFailed() + " failed, "
+                + latency;
+    }
+}
@@ -0,0 +1,117 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Finds the scope (class and method) of the code calling into Tester. The resolver walks the stack from the top,
+ * skipping vtest's own frames, and stops at the first caller frame instead of materializing the whole stack. Resolved
+ * scopes are interned per call site, so repeated assertions from the same test method share a single Scope instance.
+ *
+ * Only the Scope is cached: the call site itself is not known until the stack is walked, so every assertion still pays
+ * for a walk bounded by MAX_DEPTH frames. Assertions made while a JUnit integration has set the test's scope through
+ * Tester.enterTest skip the walk entirely.
+ *
+ * @author John Uckele
+ */
+abstract class ScopeResolver
+{
+    /**
+     * The maximum number of frames inspected before giving up on finding a caller.
+     */
+    static final int MAX_DEPTH = 16;
+
+    private static final String[] INTERNAL_CLASSES = {
+            Tester.class.getName(),
+            ScopeResolver.class.getName(),
+            "com.johnuckele.vtest.StackWalkerScopeResolver",
+            ThrowableScopeResolver.class.getName() };
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Scope>> scopes = new ConcurrentHashMap<String,
+            ConcurrentMap<String, Scope>>();
+
+    /**
+     * Create the fastest resolver available on the running JVM. StackWalker is used when present (Java 9+),
+     * otherwise a Throwable stack trace is used.
+     *
+     * @return a new ScopeResolver
+     */
+    static ScopeResolver create()
+    {
+        try
+        {
+            Class.forName("java.lang.StackWalker");
+            return (ScopeResolver) Class.forName("com.johnuckele.vtest.StackWalkerScopeResolver")
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (Exception e)
+        {
+            return new ThrowableScopeResolver();
+        }
+        catch (LinkageError e)
+        {
+            return new ThrowableScopeResolver();
+        }
+    }
+
+    /**
+     * Check if a frame belongs to vtest itself rather than to the code under test.
+     *
+     * @param className
+     *            the name of the class declaring the frame's method
+     * @return true if the frame should be skipped when resolving scope
+     */
+    static boolean isInternal(String className)
+    {
+        for (String internalClass : INTERNAL_CLASSES)
+        {
+            if (className.startsWith(internalClass) && (className.length() == internalClass.length()
+                    || className.charAt(internalClass.length()) == '$'))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Resolve the scope of the first non-vtest frame on the current thread's stack.
+     *
+     * @return the interned scope of the caller, or Scope.NONE if no caller was found within MAX_DEPTH frames
+     */
+    abstract Scope resolve();
+
+    /**
+     * Look up the interned scope for a call site, creating it on first use.
+     *
+     * @param className
+     *            the name of the calling class
+     * @param methodName
+     *            the name of the calling method
+     * @return the interned scope
+     */
+    final Scope scope(String className, String methodName)
+    {
+        ConcurrentMap<String, Scope> methods = scopes.get(className);
+        if (methods == null)
+        {
+            methods = new ConcurrentHashMap<String, Scope>();
+            ConcurrentMap<String, Scope> existing = scopes.putIfAbsent(className, methods);
+            if (existing != null)
+            {
+                methods = existing;
+            }
+        }
+        Scope scope = methods.get(methodName);
+        if (scope == null)
+        {
+            scope = new Scope(className, methodName);
+            Scope existing = methods.putIfAbsent(methodName, scope);
+            if (existing != null)
+            {
+                scope = existing;
+            }
+        }
+        return scope;
+    }
+}
@@ -0,0 +1,235 @@
+package com.johnuckele.vtest;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A single pass over a sequence of elements that checks a property of the whole sequence in constant memory, so that
+ * sequences too large to collect can be tested as they are generated. Each scan stops at the first element that
+ * violates the property, and keeps only that element, the one before it and its index.
+ *
+ * @author John Uckele
+ */
+final class SequenceScan
+{
+    private long    count;
+    private long    index = -1L;
+    private Object  previous;
+    private Object  element;
+    private int     direction;
+    private boolean lhsEnded;
+    private boolean rhsEnded;
+
+    private SequenceScan()
+    {
+    }
+
+    /**
+     * Scan for the first element that does not match a predicate.
+     *
+     * @param values
+     *            the elements to scan
+     * @param predicate
+     *            the predicate every element should match
+     * @param expected
+     *            what the predicate should return for every element
+     * @return the scan, which stops at the first element for which the predicate does not return expected
+     */
+    static <T> SequenceScan match(Iterator<T> values, Predicate<? super T> predicate, boolean expected)
+    {
+        SequenceScan scan = new SequenceScan();
+        while (values.hasNext())
+        {
+            T value = values.next();
+            if (predicate.test(value) != expected)
+            {
+                scan.violate(value);
+                break;
+            }
+            scan.count++;
+        }
+        return scan;
+    }
+
+    /**
+     * Count the elements of a sequence.
+     *
+     * @param values
+     *            the elements to count
+     * @return the scan, which never has a violation
+     */
+    static SequenceScan count(Iterator<?> values)
+    {
+        SequenceScan scan = new SequenceScan();
+        while (values.hasNext())
+        {
+            values.next();
+            scan.count++;
+        }
+        return scan;
+    }
+
+    /**
+     * Scan for the first element that is out of order.
+     *
+     * @param values
+     *            the elements to scan
+     * @param comparator
+     *            the order the elements should be in
+     * @param strict
+     *            true if each element must be greater than the one before it, rather than not less
+     * @return the scan, which stops at the first element that is out of order with the one before it
+     */
+    static <T> SequenceScan sorted(Iterator<T> values, Comparator<? super T> comparator, boolean strict)
+    {
+        SequenceScan scan = new SequenceScan();
+        T previous = null;
+        while (values.hasNext())
+        {
+            T value = values.next();
+            if (scan.count > 0)
+            {
+                int comparison = comparator.compare(previous, value);
+                if (comparison > 0 || (strict && comparison == 0))
+                {
+                    scan.previous = previous;
+                    scan.violate(value);
+                    break;
+                }
+            }
+            previous = value;
+            scan.count++;
+        }
+        return scan;
+    }
+
+    /**
+     * Scan for the first element that breaks a monotonic order. The direction of the order is set by the first pair
+     * of elements that are not equal, and equal neighbors never break it.
+     *
+     * @param values
+     *            the elements to scan
+     * @param comparator
+     *            the order the elements should be monotonic in
+     * @return the scan, which stops at the first element that goes against the direction of the elements before it
+     */
+    static <T> SequenceScan monotonic(Iterator<T> values, Comparator<? super T> comparator)
+    {
+        SequenceScan scan = new SequenceScan();
+        T previous = null;
+        while (values.hasNext())
+        {
+            T value = values.next();
+            if (scan.count > 0)
+            {
+                int comparison = Integer.signum(comparator.compare(value, previous));
+                if (scan.direction == 0)
+                {
+                    scan.direction = comparison;
+                }
+                else if (comparison == -scan.direction)
+                {
+                    scan.previous = previous;
+                    scan.violate(value);
+                    break;
+                }
+            }
+            previous = value;
+            scan.count++;
+        }
+        return scan;
+    }
+
+    /**
+     * Scan two sequences in step for the first position at which they differ, either because their elements are not
+     * equal or because one sequence ends before the other.
+     *
+     * @param lhs
+     *            the left hand elements
+     * @param rhs
+     *            the right hand elements
+     * @return the scan, whose previous element is from lhs and whose element is from rhs at the first difference
+     */
+    static SequenceScan equalElements(Iterator<?> lhs, Iterator<?> rhs)
+    {
+        SequenceScan scan = new SequenceScan();
+        while (true)
+        {
+            boolean lhsHasNext = lhs.hasNext();
+            boolean rhsHasNext = rhs.hasNext();
+            if (!lhsHasNext && !rhsHasNext)
+            {
+                return scan;
+            }
+            Object lhsValue = lhsHasNext ? lhs.next() : null;
+            Object rhsValue = rhsHasNext ? rhs.next() : null;
+            if (lhsHasNext != rhsHasNext || !Objects.deepEquals(lhsValue, rhsValue))
+            {
+                scan.lhsEnded = !lhsHasNext;
+                scan.rhsEnded = !rhsHasNext;
+                scan.previous = lhsValue;
+                scan.violate(rhsValue);
+                return scan;
+            }
+            scan.count++;
+        }
+    }
+
+    private void violate(Object value)
+    {
+        index = count;
+        element = value;
+    }
+
+    boolean passed()
+    {
+        return index < 0;
+    }
+
+    /**
+     * Get the number of elements scanned before the first violation, or in the whole sequence if there was none.
+     *
+     * @return the number of elements that passed
+     */
+    long getCount()
+    {
+        return count;
+    }
+
+    long getIndex()
+    {
+        return index;
+    }
+
+    Object getPrevious()
+    {
+        return previous;
+    }
+
+    Object getElement()
+    {
+        return element;
+    }
+
+    /**
+     * Get the direction of a monotonic sequence.
+     *
+     * @return 1 if increasing, -1 if decreasing, or 0 if every element was equal
+     */
+    int getDirection()
+    {
+        return direction;
+    }
+
+    boolean isLhsEnded()
+    {
+        return lhsEnded;
+    }
+
+    boolean isRhsEnded()
+    {
+        return rhsEnded;
+    }
+}
@@ -0,0 +1,297 @@
+package com.johnuckele.vtest;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the slowest assertions of each scope, timing how long each sampled assertion spends comparing its operands and
+ * how long it spends rendering its line. Each thread keeps its own detector, so sampling and recording take no locks
+ * that another thread contends for. A detector totals the costs of the current scope's call sites, which are told
+ * apart by their messages, and describes the slowest of them when its thread leaves the scope.
+ *
+ * Only the assertions that a detector samples are timed, one in every sampling interval assertions on each thread. A
+ * sampled assertion always renders its line, even when nothing is printed, so that its message and rendering cost are
+ * known. The rest keep their lazy rendering, so with the default interval the report adds little to a run.
+ *
+ * The detectors are also listed for the report printed as the JVM exits, but only weakly, so that the detector of a
+ * thread that has ended is collected with the thread.
+ *
+ * @author John Uckele
+ */
+final class SlowAssertions
+{
+    /**
+     * The default time that the slowest call at a call site must take for the call site to be reported.
+     */
+    static final long DEFAULT_THRESHOLD_MILLIS = 1L;
+
+    /**
+     * The default number of assertions on each thread for each one sampled.
+     */
+    static final int DEFAULT_SAMPLING = 64;
+
+    private static final int MAX_CALL_SITES = 1024;
+
+    private static final ThreadLocal<SlowAssertions>                          detectors = ThreadLocal.withInitial(
+            SlowAssertions::register);
+    private static final ConcurrentLinkedQueue<WeakReference<SlowAssertions>> all       = new ConcurrentLinkedQueue<
+            WeakReference<SlowAssertions>>();
+
+    private static volatile int  top       = Integer.getInteger("vtest.slow", 0);
+    private static volatile long threshold = TimeUnit.MILLISECONDS.toNanos(Long.getLong("vtest.slow.threshold",
+            DEFAULT_THRESHOLD_MILLIS));
+    private static volatile int  interval  = Integer.getInteger("vtest.slow.sampling", DEFAULT_SAMPLING);
+
+    private final Map<String, CallSite> callSites = new HashMap<String, CallSite>();
+    private Scope                       scope     = Scope.NONE;
+    private int                         countdown;
+    private boolean                     sampling;
+
+    private SlowAssertions()
+    {
+    }
+
+    private static SlowAssertions register()
+    {
+        SlowAssertions detector = new SlowAssertions();
+        all.removeIf(reference -> reference.get() == null);
+        all.add(new WeakReference<SlowAssertions>(detector));
+        return detector;
+    }
+
+    /**
+     * Count the detectors listed for the exit report whose threads may still be running.
+     *
+     * @return the number of detectors not yet collected
+     */
+    static int countDetectors()
+    {
+        all.removeIf(reference -> reference.get() == null);
+        return all.size();
+    }
+
+    /**
+     * Set how many call sites are reported for each scope, and how slow they must be.
+     *
+     * @param newTop
+     *            the number of call sites reported per scope, or 0 to stop timing assertions
+     * @param newThreshold
+     *            the time that the slowest call at a call site must take for the call site to be reported
+     * @param unit
+     *            the unit of the threshold
+     */
+    static void setReport(int newTop, long newThreshold, TimeUnit unit)
+    {
+        if (newTop < 0 || newThreshold < 0)
+        {
+            throw new IllegalArgumentException("slow assertions need a top and threshold of at least 0");
+        }
+        threshold = unit.toNanos(newThreshold);
+        top = newTop;
+    }
+
+    /**
+     * Set how often assertions are sampled.
+     *
+     * @param newInterval
+     *            the number of assertions on each thread for each one sampled, at least 1
+     */
+    static void setSampling(int newInterval)
+    {
+        if (newInterval < 1)
+        {
+            throw new IllegalArgumentException("the sampling interval must be at least 1: " + newInterval);
+        }
+        interval = newInterval;
+    }
+
+    static int getTop()
+    {
+        return top;
+    }
+
+    static long getThreshold()
+    {
+        return threshold;
+    }
+
+    static int getSampling()
+    {
+        return interval;
+    }
+
+    static boolean isEnabled()
+    {
+        return top > 0;
+    }
+
+    /**
+     * Decide whether to time the assertion starting on the current thread.
+     *
+     * @return true if the assertion is sampled
+     */
+    static boolean sample()
+    {
+        if (top == 0)
+        {
+            return false;
+        }
+        SlowAssertions detector = detectors.get();
+        int localInterval = interval;
+        // Capped by the interval, so that a countdown begun under a longer interval does not outlast a shorter one
+        int remaining = Math.min(detector.countdown, localInterval) - 1;
+        detector.sampling = remaining <= 0;
+        detector.countdown = detector.sampling ? localInterval : remaining;
+        return detector.sampling;
+    }
+
+    /**
+     * Check if the assertion running on the current thread is sampled, and so must render its line.
+     *
+     * @return true if the assertion is sampled
+     */
+    static boolean isSampling()
+    {
+        return top > 0 && detectors.get().sampling;
+    }
+
+    /**
+     * Record the costs of an assertion on the current thread.
+     *
+     * @param scope
+     *            the scope the assertion was called from
+     * @param message
+     *            the assertion's message
+     * @param comparison
+     *            the time taken to evaluate the assertion
+     * @param rendering
+     *            the time taken to render its line
+     * @return the report of the scope the thread has left, or null if it is still in the same scope or nothing in the
+     *         scope it left was slow
+     */
+    static CharSequence record(Scope scope, String message, long comparison, long rendering)
+    {
+        return detectors.get().add(scope, message, comparison, rendering);
+    }
+
+    /**
+     * End the current thread's scope, as when a JUnit integration reports that its test has finished.
+     *
+     * @return the report of the scope, or null if nothing in it was slow
+     */
+    static CharSequence endScope()
+    {
+        return top > 0 ? detectors.get().end(Scope.NONE) : null;
+    }
+
+    /**
+     * End the scope of every thread, for the summary printed as the JVM exits.
+     *
+     * @return the reports of the scopes that had slow call sites
+     */
+    static List<CharSequence> endAll()
+    {
+        List<CharSequence> reports = new ArrayList<CharSequence>();
+        for (WeakReference<SlowAssertions> reference : all)
+        {
+            SlowAssertions detector = reference.get();
+            CharSequence report = detector == null ? null : detector.end(Scope.NONE);
+            if (report != null)
+            {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    private synchronized CharSequence add(Scope newScope, String message, long comparison, long rendering)
+    {
+        sampling = false;
+        CharSequence report = newScope == scope ? null : end(newScope);
+        CallSite callSite = callSites.get(message);
+        if (callSite == null)
+        {
+            if (callSites.size() >= MAX_CALL_SITES)
+            {
+                return report;
+            }
+            callSite = new CallSite(message);
+            callSites.put(message, callSite);
+        }
+        callSite.add(comparison, rendering);
+        return report;
+    }
+
+    /**
+     * Describe the slowest call sites of the current scope, and move on to another.
+     */
+    private synchronized CharSequence end(Scope newScope)
+    {
+        Scope endedScope = scope;
+        scope = newScope;
+        if (callSites.isEmpty())
+        {
+            return null;
+        }
+        List<CallSite> slowest = new ArrayList<CallSite>();
+        long localThreshold = threshold;
+        for (CallSite callSite : callSites.values())
+        {
+            if (callSite.slowest >= localThreshold)
+            {
+                slowest.add(callSite);
+            }
+        }
+        callSites.clear();
+        if (slowest.isEmpty())
+        {
+            return null;
+        }
+        slowest.sort((lhs, rhs) -> Long.compare(rhs.comparison + rhs.rendering, lhs.comparison + lhs.rendering));
+        StringBuilder report = new StringBuilder("\tslowest assertions in ").append(endedScope).append(':');
+        for (CallSite callSite : slowest.subList(0, Math.min(top, slowest.size())))
+        {
+            report.append(System.lineSeparator()).append("\t\t").append(callSite);
+        }
+        return report;
+    }
+
+    /**
+     * The costs of the sampled assertions with one message in one scope.
+     */
+    private static final class CallSite
+    {
+        private final String message;
+        private long         calls;
+        private long         comparison;
+        private long         rendering;
+        private long         slowest;
+
+        CallSite(String message)
+        {
+            this.message = message;
+        }
+
+        void add(long callComparison, long callRendering)
+        {
+            calls++;
+            comparison += callComparison;
+            rendering += callRendering;
+            slowest = Math.max(slowest, callComparison + callRendering);
+        }
+
+        @Override
+        public String toString()
+        {
+            return message + ": " + calls + (calls == 1 ? " call" : " calls") + ", "
+                    + TimingStatistics.format(comparison + rendering) + " (comparison "
+                    + TimingStatistics.format(comparison) + ", rendering " + TimingStatistics.format(rendering)
+                    + "), slowest " + TimingStatistics.format(slowest);
+        }
+    }
+}
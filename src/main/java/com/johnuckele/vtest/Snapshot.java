@@ -0,0 +1,526 @@
+package com.johnuckele.vtest;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * The outcome of comparing an output against a snapshot file. Alongside each snapshot file is a digest file, with the
+ * same name followed by .sha256, holding the SHA-256 digest and size of the snapshot. A comparison first streams the
+ * output into a digest, and if it matches the stored digest, the snapshot file is never read. Only when the digests
+ * differ, or the digest file is missing or older than the snapshot, is the output streamed again and compared byte by
+ * byte against the snapshot, which is memory-mapped a window at a time, to find the first difference. Neither side is
+ * ever held in memory as a whole, and each window is unmapped as soon as the comparison moves past it.
+ *
+ * In update mode, the output is written to the snapshot file and its digest file instead of being compared. The
+ * output is written to a temporary file that replaces the snapshot once it is complete, so a failed update leaves the
+ * old snapshot as it was. Update
+ * mode is off unless the system property vtest.snapshot.update is set to true.
+ *
+ * @author John Uckele
+ */
+final class Snapshot
+{
+    /**
+     * The ways a comparison against a snapshot can end.
+     */
+    enum Outcome
+    {
+        MATCHED, UPDATED, MISSING, DIFFERENT
+    }
+
+    private static final String DIGEST_SUFFIX = ".sha256";
+    private static final int    WINDOW_SIZE   = 64 * 1024 * 1024;
+    private static final int    CONTEXT       = 60;
+    private static final int    CHUNK_CHARS   = 8192;
+
+    private static volatile boolean update = Boolean.getBoolean("vtest.snapshot.update");
+
+    private final Outcome outcome;
+    private final long    size;
+    private final String  digest;
+    private final long    offset;
+    private final long    line;
+    private final String  expected;
+    private final String  actual;
+
+    private Snapshot(Outcome outcome, long size, String digest, long offset, long line, String expected,
+            String actual)
+    {
+        this.outcome = outcome;
+        this.size = size;
+        this.digest = digest;
+        this.offset = offset;
+        this.line = line;
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    static boolean isUpdate()
+    {
+        return update;
+    }
+
+    static void setUpdate(boolean newUpdate)
+    {
+        update = newUpdate;
+    }
+
+    /**
+     * Compare an output against a snapshot file, or write it to the file in update mode.
+     *
+     * @param file
+     *            the snapshot file
+     * @param source
+     *            the source of the output
+     * @return the outcome of the comparison
+     * @throws IOException
+     *             if the output or the snapshot cannot be read or written
+     */
+    static Snapshot check(File file, SnapshotSource source) throws IOException
+    {
+        if (update)
+        {
+            return write(file, source);
+        }
+        if (!file.isFile())
+        {
+            return new Snapshot(Outcome.MISSING, 0L, null, -1L, 0L, null, null);
+        }
+        String stored = storedDigest(file);
+        if (stored != null)
+        {
+            DigestStream digestStream = new DigestStream(null);
+            source.writeTo(digestStream);
+            String digest = digestStream.hex();
+            if (digest.equals(stored))
+            {
+                return new Snapshot(Outcome.MATCHED, digestStream.count, digest, -1L, 0L, null, null);
+            }
+        }
+        return compare(file, source);
+    }
+
+    /**
+     * Make a source that writes a CharSequence as UTF-8, a chunk at a time, so that it is never copied as a whole.
+     *
+     * @param chars
+     *            the characters to write
+     * @return the source
+     */
+    static SnapshotSource of(CharSequence chars)
+    {
+        return out ->
+        {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            int length = chars.length();
+            int from = 0;
+            while (from < length)
+            {
+                int to = Math.min(length, from + CHUNK_CHARS);
+                // Keep surrogate pairs within one chunk, so the writer never sees half of one
+                if (to < length && Character.isHighSurrogate(chars.charAt(to - 1)))
+                {
+                    to++;
+                }
+                writer.append(chars, from, to);
+                from = to;
+            }
+            writer.flush();
+        };
+    }
+
+    Outcome getOutcome()
+    {
+        return outcome;
+    }
+
+    boolean isPassed()
+    {
+        return outcome == Outcome.MATCHED || outcome == Outcome.UPDATED;
+    }
+
+    /**
+     * Get the size of the output, if it matched or was written.
+     *
+     * @return the size in bytes
+     */
+    long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Get the SHA-256 digest of the output, if it matched or was written.
+     *
+     * @return the digest in hexadecimal
+     */
+    String getDigest()
+    {
+        return digest;
+    }
+
+    /**
+     * Get the byte offset of the first difference between the output and the snapshot.
+     *
+     * @return the offset, which is the size of the shorter side if one is a prefix of the other
+     */
+    long getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Get the line of the first difference, counting from 1.
+     *
+     * @return the line number
+     */
+    long getLine()
+    {
+        return line;
+    }
+
+    /**
+     * Get the snapshot's text around the first difference, up to CONTEXT bytes either side within its line.
+     *
+     * @return the snapshot's text
+     */
+    String getExpected()
+    {
+        return expected;
+    }
+
+    /**
+     * Get the output's text around the first difference, up to CONTEXT bytes either side within its line.
+     *
+     * @return the output's text
+     */
+    String getActual()
+    {
+        return actual;
+    }
+
+    private static Snapshot write(File file, SnapshotSource source) throws IOException
+    {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+        {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        // Written beside the snapshot and moved over it, so that a source that fails partway leaves the old snapshot
+        File temporary = File.createTempFile(file.getName(), ".tmp", directory);
+        DigestStream digestStream;
+        try
+        {
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporary), 64 * 1024))
+            {
+                digestStream = new DigestStream(out);
+                source.writeTo(digestStream);
+            }
+            try
+            {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary.toPath());
+        }
+        String digest = digestStream.hex();
+        // The digest file is written last, so that it is never older than the snapshot it describes
+        Files.write(digestFile(file).toPath(), (digest + " " + digestStream.count + "\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        return new Snapshot(Outcome.UPDATED, digestStream.count, digest, -1L, 0L, null, null);
+    }
+
+    private static File digestFile(File file)
+    {
+        return new File(file.getPath() + DIGEST_SUFFIX);
+    }
+
+    /**
+     * Read the stored digest of a snapshot, if it can be trusted: it must be no older than the snapshot, and record the
+     * snapshot's size.
+     *
+     * @return the digest in hexadecimal, or null if there is no trustworthy digest
+     */
+    private static String storedDigest(File file) throws IOException
+    {
+        File digestFile = digestFile(file);
+        if (!digestFile.isFile() || digestFile.lastModified() < file.lastModified())
+        {
+            return null;
+        }
+        String[] fields = new String(Files.readAllBytes(digestFile.toPath()), StandardCharsets.US_ASCII).trim()
+                .split(" ");
+        if (fields.length != 2 || !fields[1].equals(Long.toString(file.length())))
+        {
+            return null;
+        }
+        return fields[0];
+    }
+
+    private static Snapshot compare(File file, SnapshotSource source) throws IOException
+    {
+        try (RandomAccessFile snapshot = new RandomAccessFile(file, "r"))
+        {
+            CompareStream compareStream = new CompareStream(snapshot.getChannel());
+            try
+            {
+                source.writeTo(compareStream);
+            }
+            catch (Finished e)
+            {
+                // The difference and the output's text after it have been found
+            }
+            finally
+            {
+                compareStream.unmap();
+            }
+            return compareStream.finish();
+        }
+    }
+
+    private static MessageDigest sha256()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = Character.forDigit((bytes[i] >> 4) & 0xf, 16);
+            chars[i * 2 + 1] = Character.forDigit(bytes[i] & 0xf, 16);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Thrown into a source to stop it writing once a comparison has all it needs. It has no stack trace, since it is
+     * always caught.
+     */
+    private static final class Finished extends IOException
+    {
+        private static final long serialVersionUID = 1L;
+
+        Finished()
+        {
+            super("The snapshot comparison is finished", null);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace()
+        {
+            return this;
+        }
+    }
+
+    /**
+     * Digests the bytes written to it, and optionally passes them on to another stream.
+     */
+    private static final class DigestStream extends OutputStream
+    {
+        private final MessageDigest digest = sha256();
+        private final OutputStream  out;
+        private long                count;
+
+        DigestStream(OutputStream out)
+        {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            digest.update((byte) b);
+            count++;
+            if (out != null)
+            {
+                out.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException
+        {
+            digest.update(bytes, offset, length);
+            count += length;
+            if (out != null)
+            {
+                out.write(bytes, offset, length);
+            }
+        }
+
+        String hex()
+        {
+            return Snapshot.hex(digest.digest());
+        }
+    }
+
+    /**
+     * Compares the bytes written to it against a snapshot file, mapping the file a window at a time, and records the
+     * first difference with enough of the output after it to show the rest of its line.
+     */
+    private static final class CompareStream extends OutputStream
+    {
+        private final FileChannel   channel;
+        private final long          snapshotSize;
+        private final MessageDigest digest     = sha256();
+        private final byte[]        tail       = new byte[CONTEXT];
+        private MappedByteBuffer    window;
+        private long                windowStart;
+        private long                offset;
+        private long                line       = 1L;
+        private long                lineStart;
+        private long                difference = -1L;
+        private int                 tailLength;
+
+        CompareStream(FileChannel channel) throws IOException
+        {
+            this.channel = channel;
+            this.snapshotSize = channel.size();
+        }
+
+        @Override
+        public void write(int b) throws IOException
+        {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int from, int length) throws IOException
+        {
+            if (difference >= 0)
+            {
+                collectTail(bytes, from, from + length);
+                return;
+            }
+            int end = from + length;
+            for (int i = from; i < end; i++)
+            {
+                if (offset >= snapshotSize || bytes[i] != snapshotByte(offset))
+                {
+                    digest.update(bytes, from, i - from);
+                    difference = offset;
+                    collectTail(bytes, i, end);
+                    return;
+                }
+                if (bytes[i] == '\n')
+                {
+                    line++;
+                    lineStart = offset + 1;
+                }
+                offset++;
+            }
+            digest.update(bytes, from, length);
+        }
+
+        private byte snapshotByte(long position) throws IOException
+        {
+            if (window == null || position >= windowStart + window.capacity())
+            {
+                unmap();
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_SIZE, snapshotSize - position));
+            }
+            return window.get((int) (position - windowStart));
+        }
+
+        /**
+         * Unmap the current window now rather than when it is collected, so that the snapshot file can be replaced
+         * straight away and a large snapshot does not hold its address space.
+         */
+        void unmap()
+        {
+            if (window != null)
+            {
+                MappedFileSink.unmap(window);
+                window = null;
+            }
+        }
+
+        /**
+         * Keep the output's bytes after the difference, up to the end of the line or CONTEXT bytes, and stop the source
+         * once there are enough.
+         */
+        private void collectTail(byte[] bytes, int from, int to) throws IOException
+        {
+            for (int i = from; i < to; i++)
+            {
+                if (bytes[i] == '\n' || tailLength == CONTEXT)
+                {
+                    throw new Finished();
+                }
+                tail[tailLength++] = bytes[i];
+            }
+        }
+
+        Snapshot finish() throws IOException
+        {
+            if (difference < 0 && offset == snapshotSize)
+            {
+                return new Snapshot(Outcome.MATCHED, offset, hex(digest.digest()), -1L, 0L, null, null);
+            }
+            if (difference < 0)
+            {
+                // The output ended before the snapshot did
+                difference = offset;
+            }
+            // Both sides match up to the difference, so the text before it is read from the snapshot for both
+            long contextStart = Math.max(lineStart, difference - CONTEXT);
+            byte[] before = read(contextStart, (int) (difference - contextStart));
+            byte[] after = read(difference, (int) Math.min(CONTEXT, snapshotSize - difference));
+            int afterLength = 0;
+            while (afterLength < after.length && after[afterLength] != '\n')
+            {
+                afterLength++;
+            }
+            String prefix = contextStart > lineStart ? "…" : "";
+            String common = new String(before, StandardCharsets.UTF_8);
+            String expected = prefix + common + new String(after, 0, afterLength, StandardCharsets.UTF_8);
+            String actual = prefix + common + new String(tail, 0, tailLength, StandardCharsets.UTF_8);
+            return new Snapshot(Outcome.DIFFERENT, 0L, null, difference, line, expected, actual);
+        }
+
+        private byte[] read(long position, int length) throws IOException
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0)
+            {
+                // Keep reading until the buffer is full or the file ends
+            }
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+}
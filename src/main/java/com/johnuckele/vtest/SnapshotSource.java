@@ -0,0 +1,27 @@
+package com.johnuckele.vtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the output that a snapshot assertion compares against a snapshot file, so that large outputs can be streamed
+ * rather than built in memory. The source may be asked to write its output more than once, and must write the same
+ * bytes each time.
+ *
+ * @author John Uckele
+ * @see Tester#matchesSnapshot(String, SnapshotSource, java.io.File)
+ */
+@FunctionalInterface
+public interface SnapshotSource
+{
+    /**
+     * Write the output to a stream. The stream must not be closed. Writing may be stopped early by an IOException from
+     * the stream once the comparison has found what it needs, which must be passed on.
+     *
+     * @param out
+     *            the stream to write to
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    void writeTo(OutputStream out) throws IOException;
+}
@@ -0,0 +1,176 @@
+package com.johnuckele.vtest;
+
+/**
+ * A batch of soft assertions on one thread. While a batch is open, failing Tester assertions on that thread are
+ * printed as usual but recorded instead of thrown, and closing the batch throws a single AssertionError describing
+ * every recorded failure. This lets an expensive fixture be validated completely in one run.
+ *
+ * <pre>
+ * Tester.softly(() -&gt;
+ * {
+ *     Tester.equal("population", world.getPopulation(), 100);
+ *     Tester.lessThan("energy", world.getEnergy(), 1000.0, 0.1);
+ * });
+ * </pre>
+ *
+ * A batch can also be opened with Tester.softAssertions() and closed with try-with-resources, when the test needs the
+ * batch itself, for instance to read its failure count. A batch still open when Tester is told that a test has ended
+ * is discarded, and its failures are reported then.
+ *
+ * Batches may be nested; a failure is recorded in the innermost open batch, and nested batches must be closed before
+ * the batches enclosing them. A nested batch with failures does not throw when it is closed, but records its summary
+ * as a single failure of the batch enclosing it.
+ *
+ * @author John Uckele
+ */
+public final class SoftAssertions implements AutoCloseable
+{
+    /**
+     * The number of failures a batch has room for before it has to grow.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final ThreadLocal<SoftAssertions> current = new ThreadLocal<SoftAssertions>();
+
+    private final SoftAssertions enclosing;
+    private String[]             failures;
+    private int                  failureCount = 0;
+    private boolean              closed       = false;
+
+    private SoftAssertions(SoftAssertions enclosing, int capacity)
+    {
+        this.enclosing = enclosing;
+        this.failures = new String[Math.max(1, capacity)];
+    }
+
+    /**
+     * Open a new batch on the current thread.
+     *
+     * @param capacity
+     *            the number of failures to presize the batch for
+     * @return the new batch
+     */
+    static SoftAssertions open(int capacity)
+    {
+        SoftAssertions batch = new SoftAssertions(current.get(), capacity);
+        current.set(batch);
+        return batch;
+    }
+
+    /**
+     * Get the innermost open batch on the current thread.
+     *
+     * @return the open batch, or null if assertions should throw immediately
+     */
+    static SoftAssertions current()
+    {
+        return current.get();
+    }
+
+    /**
+     * Record a failed assertion.
+     *
+     * @param line
+     *            the rendered assertion line
+     */
+    void recordFailure(CharSequence line)
+    {
+        if (failureCount == failures.length)
+        {
+            String[] grown = new String[failures.length * 2];
+            System.arraycopy(failures, 0, grown, 0, failureCount);
+            failures = grown;
+        }
+        failures[failureCount++] = line.toString().trim();
+    }
+
+    /**
+     * Get the number of failures recorded so far.
+     *
+     * @return the number of failures
+     */
+    public int getFailureCount()
+    {
+        return failureCount;
+    }
+
+    /**
+     * Close the batch and throw an AssertionError if any assertion in it failed, or record the failures in the
+     * enclosing batch if there is one. Closing a batch more than once has no effect.
+     */
+    @Override
+    public void close()
+    {
+        if (closed)
+        {
+            return;
+        }
+        if (current.get() != this)
+        {
+            throw new IllegalStateException("Soft assertions must be closed by the thread that opened them, after any "
+                    + "nested batches");
+        }
+        closed = true;
+        if (enclosing != null)
+        {
+            current.set(enclosing);
+        }
+        else
+        {
+            current.remove();
+        }
+        if (failureCount > 0)
+        {
+            StringBuilder message = summary(new StringBuilder());
+            if (enclosing != null)
+            {
+                // Indented once more, so that the nested failures read as part of this entry of the enclosing batch
+                enclosing.recordFailure(message.toString().replace(System.lineSeparator(), System.lineSeparator()
+                        + '\t'));
+                return;
+            }
+            Tester.flush();
+            throw new AssertionError(message.toString());
+        }
+    }
+
+    /**
+     * Discard every batch still open on the current thread, such as a batch that an exception skipped the closing of.
+     *
+     * @return a description of the batches discarded and the failures they recorded, or null if no batch was open
+     */
+    static String discardOpen()
+    {
+        SoftAssertions batch = current.get();
+        if (batch == null)
+        {
+            return null;
+        }
+        current.remove();
+        int batches = 0;
+        StringBuilder message = new StringBuilder();
+        // From the innermost batch out, so that failures appear under the batch that recorded them
+        for (; batch != null; batch = batch.enclosing)
+        {
+            batch.closed = true;
+            batches++;
+            if (batch.failureCount > 0)
+            {
+                batch.summary(message.append(System.lineSeparator()));
+            }
+        }
+        return batches + (batches == 1 ? " soft assertion batch was" : " soft assertion batches were")
+                + " left open" + (message.length() > 0 ? ":" : "") + message;
+    }
+
+    private StringBuilder summary(StringBuilder message)
+    {
+        message.append(failureCount).append(failureCount == 1 ? " soft assertion" : " soft assertions")
+                .append(" failed:");
+        for (int i = 0; i < failureCount; i++)
+        {
+            message.append(System.lineSeparator()).append('\t').append(failures[i]);
+        }
+        return message;
+    }
+}
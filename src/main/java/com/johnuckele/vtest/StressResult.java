@@ -0,0 +1,363 @@
+package com.johnuckele.vtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The outcome of a stress run: each thread's result or exception, and the run's throughput and contention. Throughput
+ * counts every iteration of every thread as one operation. Contention is the number of times the threads blocked on a
+ * monitor or waited, as counted by the JVM; it is only available for platform threads, as virtual threads have no
+ * ThreadInfo.
+ *
+ * @author John Uckele
+ * @param <T>
+ *            the type of each thread's result
+ * @see Tester#stress(String, int, int, StressTask)
+ */
+public final class StressResult<T>
+{
+    /**
+     * Creates the platform threads used by stress runs that are not given a ThreadFactory. The threads are daemons, so
+     * a run that never finishes cannot keep the JVM alive.
+     */
+    static final ThreadFactory DAEMON_THREADS = runnable ->
+    {
+        Thread thread = new Thread(runnable, "vtest-stress");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /**
+     * The longest time a run waits for all of its threads to reach the barrier.
+     */
+    static final long READY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30L);
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final int         iterations;
+    private final List<T>     results;
+    private final Throwable[] exceptions;
+    private final long[]      threadNanos;
+    private final long        elapsedNanos;
+    private final long        blocked;
+    private final long        waited;
+
+    private StressResult(int iterations, List<T> results, Throwable[] exceptions, long[] threadNanos,
+            long elapsedNanos, long blocked, long waited)
+    {
+        this.iterations = iterations;
+        this.results = results;
+        this.exceptions = exceptions;
+        this.threadNanos = threadNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.blocked = blocked;
+        this.waited = waited;
+    }
+
+    /**
+     * Run a task on a number of threads at once. Each thread is started and waits at a barrier until every thread is
+     * ready, so that the tasks start together rather than as fast as threads can be created.
+     *
+     * @param threads
+     *            the number of threads to run the task on
+     * @param factory
+     *            the factory that creates the threads
+     * @param iterations
+     *            the number of operations each thread should perform
+     * @param task
+     *            the task to run
+     * @return the outcome of the run
+     * @throws IllegalStateException
+     *             if the factory fails to create a thread, or the threads do not all reach the barrier within
+     *             READY_TIMEOUT_NANOS
+     */
+    static <T> StressResult<T> run(int threads, ThreadFactory factory, int iterations, StressTask<T> task)
+    {
+        return run(threads, factory, iterations, task, READY_TIMEOUT_NANOS);
+    }
+
+    /**
+     * Run a task on a number of threads at once, waiting a given time for the threads to reach the barrier. If thread
+     * creation fails or the wait times out, the threads already waiting are released without running the task.
+     *
+     * @param readyTimeoutNanos
+     *            the longest time to wait for all of the threads to reach the barrier
+     */
+    static <T> StressResult<T> run(int threads, ThreadFactory factory, int iterations, StressTask<T> task,
+            long readyTimeoutNanos)
+    {
+        if (threads < 1 || iterations < 0)
+        {
+            throw new IllegalArgumentException("a stress run needs at least 1 thread and 0 iterations");
+        }
+        if (factory == null || task == null)
+        {
+            throw new IllegalArgumentException("factory and task must not be null");
+        }
+        Object[] results = new Object[threads];
+        Throwable[] exceptions = new Throwable[threads];
+        long[] threadNanos = new long[threads];
+        long[] blocked = new long[threads];
+        long[] waited = new long[threads];
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicBoolean aborted = new AtomicBoolean();
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++)
+        {
+            int thread = i;
+            Runnable worker = () ->
+            {
+                ready.countDown();
+                try
+                {
+                    go.await();
+                }
+                catch (InterruptedException e)
+                {
+                    exceptions[thread] = e;
+                    return;
+                }
+                if (aborted.get())
+                {
+                    return;
+                }
+                // Read contention counts after the barrier, which waiting at would otherwise count
+                ThreadInfo before = threadBean.getThreadInfo(Thread.currentThread().getId());
+                long start = System.nanoTime();
+                try
+                {
+                    results[thread] = task.run(thread, iterations);
+                }
+                catch (Throwable t)
+                {
+                    exceptions[thread] = t;
+                }
+                threadNanos[thread] = System.nanoTime() - start;
+                ThreadInfo after = threadBean.getThreadInfo(Thread.currentThread().getId());
+                boolean counted = before != null && after != null;
+                blocked[thread] = counted ? after.getBlockedCount() - before.getBlockedCount() : -1L;
+                waited[thread] = counted ? after.getWaitedCount() - before.getWaitedCount() : -1L;
+            };
+            try
+            {
+                workers[i] = factory.newThread(worker);
+                if (workers[i] == null)
+                {
+                    throw new IllegalStateException("The thread factory returned no thread for thread " + i);
+                }
+                workers[i].start();
+            }
+            catch (RuntimeException | Error e)
+            {
+                abort(aborted, go);
+                throw e instanceof IllegalStateException ? (IllegalStateException) e : new IllegalStateException(
+                        "The thread factory failed to create thread " + i, e);
+            }
+        }
+        long elapsed;
+        try
+        {
+            if (!ready.await(readyTimeoutNanos, TimeUnit.NANOSECONDS))
+            {
+                abort(aborted, go);
+                throw new IllegalStateException((threads - ready.getCount()) + " of " + threads
+                        + " threads reached the barrier within " + TimingStatistics.format(readyTimeoutNanos)
+                        + "; the thread factory may not run the threads it creates");
+            }
+            long start = System.nanoTime();
+            go.countDown();
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+            elapsed = System.nanoTime() - start;
+        }
+        catch (InterruptedException e)
+        {
+            abort(aborted, go);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the stress run to finish", e);
+        }
+        @SuppressWarnings("unchecked")
+        List<T> resultList = (List<T>) Collections.unmodifiableList(Arrays.asList(results));
+        return new StressResult<T>(iterations, resultList, exceptions, threadNanos, elapsed, sum(blocked),
+                sum(waited));
+    }
+
+    /**
+     * Release the threads waiting at the barrier without running the task, so that none of them waits forever.
+     */
+    private static void abort(AtomicBoolean aborted, CountDownLatch go)
+    {
+        aborted.set(true);
+        go.countDown();
+    }
+
+    private static long sum(long[] counts)
+    {
+        long total = 0;
+        for (long count : counts)
+        {
+            if (count < 0)
+            {
+                return -1L;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of threads in the run.
+     *
+     * @return the number of threads
+     */
+    public int getThreads()
+    {
+        return results.size();
+    }
+
+    /**
+     * Get the number of operations each thread performed.
+     *
+     * @return the iterations per thread
+     */
+    public int getIterations()
+    {
+        return iterations;
+    }
+
+    /**
+     * Get the number of operations performed by all the threads together.
+     *
+     * @return the threads times the iterations per thread
+     */
+    public long getOperations()
+    {
+        return (long) iterations * results.size();
+    }
+
+    /**
+     * Get each thread's result, in the order of the threads' indices. Threads that threw have a null result.
+     *
+     * @return the results
+     */
+    public List<T> getResults()
+    {
+        return results;
+    }
+
+    /**
+     * Get the exceptions thrown by the threads that failed, in the order of the threads' indices.
+     *
+     * @return the exceptions, which is empty if every thread succeeded
+     */
+    public List<Throwable> getExceptions()
+    {
+        List<Throwable> thrown = new ArrayList<Throwable>();
+        for (Throwable exception : exceptions)
+        {
+            if (exception != null)
+            {
+                thrown.add(exception);
+            }
+        }
+        return thrown;
+    }
+
+    /**
+     * Get the time from releasing the threads until the last of them finished.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos()
+    {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the number of operations performed per second by all the threads together.
+     *
+     * @return the throughput in operations per second
+     */
+    public double getThroughput()
+    {
+        return rate(getOperations(), elapsedNanos);
+    }
+
+    /**
+     * Get the number of times the threads blocked waiting to enter a monitor.
+     *
+     * @return the number of times, or -1 if the threads' contention could not be counted
+     */
+    public long getBlockedCount()
+    {
+        return blocked;
+    }
+
+    /**
+     * Get the number of times the threads waited or parked, as lock implementations in java.util.concurrent do.
+     *
+     * @return the number of times, or -1 if the threads' contention could not be counted
+     */
+    public long getWaitedCount()
+    {
+        return waited;
+    }
+
+    @Override
+    public String toString()
+    {
+        double slowest = Double.MAX_VALUE;
+        double fastest = 0.0;
+        for (long nanos : threadNanos)
+        {
+            double rate = rate(iterations, nanos);
+            slowest = Math.min(slowest, rate);
+            fastest = Math.max(fastest, rate);
+        }
+        StringBuilder description = new StringBuilder();
+        description.append(iterations).append(" iterations each in ").append(TimingStatistics.format(elapsedNanos));
+        description.append("; ").append(formatRate(getThroughput())).append(" ops/s, ").append(formatRate(slowest))
+                .append(" to ").append(formatRate(fastest)).append(" ops/s per thread");
+        if (blocked >= 0)
+        {
+            description.append("; blocked ").append(blocked).append(" times, waited ").append(waited)
+                    .append(" times");
+        }
+        return description.toString();
+    }
+
+    private static double rate(long operations, long nanos)
+    {
+        return operations * 1e9 / Math.max(1L, nanos);
+    }
+
+    private static String formatRate(double rate)
+    {
+        if (rate < 999.5)
+        {
+            return String.format(Locale.ROOT, "%.3g", rate);
+        }
+        if (rate < 999.5e3)
+        {
+            return String.format(Locale.ROOT, "%.3gK", rate / 1e3);
+        }
+        if (rate < 999.5e6)
+        {
+            return String.format(Locale.ROOT, "%.3gM", rate / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.3gG", rate / 1e9);
+    }
+}
@@ -0,0 +1,27 @@
+package com.johnuckele.vtest;
+
+/**
+ * The work done by each thread of a stress run. Every thread calls the task once, after all the threads have started,
+ * so that they hammer the code under test at the same time.
+ *
+ * @author John Uckele
+ * @param <T>
+ *            the type of each thread's result
+ * @see Tester#stress(String, int, int, StressTask)
+ */
+@FunctionalInterface
+public interface StressTask<T>
+{
+    /**
+     * Do one thread's share of a stress run.
+     *
+     * @param thread
+     *            the index of the calling thread in the run, from 0
+     * @param iterations
+     *            the number of operations the thread should perform
+     * @return the thread's result, which is kept for checking once every thread has finished
+     * @throws Exception
+     *             if the thread fails, which fails the run
+     */
+    T run(int thread, int iterations) throws Exception;
+}
@@ -0,0 +1,183 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Times tasks for Tester's timing assertions. A task is first calibrated: it is called in batches of doubling size
+ * until one batch takes at least MIN_SAMPLE_NANOS, so that the clock's resolution and the cost of reading it are small
+ * next to what is measured. Every sample after that times one batch. A number of warmup samples are taken and
+ * discarded, to give the JIT compiler a chance to compile the task, and then the measurement samples are kept. The
+ * batch keeps doubling through the warmup whenever a sample is still too short, since the first calls of a task are
+ * often much slower than the calls once it is compiled.
+ *
+ * Every result a task returns is passed to a Blackhole, so that the work producing it cannot be eliminated.
+ *
+ * @author John Uckele
+ */
+final class TaskTimer
+{
+    /**
+     * The default number of samples taken and discarded before measuring.
+     */
+    static final int DEFAULT_WARMUP_ITERATIONS = 20;
+
+    /**
+     * The default number of samples measured.
+     */
+    static final int DEFAULT_MEASUREMENT_ITERATIONS = 50;
+
+    private static final long MIN_SAMPLE_NANOS = 10_000L;
+    private static final int  MAX_BATCH_SIZE   = 1 << 24;
+
+    private static volatile int warmupIterations      = Integer.getInteger("vtest.timing.warmup",
+            DEFAULT_WARMUP_ITERATIONS);
+    private static volatile int measurementIterations = Integer.getInteger("vtest.timing.measurement",
+            DEFAULT_MEASUREMENT_ITERATIONS);
+
+    private final Callable<?> task;
+    private final Blackhole   blackhole = new Blackhole();
+    private int               batchSize = 1;
+
+    private TaskTimer(Callable<?> task)
+    {
+        if (task == null)
+        {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        this.task = task;
+    }
+
+    /**
+     * Set the number of samples taken by every timing.
+     *
+     * @param warmup
+     *            the number of samples taken and discarded before measuring
+     * @param measurement
+     *            the number of samples measured, at least 2
+     */
+    static void setIterations(int warmup, int measurement)
+    {
+        if (warmup < 0 || measurement < 2)
+        {
+            throw new IllegalArgumentException("timing needs at least 0 warmup and 2 measurement iterations");
+        }
+        warmupIterations = warmup;
+        measurementIterations = measurement;
+    }
+
+    static int getWarmupIterations()
+    {
+        return warmupIterations;
+    }
+
+    static int getMeasurementIterations()
+    {
+        return measurementIterations;
+    }
+
+    /**
+     * Time a task.
+     *
+     * @param task
+     *            the task to time
+     * @return the distribution of the time taken by one call of the task
+     */
+    static TimingStatistics measure(Callable<?> task)
+    {
+        int warmup = warmupIterations;
+        int measurement = measurementIterations;
+        TaskTimer timer = new TaskTimer(task);
+        timer.calibrate();
+        for (int i = 0; i < warmup; i++)
+        {
+            timer.warmup();
+        }
+        double[] samples = new double[measurement];
+        for (int i = 0; i < measurement; i++)
+        {
+            samples[i] = timer.sample();
+        }
+        return new TimingStatistics(samples, timer.batchSize);
+    }
+
+    /**
+     * Time two tasks for comparison. Their samples are taken alternately, so that changes in the machine's load or
+     * clock speed while they are timed affect both alike.
+     *
+     * @param lhs
+     *            the first task to time
+     * @param rhs
+     *            the second task to time
+     * @return the distributions of the time taken by one call of each task, in the order the tasks were given
+     */
+    static TimingStatistics[] compare(Callable<?> lhs, Callable<?> rhs)
+    {
+        int warmup = warmupIterations;
+        int measurement = measurementIterations;
+        TaskTimer lhsTimer = new TaskTimer(lhs);
+        TaskTimer rhsTimer = new TaskTimer(rhs);
+        lhsTimer.calibrate();
+        rhsTimer.calibrate();
+        for (int i = 0; i < warmup; i++)
+        {
+            lhsTimer.warmup();
+            rhsTimer.warmup();
+        }
+        double[] lhsSamples = new double[measurement];
+        double[] rhsSamples = new double[measurement];
+        for (int i = 0; i < measurement; i++)
+        {
+            lhsSamples[i] = lhsTimer.sample();
+            rhsSamples[i] = rhsTimer.sample();
+        }
+        return new TimingStatistics[] { new TimingStatistics(lhsSamples, lhsTimer.batchSize),
+                new TimingStatistics(rhsSamples, rhsTimer.batchSize) };
+    }
+
+    private void calibrate()
+    {
+        while (time(batchSize) < MIN_SAMPLE_NANOS && batchSize < MAX_BATCH_SIZE)
+        {
+            batchSize *= 2;
+        }
+    }
+
+    private void warmup()
+    {
+        if (time(batchSize) < MIN_SAMPLE_NANOS && batchSize < MAX_BATCH_SIZE)
+        {
+            batchSize *= 2;
+        }
+    }
+
+    /**
+     * Time one batch of calls.
+     *
+     * @return the nanoseconds taken per call
+     */
+    private double sample()
+    {
+        return (double) time(batchSize) / batchSize;
+    }
+
+    private long time(int calls)
+    {
+        try
+        {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++)
+            {
+                blackhole.consume(task.call());
+            }
+            return System.nanoTime() - start;
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            throw new IllegalStateException("The timed task threw an exception", e);
+        }
+    }
+}
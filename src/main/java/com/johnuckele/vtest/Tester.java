@@ -2,8 +2,27 @@ package com.johnuckele.vtest;
 
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A verbose wrapper for JUnit tests. Using Tester still requires using @Test annotations on test methods. Each method
@@ -17,25 +36,433 @@ import java.util.Map;
  */
 public class Tester
 {
-    private static String classScope  = "";
-    private static String methodScope = "";
+    private static final String PASSED = "\t\t\t✓ PASSED";
+    private static final String FAILED = "\t\t\t✗ FAILED";
 
+    private static final ScopeResolver      scopeResolver = ScopeResolver.create();
+    private static final ThreadLocal<Scope> scope         = ThreadLocal.withInitial(() -> Scope.NONE);
+    private static final ThreadLocal<Scope> testScope     = new ThreadLocal<Scope>();
+    private static final LongAdder          passed        = new LongAdder();
+    private static final LongAdder          failed        = new LongAdder();
+    private static volatile OutputSink      sink          = createOutputSink(System.getProperty("vtest.output"));
+    private static volatile Verbosity       verbosity     = Verbosity.parse(System.getProperty("vtest.verbosity"));
+    private static volatile JsonReporter    jsonReporter  = createJsonReporter(System.getProperty("vtest.json"));
+
+    static
+    {
+        Runtime.getRuntime().addShutdownHook(new Thread(Tester::printSummary, "vtest-summary"));
+    }
+
+    /**
+     * Print scope headers when the calling thread has moved into a new test class or method. Scope is tracked per
+     * thread, so tests run by parallel runners each get their own headers without any locking on the assertion path.
+     * The headers are written as a single entry so that another thread's output cannot split them. The slowest
+     * assertions of the scope the thread has left are printed before the new headers.
+     */
     private static void checkScope()
     {
-        StackTraceElement[] elements = Thread.currentThread().getStackTrace();
-        String localClassScope = elements[3].getClassName();
-        String localMethodScope = elements[3].getMethodName();
+        Scope localScope = resolveScope();
+        Scope previousScope = scope.get();
+        if (localScope == previousScope)
+        {
+            return;
+        }
+        scope.set(localScope);
+        CharSequence slowest = SlowAssertions.endScope();
+        if (slowest != null)
+        {
+            sink.println(slowest);
+        }
         // If either have changed, produce some verbose output
-        if (!classScope.equals(localClassScope))
+        String header;
+        if (!previousScope.getClassName().equals(localScope.getClassName()))
+        {
+            header = "Starting tests for " + localScope.getClassName() + System.lineSeparator() + "\t"
+                    + localScope.getMethodName();
+        }
+        else
+        {
+            header = "\t" + localScope.getMethodName();
+        }
+        sink.printHeader(header, localScope.getClassName(), localScope.getMethodName());
+    }
+
+    /**
+     * Get the scope of the calling thread: the test that a JUnit integration has said is running on it, or else the
+     * caller found by walking the stack, which is only needed for threads that no integration is driving.
+     */
+    private static Scope resolveScope()
+    {
+        Scope localScope = testScope.get();
+        return localScope != null ? localScope : scopeResolver.resolve();
+    }
+
+    /**
+     * Set the scope of the assertions made on the calling thread until exitTest is called, so that they are reported
+     * under the test that is running rather than under the method found on the stack.
+     *
+     * @param className
+     *            the name of the test class
+     * @param methodName
+     *            the name of the test method
+     */
+    static void enterTest(String className, String methodName)
+    {
+        testScope.set(scopeResolver.scope(className, methodName));
+    }
+
+    /**
+     * Go back to finding the scope of the assertions made on the calling thread from the stack. Soft assertion batches
+     * the test left open are discarded, so that they do not swallow the failures of later tests on the thread.
+     *
+     * @throws AssertionError
+     *             if a soft assertion batch was left open, once the scope has been reset
+     */
+    static void exitTest()
+    {
+        testScope.remove();
+        String abandoned = SoftAssertions.discardOpen();
+        if (abandoned != null)
+        {
+            sink.println(abandoned);
+        }
+        CharSequence slowest = SlowAssertions.endScope();
+        if (slowest != null)
+        {
+            sink.println(slowest);
+        }
+        sink.flush();
+        if (abandoned != null)
+        {
+            throw new AssertionError(abandoned);
+        }
+    }
+
+    /**
+     * Check if an assertion's output is needed, either to be printed or to be recorded as a soft failure. Assertions
+     * only render their operands when this returns true.
+     */
+    private static boolean shouldReport(boolean evaluation)
+    {
+        return isPrinted(evaluation) || (!evaluation && SoftAssertions.current() != null) || jsonReporter != null
+                || SlowAssertions.isSampling();
+    }
+
+    /**
+     * Read the clock at the start of an assertion. The clock is only read when assertions are being timed for a
+     * structured reporter, for metrics, or by a sampling slow assertion detector, so that untimed assertions do not pay
+     * for it.
+     */
+    private static long clock()
+    {
+        // Sampled first, so that every assertion counts towards the sampling interval
+        boolean sampled = SlowAssertions.sample();
+        return sampled || jsonReporter != null || Metrics.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Pass a timed assertion to the per-scope metrics, the structured reporter and the slow assertion detector. The
+     * assertion's scope is only resolved if one of them needs it.
+     *
+     * @return the detector's report of the slowest assertions of a scope the thread has left, or null
+     */
+    private static CharSequence record(boolean evaluation, long start)
+    {
+        JsonReporter localReporter = jsonReporter;
+        boolean metricsEnabled = Metrics.isEnabled();
+        boolean detecting = SlowAssertions.isEnabled();
+        if (localReporter == null && !metricsEnabled && !detecting)
+        {
+            return null;
+        }
+        // If the line was rendered, evaluation ended when rendering began
+        Renderer renderer = Renderer.current();
+        boolean rendered = renderer.began() >= start;
+        long nanos = (rendered ? renderer.began() : System.nanoTime()) - start;
+        Scope localScope = isPrinted(evaluation) ? scope.get() : resolveScope();
+        if (metricsEnabled)
+        {
+            Metrics.record(localScope, evaluation, nanos);
+        }
+        // The reporter may have been set after this assertion decided not to render its line
+        if (localReporter != null && rendered)
+        {
+            localReporter.record(localScope, renderer, evaluation, nanos);
+        }
+        // Sampled assertions always render, and rendering ended when the line was reported
+        if (detecting && rendered && SlowAssertions.isSampling())
+        {
+            long rendering = renderer.finished() >= renderer.began() ? renderer.finished() - renderer.began() : 0L;
+            return SlowAssertions.record(localScope, renderer.message(), nanos, rendering);
+        }
+        return null;
+    }
+
+    private static boolean isPrinted(boolean evaluation)
+    {
+        Verbosity localVerbosity = verbosity;
+        return localVerbosity == Verbosity.FULL || (!evaluation && localVerbosity == Verbosity.FAILURES_ONLY);
+    }
+
+    /**
+     * Print a rendered assertion line under the current scope, and record it if it is a soft failure. The line and its
+     * status are printed as one entry, so that no other thread's output can come between them.
+     */
+    private static void report(CharSequence line, boolean evaluation)
+    {
+        if (SlowAssertions.isEnabled())
+        {
+            Renderer.current().finish();
+        }
+        if (isPrinted(evaluation))
+        {
+            checkScope();
+            sink.println(Renderer.current().entry(line, evaluation ? PASSED : FAILED));
+        }
+        if (!evaluation)
+        {
+            SoftAssertions softAssertions = SoftAssertions.current();
+            if (softAssertions != null)
+            {
+                softAssertions.recordFailure(line);
+            }
+        }
+    }
+
+    private static void printSummary()
+    {
+        long localPassed = passed.sum();
+        long localFailed = failed.sum();
+        if (verbosity == Verbosity.SUMMARY_ONLY && localPassed + localFailed > 0)
+        {
+            sink.println("vtest summary: " + (localPassed + localFailed) + " assertions, " + localPassed + " passed, "
+                    + localFailed + " failed");
+            sink.flush();
+        }
+        if (SlowAssertions.isEnabled())
+        {
+            for (CharSequence slowest : SlowAssertions.endAll())
+            {
+                sink.println(slowest);
+            }
+            sink.flush();
+        }
+    }
+
+    private static JsonReporter createJsonReporter(String fileName)
+    {
+        if (fileName == null || fileName.isEmpty())
+        {
+            return null;
+        }
+        try
+        {
+            JsonReporter reporter = new JsonReporter(fileName);
+            Runtime.getRuntime().addShutdownHook(new Thread(reporter::close, "vtest-json"));
+            return reporter;
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static OutputSink createOutputSink(String output)
+    {
+        if ("async".equals(output))
+        {
+            return new AsyncSink();
+        }
+        if ("mapped".equals(output))
+        {
+            try
+            {
+                return new MappedFileSink(new File(System.getProperty("vtest.output.dir", "build/vtest")));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new ConsoleSink();
+    }
+
+    /**
+     * Time a task and test if the mean, at the upper end of its confidence interval, or a percentile of the time taken
+     * per call is within a limit.
+     */
+    private static void measureWithin(String message, Callable<?> task, double percentile, long limit, TimeUnit unit)
+    {
+        long start = clock();
+        TimingStatistics statistics = TaskTimer.measure(task);
+        double limitNanos = unit.toNanos(limit);
+        boolean byMean = Double.isNaN(percentile);
+        double measured = byMean ? statistics.getMean() + statistics.getConfidence()
+                : statistics.getPercentile(percentile);
+        boolean evaluation = measured <= limitNanos;
+        if (shouldReport(evaluation))
+        {
+            String statistic = byMean ? statistics.describeMean()
+                    : "p" + formatPercentile(percentile) + " " + TimingStatistics.format(measured);
+            report(Renderer.begin(message).text(" (completes within): ").value(statistic).operator("<=")
+                    .value(TimingStatistics.format(limitNanos)).text(" (" + statistics + ")").done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    private static String formatPercentile(double percentile)
+    {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    /**
+     * Test if every element of an iterator matches a predicate, consuming the iterator once in constant memory. The
+     * scan stops at the first element that does not match, whose index and value are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
+     */
+    public static <T> void allMatch(String message, Iterator<T> values, Predicate<? super T> predicate)
+    {
+        long start = clock();
+        SequenceScan scan = SequenceScan.match(values, predicate, true);
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (all match): ");
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements match");
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" does not match: ").value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if every element of an iterable matches a predicate, consuming it once in constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
+     */
+    public static <T> void allMatch(String message, Iterable<T> values, Predicate<? super T> predicate)
+    {
+        allMatch(message, values.iterator(), predicate);
+    }
+
+    /**
+     * Test if every element of a stream matches a predicate, consuming it once in constant memory. The stream is closed
+     * afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
+     */
+    public static <T> void allMatch(String message, Stream<T> values, Predicate<? super T> predicate)
+    {
+        try (Stream<T> stream = values)
         {
-            classScope = localClassScope;
-            System.out.println("Starting tests for " + localClassScope);
+            allMatch(message, stream.iterator(), predicate);
         }
-        if (!methodScope.equals(localMethodScope))
+    }
+
+    /**
+     * Test if each call of a task allocates at most a number of bytes on the heap, read from the JVM's per-thread
+     * allocation counter. The task is warmed up before it is measured, so that allocations removed by the JIT compiler
+     * are not counted, and then the median allocation of a number of separate calls is tested. The counter's own
+     * overhead is calibrated and subtracted, so a limit of 0 checks that the task allocates nothing at all.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to measure, which is called on the current thread
+     * @param bytes
+     *            the most bytes each call may allocate
+     */
+    public static void allocatesAtMost(String message, Callable<?> task, long bytes)
+    {
+        allocatesAtMost(message, task, bytes, false);
+    }
+
+    /**
+     * Test if each call of a task allocates at most a number of bytes on the heap, and optionally that no garbage
+     * collection runs while it is measured. Collections are counted across the whole JVM, so a check for no
+     * collections can also fail because of allocations on other threads.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to measure, which is called on the current thread
+     * @param bytes
+     *            the most bytes each call may allocate
+     * @param withoutCollections
+     *            true if no garbage collection may run while the task is measured
+     */
+    public static void allocatesAtMost(String message, Callable<?> task, long bytes, boolean withoutCollections)
+    {
+        long start = clock();
+        AllocationMeasurement measurement = AllocationMeasurement.measure(task);
+        boolean evaluation = measurement.getMedian() <= bytes
+                && (!withoutCollections || measurement.getCollections() == 0);
+        if (shouldReport(evaluation))
         {
-            methodScope = localMethodScope;
-            System.out.println("\t" + methodScope);
+            Renderer renderer = Renderer.begin(message).text(" (allocates at most): ").value(measurement.getMedian())
+                    .text(" bytes").operator("<=").value(bytes).text(" bytes");
+            if (withoutCollections)
+            {
+                renderer.text(" without collections");
+            }
+            report(renderer.text(" (" + measurement + ")").done(), evaluation);
         }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if each call of a task allocates at most a number of bytes on the heap.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to measure, which is called on the current thread
+     * @param bytes
+     *            the most bytes each call may allocate
+     */
+    public static void allocatesAtMost(String message, Runnable task, long bytes)
+    {
+        allocatesAtMost(message, Executors.callable(task), bytes, false);
+    }
+
+    /**
+     * Test if each call of a task allocates at most a number of bytes on the heap, and optionally that no garbage
+     * collection runs while it is measured.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to measure, which is called on the current thread
+     * @param bytes
+     *            the most bytes each call may allocate
+     * @param withoutCollections
+     *            true if no garbage collection may run while the task is measured
+     */
+    public static void allocatesAtMost(String message, Runnable task, long bytes, boolean withoutCollections)
+    {
+        allocatesAtMost(message, Executors.callable(task), bytes, withoutCollections);
     }
 
     /**
@@ -50,9 +477,13 @@ public class Tester
      */
     public static <K> void contains(String message, Collection<K> lhs, K rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " contains " + rhs);
-        test(lhs.contains(rhs));
+        long start = clock();
+        boolean evaluation = lhs.contains(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "contains", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
@@ -65,226 +496,2226 @@ public class Tester
      * @param rhs
      *            the right hand side of the membership
      */
-    public static <K> void contains(String message, Map<K, ?> lhs, K rhs)
+    public static <K> void contains(String message, Map<K, ?> lhs, K rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs.containsKey(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "contains", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a boolean array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, boolean[] lhs, boolean rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a byte array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, byte[] lhs, byte rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a char array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, char[] lhs, char rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a double array contains a value within a supplied margin
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void contains(String message, double[] lhs, double rhs, double margin)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs, margin) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).text(" ± ")
+                    .value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a float array contains a value within a supplied margin
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void contains(String message, float[] lhs, float rhs, float margin)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs, margin) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).text(" ± ")
+                    .value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if an int array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, int[] lhs, int rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a long array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, long[] lhs, long rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a short array contains a value
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the right hand side of the membership
+     */
+    public static void contains(String message, short[] lhs, short rhs)
+    {
+        long start = clock();
+        boolean evaluation = ArrayScanner.indexOf(lhs, rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("contains").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a collection contains every value of another collection. Membership of large lists is checked through a
+     * hash index that is built once and reused across assertions, so checking many values costs about as much as one
+     * pass over the list. Every missing value is reported.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the values that must all be members of lhs
+     */
+    public static <K> void containsAll(String message, Collection<K> lhs, Collection<? extends K> rhs)
+    {
+        long start = clock();
+        List<? extends K> missing = CollectionIndex.missing(lhs, rhs);
+        boolean evaluation = missing.isEmpty();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(": ").comparison(lhs, "contains all of", rhs, false);
+            if (!evaluation)
+            {
+                renderer.text(" missing ").value(missing);
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a collection contains each of a list of values. Membership of large lists is checked through a hash
+     * index that is built once and reused across assertions, and every missing value is reported.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the membership
+     * @param rhs
+     *            the values that must all be members of lhs
+     */
+    @SafeVarargs
+    public static <K> void containsEach(String message, Collection<K> lhs, K... rhs)
+    {
+        long start = clock();
+        // Copied element by element, since handing the varargs array itself on is flagged as possible heap pollution
+        List<K> values = new ArrayList<K>(rhs.length);
+        for (K value : rhs)
+        {
+            values.add(value);
+        }
+        List<? extends K> missing = CollectionIndex.missing(lhs, values);
+        boolean evaluation = missing.isEmpty();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(": ").comparison(lhs, "contains each of", values,
+                    false);
+            if (!evaluation)
+            {
+                renderer.text(" missing ").value(missing);
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a task completes within a time limit on average. The task is timed over a number of warmup and
+     * measurement iterations, set by setTimingIterations, and the test passes if the upper end of the 95% confidence
+     * interval of the mean time per call is within the limit. The measured distribution is printed with the result.
+     * Every value the task returns is consumed, so the work that computes it cannot be optimized away.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to time
+     * @param limit
+     *            the longest the task may take per call
+     * @param unit
+     *            the unit of the limit
+     */
+    public static void completesWithin(String message, Callable<?> task, long limit, TimeUnit unit)
+    {
+        measureWithin(message, task, Double.NaN, limit, unit);
+    }
+
+    /**
+     * Test if a percentile of the time taken by a task is within a time limit. The task is timed over a number of
+     * warmup and measurement iterations, set by setTimingIterations, and the measured distribution is printed with the
+     * result. Every value the task returns is consumed, so the work that computes it cannot be optimized away.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to time
+     * @param percentile
+     *            the percentile of the time per call to test, from 0 to 100
+     * @param limit
+     *            the longest the task may take per call at that percentile
+     * @param unit
+     *            the unit of the limit
+     */
+    public static void completesWithin(String message, Callable<?> task, double percentile, long limit, TimeUnit unit)
+    {
+        if (percentile < 0.0 || percentile > 100.0)
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        measureWithin(message, task, percentile, limit, unit);
+    }
+
+    /**
+     * Test if a task completes within a time limit on average. A Runnable returns nothing to consume, so it must have
+     * an effect that the JIT compiler cannot remove, or be written as a Callable that returns its result.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to time
+     * @param limit
+     *            the longest the task may take per call
+     * @param unit
+     *            the unit of the limit
+     */
+    public static void completesWithin(String message, Runnable task, long limit, TimeUnit unit)
+    {
+        completesWithin(message, Executors.callable(task), limit, unit);
+    }
+
+    /**
+     * Test if a percentile of the time taken by a task is within a time limit. A Runnable returns nothing to consume,
+     * so it must have an effect that the JIT compiler cannot remove, or be written as a Callable that returns its
+     * result.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param task
+     *            the task to time
+     * @param percentile
+     *            the percentile of the time per call to test, from 0 to 100
+     * @param limit
+     *            the longest the task may take per call at that percentile
+     * @param unit
+     *            the unit of the limit
+     */
+    public static void completesWithin(String message, Runnable task, double percentile, long limit, TimeUnit unit)
+    {
+        completesWithin(message, Executors.callable(task), percentile, limit, unit);
+    }
+
+    /**
+     * Test if two object graphs are structurally equal. Lists and arrays are compared element by element, sets by
+     * membership and maps by key. JDK classes are compared with equals(), and every other class is compared field by
+     * field, so objects that do not override equals() can still be compared. Cycles are followed only once. When the
+     * graphs differ, the path to the first difference is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void deepEqual(String message, Object lhs, Object rhs)
+    {
+        long start = clock();
+        DeepEquality.Difference difference = DeepEquality.firstDifference(lhs, rhs, 0.0);
+        boolean evaluation = difference == null;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (deep equals): ").value(lhs).operator("==").value(rhs)
+                    .firstDifference(difference).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two object graphs are structurally equal, with floating point values compared within a supplied margin.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two floating point values are still considered the same
+     * @see #deepEqual(String, Object, Object)
+     */
+    public static void deepEqual(String message, Object lhs, Object rhs, double margin)
+    {
+        long start = clock();
+        DeepEquality.Difference difference = DeepEquality.firstDifference(lhs, rhs, margin);
+        boolean evaluation = difference == null;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (deep equals): ").value(lhs).operator("==").value(rhs)
+                    .text(" ± ").value(margin).firstDifference(difference).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two boolean values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, boolean lhs, boolean rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two boolean arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, boolean[] lhs, boolean[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two byte values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, byte lhs, byte rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two byte arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, byte[] lhs, byte[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two char values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, char lhs, char rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two char arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, char[] lhs, char[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a Comparable object is equal to another object.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param <T>
+     *            the generic type of the Comparable object
+     */
+    public static <T> void equal(String message, Comparable<T> lhs, T rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) == 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "==", rhs, !evaluation).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if an object is equal to another object. Both directions of equals() are tested, and the hash codes of the
+     * two objects are compared. Large JDK lists, sets and maps of the same size are compared in one combined pass that
+     * runs in parallel on the common fork-join pool, so their elements must be safe to compare from several threads.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, Object lhs, Object rhs)
+    {
+        long start = clock();
+        ParallelEquality parallel = ParallelEquality.compare(lhs, rhs);
+        boolean evaluation = parallel != null ? parallel.isLhsEqual() : (lhs != null || rhs == null) && lhs.equals(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (object equals): ").comparison(lhs, "==", rhs, !evaluation)
+                    .done(), evaluation);
+        }
+        test(evaluation, start);
+        start = clock();
+        evaluation = parallel != null ? parallel.isRhsEqual() : (rhs != null || lhs == null) && rhs.equals(lhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (symmetric object equals): ")
+                    .comparison(rhs, "==", lhs, !evaluation).done(), evaluation);
+        }
+        test(evaluation, start);
+        if (lhs != null && rhs != null)
+        {
+            start = clock();
+            int lhsHashCode = parallel != null ? parallel.getLhsHashCode() : lhs.hashCode();
+            int rhsHashCode = parallel != null ? parallel.getRhsHashCode() : rhs.hashCode();
+            evaluation = lhsHashCode == rhsHashCode;
+            if (shouldReport(evaluation))
+            {
+                report(Renderer.begin(message).text(" (hash code equals): ").value(lhsHashCode).operator("==")
+                        .value(rhsHashCode).done(), evaluation);
+            }
+            test(evaluation, start);
+        }
+    }
+
+    /**
+     * Test if two double values are equal within a supplied margin.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void equal(String message, double lhs, double rhs, double margin)
+    {
+        long start = clock();
+        double difference = lhs - rhs;
+        boolean evaluation = Math.abs(difference) <= margin;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two double arrays are exactly equal, element by element. Elements are compared as Double.equals compares
+     * them, so NaN equals NaN, and 0.0 differs from -0.0. When the arrays differ, only the elements around the first
+     * difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, double[] lhs, double[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two double arrays are equal within a supplied margin, element by element. When the arrays differ, only
+     * the elements around the first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void equal(String message, double[] lhs, double[] rhs, double margin)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs, margin);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .text(" ± ").value(margin).firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two float values are equal within a supplied margin
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void equal(String message, float lhs, float rhs, float margin)
+    {
+        long start = clock();
+        double difference = lhs - rhs;
+        boolean evaluation = Math.abs(difference) <= margin;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two float arrays are exactly equal, element by element. Elements are compared as Float.equals compares
+     * them, so NaN equals NaN, and 0.0 differs from -0.0. When the arrays differ, only the elements around the first
+     * difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, float[] lhs, float[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two float arrays are equal within a supplied margin, element by element. When the arrays differ, only
+     * the elements around the first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void equal(String message, float[] lhs, float[] rhs, float margin)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs, margin);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .text(" ± ").value(margin).firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two int values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, int lhs, int rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two int arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, int[] lhs, int[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two long values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, long lhs, long rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two long arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, long[] lhs, long[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two short values are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, short lhs, short rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs == rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("==").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two short arrays are equal, element by element. When the arrays differ, only the elements around the
+     * first difference are printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, short[] lhs, short[] rhs)
+    {
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").difference(lhs, "==", rhs, mismatch)
+                    .firstDifference(mismatch).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two String objects are equal.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equal(String message, String lhs, String rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs.equals(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "==", rhs, !evaluation).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two iterators produce equal elements in the same order, consuming both once in constant memory. Elements
+     * are compared with equals(), or element by element if they are arrays. The scan stops at the first position at
+     * which the elements differ or one iterator ends before the other, which is printed with its index.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equalElements(String message, Iterator<?> lhs, Iterator<?> rhs)
+    {
+        long start = clock();
+        SequenceScan scan = SequenceScan.equalElements(lhs, rhs);
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (elements equal): ");
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements equal");
+            }
+            else if (scan.isLhsEnded())
+            {
+                renderer.text("lhs ends at element ").value(scan.getIndex()).text(", rhs continues with ")
+                        .value(scan.getElement());
+            }
+            else if (scan.isRhsEnded())
+            {
+                renderer.text("rhs ends at element ").value(scan.getIndex()).text(", lhs continues with ")
+                        .value(scan.getPrevious());
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" differs: ").value(scan.getPrevious())
+                        .operator("!=").value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if two sequences produce equal elements in the same order, consuming each once in constant memory. Unlike
+     * equal(), the sequences need not be of the same type.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equalElements(String message, Iterable<?> lhs, Iterable<?> rhs)
+    {
+        equalElements(message, lhs.iterator(), rhs.iterator());
+    }
+
+    /**
+     * Test if two sequences produce equal elements in the same order, consuming each once in constant memory. Unlike
+     * equal(), the sequences need not be of the same type. Both streams are closed afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void equalElements(String message, Stream<?> lhs, Stream<?> rhs)
+    {
+        try (Stream<?> lhsStream = lhs; Stream<?> rhsStream = rhs)
+        {
+            equalElements(message, lhsStream.iterator(), rhsStream.iterator());
+        }
+    }
+
+    /**
+     * Test if two collections hold the same elements the same number of times, in any order. Both collections are
+     * counted in a single hash pass, so this takes linear time and does not require the elements to be Comparable. When
+     * the collections differ, the elements that each has extra copies of are printed with their counts.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static <K> void equalIgnoringOrder(String message, Collection<K> lhs, Collection<? extends K> rhs)
+    {
+        long start = clock();
+        boolean evaluation = MultisetDifference.isEqual(lhs, rhs);
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (ignoring order): ").comparison(lhs, "==", rhs, false);
+            if (!evaluation)
+            {
+                MultisetDifference difference = MultisetDifference.of(lhs, rhs);
+                renderer.text(" extra in lhs ").value(difference.getExtraInLhs()).text(", extra in rhs ")
+                        .value(difference.getExtraInRhs());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * A test that fails if it is reached in the code.
+     *
+     * @param message
+     *            the message to display when running the test
+     */
+    public static void fail(String message)
+    {
+        long start = clock();
+        boolean evaluation = false;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one task is faster than another. Both tasks are timed over the same number of warmup and measurement
+     * iterations, set by setTimingIterations, taking their samples alternately. The test passes only if the 95%
+     * confidence intervals of their mean times per call do not overlap, so a difference lost in measurement noise
+     * fails. Both measured distributions are printed with the result.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the task expected to be faster
+     * @param rhs
+     *            the task expected to be slower
+     */
+    public static void fasterThan(String message, Callable<?> lhs, Callable<?> rhs)
+    {
+        long start = clock();
+        TimingStatistics[] statistics = TaskTimer.compare(lhs, rhs);
+        boolean evaluation = statistics[0].getMean() + statistics[0].getConfidence() < statistics[1].getMean()
+                - statistics[1].getConfidence();
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (faster than): ").value(statistics[0].describeMean()).operator("<")
+                    .value(statistics[1].describeMean())
+                    .text(" (lhs " + statistics[0] + "; rhs " + statistics[1] + ")").done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one task is faster than another. A Runnable returns nothing to consume, so each task must have an effect
+     * that the JIT compiler cannot remove, or be written as a Callable that returns its result.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the task expected to be faster
+     * @param rhs
+     *            the task expected to be slower
+     */
+    public static void fasterThan(String message, Runnable lhs, Runnable rhs)
+    {
+        fasterThan(message, Executors.callable(lhs), Executors.callable(rhs));
+    }
+
+    /**
+     * Block until all output written so far has reached the output sink's underlying stream, and the JSON reporter's
+     * stream if there is one. Call this at the end of a test when using an asynchronous sink; failures are always
+     * flushed before they are thrown.
+     */
+    public static void flush()
+    {
+        sink.flush();
+        JsonReporter localReporter = jsonReporter;
+        if (localReporter != null)
+        {
+            localReporter.flush();
+        }
+    }
+
+    /**
+     * Test if a property holds for random values. The property is tried against a number of values, set by
+     * setPropertyTrials, in parallel on the common fork join pool, so it must be thread safe. A property fails on a
+     * value if it returns false or throws, and the first failing value is shrunk to a minimal counterexample.
+     *
+     * @param message
+     *            the message to display when running the test, which also seeds the values tried
+     * @param generator
+     *            the generator of the values tried
+     * @param property
+     *            the property that must hold for every value
+     */
+    public static <T> void forAll(String message, Generator<T> generator, Predicate<? super T> property)
+    {
+        testProperty(message, PropertyCheck.of(generator, property));
+    }
+
+    /**
+     * Test if a property holds for random doubles. The property is tried against a number of values, set by
+     * setPropertyTrials, in parallel on the common fork join pool, so it must be thread safe. A property fails on a
+     * value if it returns false or throws, and the first failing value is shrunk to a minimal counterexample.
+     *
+     * @param message
+     *            the message to display when running the test, which also seeds the values tried
+     * @param generator
+     *            the generator of the values tried
+     * @param property
+     *            the property that must hold for every value
+     */
+    public static void forAllDoubles(String message, DoubleGenerator generator, DoublePredicate property)
+    {
+        testProperty(message, PropertyCheck.ofDoubles(generator, property));
+    }
+
+    /**
+     * Test if a property holds for random ints. The property is tried against a number of values, set by
+     * setPropertyTrials, in parallel on the common fork join pool, so it must be thread safe. A property fails on a
+     * value if it returns false or throws, and the first failing value is shrunk to a minimal counterexample.
+     *
+     * @param message
+     *            the message to display when running the test, which also seeds the values tried
+     * @param generator
+     *            the generator of the values tried
+     * @param property
+     *            the property that must hold for every value
+     */
+    public static void forAllInts(String message, IntGenerator generator, IntPredicate property)
+    {
+        testProperty(message, PropertyCheck.ofInts(generator, property));
+    }
+
+    /**
+     * Test if a property holds for random longs. The property is tried against a number of values, set by
+     * setPropertyTrials, in parallel on the common fork join pool, so it must be thread safe. A property fails on a
+     * value if it returns false or throws, and the first failing value is shrunk to a minimal counterexample.
+     *
+     * @param message
+     *            the message to display when running the test, which also seeds the values tried
+     * @param generator
+     *            the generator of the values tried
+     * @param property
+     *            the property that must hold for every value
+     */
+    public static void forAllLongs(String message, LongGenerator generator, LongPredicate property)
+    {
+        testProperty(message, PropertyCheck.ofLongs(generator, property));
+    }
+
+    /**
+     * Get the reporter that Tester writes a JSON record for each assertion to.
+     *
+     * @return the current JSON reporter, or null if no records are being written
+     */
+    public static JsonReporter getJsonReporter()
+    {
+        return jsonReporter;
+    }
+
+    /**
+     * Get the live metrics of every scope that has made an assertion while metrics were enabled.
+     *
+     * @return the metrics of each scope, in the order the scopes first made an assertion
+     */
+    public static List<ScopeMetrics> getMetrics()
+    {
+        return Metrics.getScopeMetrics();
+    }
+
+    /**
+     * Get the sink that Tester's verbose output is written to.
+     *
+     * @return the current output sink
+     */
+    public static OutputSink getOutputSink()
+    {
+        return sink;
+    }
+
+    /**
+     * Get how much output Tester produces.
+     *
+     * @return the current verbosity
+     */
+    public static Verbosity getVerbosity()
+    {
+        return verbosity;
+    }
+
+    /**
+     * Test if one byte value is greater than or equal to another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterOrEqual(String message, byte lhs, byte rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one char value is greater than or equal to another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterOrEqual(String message, char lhs, char rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a Comparable object is greater than or equal to another object.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param <T>
+     *            the generic type of the Comparable object
+     */
+    public static <T> void greaterOrEqual(String message, Comparable<T> lhs, T rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, ">=", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one double value is greater than or equal to another within a supplied margin
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void greaterOrEqual(String message, double lhs, double rhs, double margin)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs + Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one float value is greater than or equal to another within a supplied margin
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void greaterOrEqual(String message, float lhs, float rhs, float margin)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs + Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one int value is greater than or equal to another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterOrEqual(String message, int lhs, int rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one long value is greater than or equal to another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterOrEqual(String message, long lhs, long rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one short value is greater than or equal to another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterOrEqual(String message, short lhs, short rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs >= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one byte value is greater than another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterThan(String message, byte lhs, byte rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one char value is greater than another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterThan(String message, char lhs, char rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if a Comparable object is greater than another object.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param <T>
+     *            the generic type of the Comparable object
+     */
+    public static <T> void greaterThan(String message, Comparable<T> lhs, T rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) > 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, ">", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one double value is greater than another within a supplied margin.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void greaterThan(String message, double lhs, double rhs, double margin)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs + Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one float value is greater than another within a supplied margin.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
+     */
+    public static void greaterThan(String message, float lhs, float rhs, float margin)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs + Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one int value is greater than another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterThan(String message, int lhs, int rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one long value is greater than another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterThan(String message, long lhs, long rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if one short value is greater than another.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param lhs
+     *            the left hand side of the equality
+     * @param rhs
+     *            the right hand side of the equality
+     */
+    public static void greaterThan(String message, short lhs, short rhs)
+    {
+        long start = clock();
+        boolean evaluation = lhs > rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator(">").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if an iterator has a number of elements, consuming it once in constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to count
+     * @param count
+     *            the expected number of elements
+     */
+    public static void hasCount(String message, Iterator<?> values, long count)
+    {
+        long start = clock();
+        long actual = SequenceScan.count(values).getCount();
+        boolean evaluation = actual == count;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (count): ").value(actual).operator("==").value(count).done(),
+                    evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if an iterable has a number of elements, consuming it once in constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to count
+     * @param count
+     *            the expected number of elements
+     */
+    public static void hasCount(String message, Iterable<?> values, long count)
+    {
+        hasCount(message, values.iterator(), count);
+    }
+
+    /**
+     * Test if a stream has a number of elements, consuming it once in constant memory. The stream is closed afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to count
+     * @param count
+     *            the expected number of elements
+     */
+    public static void hasCount(String message, Stream<?> values, long count)
+    {
+        try (Stream<?> stream = values)
+        {
+            hasCount(message, stream.iterator(), count);
+        }
+    }
+
+    /**
+     * Test if a boolean value is false.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param value
+     *            the boolean value to test
+     */
+    public static void isFalse(String message, boolean value)
+    {
+        long start = clock();
+        boolean evaluation = !value;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(value).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Check if Tester is keeping per-scope metrics.
+     *
+     * @return true if per-scope counters and latency histograms are being kept
+     */
+    public static boolean isMetricsEnabled()
+    {
+        return Metrics.isEnabled();
+    }
+
+    /**
+     * Test if the elements of an iterator are monotonic, either never decreasing or never increasing, consuming the
+     * iterator once in constant memory. The direction is set by the first pair of elements that are not equal. The scan
+     * stops at the first element that goes against it, which is printed with its index and the element before it.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isMonotonic(String message, Iterator<T> values)
+    {
+        long start = clock();
+        SequenceScan scan = SequenceScan.monotonic(values, Comparator.naturalOrder());
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (monotonic): ");
+            String order = scan.getDirection() > 0 ? "increasing" : scan.getDirection() < 0 ? "decreasing" : "constant";
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements in " + order + " order");
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" breaks the " + order + " order: ")
+                        .value(scan.getPrevious()).text(scan.getDirection() > 0 ? " > " : " < ")
+                        .value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if the elements of an iterable are monotonic, either never decreasing or never increasing, consuming it once
+     * in constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isMonotonic(String message, Iterable<T> values)
+    {
+        isMonotonic(message, values.iterator());
+    }
+
+    /**
+     * Test if the elements of a stream are monotonic, either never decreasing or never increasing, consuming it once in
+     * constant memory. The stream is closed afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isMonotonic(String message, Stream<T> values)
+    {
+        try (Stream<T> stream = values)
+        {
+            isMonotonic(message, stream.iterator());
+        }
+    }
+
+    /**
+     * Test if an Object is non-null.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param object
+     *            the Object to test
+     */
+    public static void isNotNull(String message, Object object)
+    {
+        long start = clock();
+        boolean evaluation = object != null;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(object).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if an Object is null.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param object
+     *            the Object to test
+     */
+    public static void isNull(String message, Object object)
+    {
+        long start = clock();
+        boolean evaluation = object == null;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(object).done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if the elements of an iterator are in ascending order, allowing equal neighbors, consuming the iterator once
+     * in constant memory. The scan stops at the first element that is less than the one before it, which is printed
+     * with its index and the element before it.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isSorted(String message, Iterator<T> values)
+    {
+        long start = clock();
+        SequenceScan scan = SequenceScan.sorted(values, Comparator.naturalOrder(), false);
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (sorted): ");
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements in order");
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" is out of order: ").value(scan.getPrevious())
+                        .operator(">").value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if the elements of an iterable are in ascending order, allowing equal neighbors, consuming it once in
+     * constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isSorted(String message, Iterable<T> values)
+    {
+        isSorted(message, values.iterator());
+    }
+
+    /**
+     * Test if the elements of a stream are in ascending order, allowing equal neighbors, consuming it once in constant
+     * memory. The stream is closed afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     */
+    public static <T extends Comparable<? super T>> void isSorted(String message, Stream<T> values)
+    {
+        try (Stream<T> stream = values)
+        {
+            isSorted(message, stream.iterator());
+        }
+    }
+
+    /**
+     * Test if the elements of a byte array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, byte[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of a char array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, char[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of a double array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     * Doubles and floats are ordered as by Arrays.sort, with -0.0 before 0.0 and NaN last.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, double[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of a float array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     * Doubles and floats are ordered as by Arrays.sort, with -0.0 before 0.0 and NaN last.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, float[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of an int array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, int[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of a long array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, long[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of a short array are in ascending order, allowing equal neighbors. Large arrays are checked
+     * in parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static void isSorted(String message, short[] values)
+    {
+        long start = clock();
+        testOrder(message, " (sorted): ", values, values.length,
+                OrderCheck.firstUnordered(values, false), false, start);
+    }
+
+    /**
+     * Test if the elements of an array are in ascending order, allowing equal neighbors. Large arrays are checked in
+     * parallel chunks on the common fork-join pool, and only the first element that is out of order is printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the array to test
+     */
+    public static <T extends Comparable<? super T>> void isSorted(String message, T[] values)
+    {
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, Comparator.<T> naturalOrder(), false);
+        testOrder(message, " (sorted): ", values, values.length, index, false, start);
+    }
+
+    /**
+     * Test if the elements of a list are in ascending order, allowing equal neighbors. Large random access lists are
+     * checked in parallel chunks on the common fork-join pool, and only the first element that is out of order is
+     * printed.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the list to test
+     */
+    public static <T extends Comparable<? super T>> void isSorted(String message, List<T> values)
+    {
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, Comparator.<T> naturalOrder(), false);
+        testOrder(message, " (sorted): ", values, values.size(), index, false, start);
+    }
+
+    /**
+     * Test if the elements of an iterator are in ascending order by a comparator, allowing equal neighbors, consuming
+     * the iterator once in constant memory. The scan stops at the first element that is less than the one before it,
+     * which is printed with its index and the element before it.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param comparator
+     *            the order the elements should be in
+     */
+    public static <T> void isSortedBy(String message, Iterator<T> values, Comparator<? super T> comparator)
+    {
+        long start = clock();
+        SequenceScan scan = SequenceScan.sorted(values, comparator, false);
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (sorted by comparator): ");
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements in order");
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" is out of order: ").value(scan.getPrevious())
+                        .operator(">").value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    /**
+     * Test if the elements of an iterable are in ascending order by a comparator, allowing equal neighbors, consuming
+     * it once in constant memory.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param comparator
+     *            the order the elements should be in
+     */
+    public static <T> void isSortedBy(String message, Iterable<T> values, Comparator<? super T> comparator)
+    {
+        isSortedBy(message, values.iterator(), comparator);
+    }
+
+    /**
+     * Test if the elements of a stream are in ascending order by a comparator, allowing equal neighbors, consuming it
+     * once in constant memory. The stream is closed afterwards.
+     *
+     * @param message
+     *            the message to display when running the test
+     * @param values
+     *            the elements to test
+     * @param comparator
+     *            the order the elements should be in
+     */
+    public static <T> void isSortedBy(String message, Stream<T> values, Comparator<? super T> comparator)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " contains " + rhs);
-        test(lhs.containsKey(rhs));
+        try (Stream<T> stream = values)
+        {
+            isSortedBy(message, stream.iterator(), comparator);
+        }
     }
 
     /**
-     * Test if two boolean values are equal.
+     * Test if the elements of an array are in ascending order by a comparator, allowing equal neighbors. Large arrays
+     * are checked in parallel chunks on the common fork-join pool, so the comparator must be thread safe, and only the
+     * first element that is out of order is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
+     * @param comparator
+     *            the order the elements should be in
      */
-    public static void equal(String message, boolean lhs, boolean rhs)
+    public static <T> void isSortedBy(String message, T[] values, Comparator<? super T> comparator)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, comparator, false);
+        testOrder(message, " (sorted by comparator): ", values, values.length, index, false, start);
     }
 
     /**
-     * Test if two byte values are equal.
+     * Test if the elements of a list are in ascending order by a comparator, allowing equal neighbors. Large random
+     * access lists are checked in parallel chunks on the common fork-join pool, so the comparator must be thread safe,
+     * and only the first element that is out of order is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the list to test
+     * @param comparator
+     *            the order the elements should be in
      */
-    public static void equal(String message, byte lhs, byte rhs)
+    public static <T> void isSortedBy(String message, List<T> values, Comparator<? super T> comparator)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, comparator, false);
+        testOrder(message, " (sorted by comparator): ", values, values.size(), index, false, start);
     }
 
     /**
-     * Test if two char values are equal.
+     * Test if the elements of a byte array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, char lhs, char rhs)
+    public static void isStrictlyIncreasing(String message, byte[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if a Comparable object is equal to another object.
+     * Test if the elements of a char array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
-     * @param <T>
-     *            the generic type of the Comparable object
+     * @param values
+     *            the array to test
      */
-    public static <T> void equal(String message, Comparable<T> lhs, T rhs)
+    public static void isStrictlyIncreasing(String message, char[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs.compareTo(rhs) == 0);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if an object is equal to another object.
+     * Test if the elements of a double array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed. Doubles and floats are ordered as by Arrays.sort, with -0.0 before 0.0
+     * and NaN last.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, Object lhs, Object rhs)
+    public static void isStrictlyIncreasing(String message, double[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + " (object equals): " + lhs + " == " + rhs);
-        test((lhs != null || rhs == null) && lhs.equals(rhs));
-        System.out.println("\t\t" + message + " (symmetric object equals): " + rhs + " == " + lhs);
-        test((rhs != null || lhs == null) && rhs.equals(lhs));
-        if (lhs != null && rhs != null)
-        {
-            System.out.println("\t\t" + message + " (hash code equals): " + lhs.hashCode() + " == " + rhs.hashCode());
-            test(lhs.hashCode() == rhs.hashCode());
-        }
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if two double values are equal within a supplied margin.
+     * Test if the elements of a float array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed. Doubles and floats are ordered as by Arrays.sort, with -0.0 before 0.0
+     * and NaN last.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, double lhs, double rhs, double margin)
+    public static void isStrictlyIncreasing(String message, float[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs + " ± " + margin);
-        double difference = lhs - rhs;
-        test(Math.abs(difference) <= margin);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if two float values are equal within a supplied margin
+     * Test if the elements of an int array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, float lhs, float rhs, float margin)
+    public static void isStrictlyIncreasing(String message, int[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs + " ± " + margin);
-        double difference = lhs - rhs;
-        test(Math.abs(difference) <= margin);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if two int values are equal.
+     * Test if the elements of a long array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, int lhs, int rhs)
+    public static void isStrictlyIncreasing(String message, long[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if two long values are equal.
+     * Test if the elements of a short array are strictly increasing, so that each is greater than the one before it.
+     * Large arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, long lhs, long rhs)
+    public static void isStrictlyIncreasing(String message, short[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        testOrder(message, " (strictly increasing): ", values, values.length,
+                OrderCheck.firstUnordered(values, true), true, start);
     }
 
     /**
-     * Test if two short values are equal.
+     * Test if the elements of an array are strictly increasing, so that each is greater than the one before it. Large
+     * arrays are checked in parallel chunks on the common fork-join pool, and only the first element that is not
+     * greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the array to test
      */
-    public static void equal(String message, short lhs, short rhs)
+    public static <T extends Comparable<? super T>> void isStrictlyIncreasing(String message, T[] values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs == rhs);
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, Comparator.<T> naturalOrder(), true);
+        testOrder(message, " (strictly increasing): ", values, values.length, index, true, start);
     }
 
     /**
-     * Test if two String objects are equal.
+     * Test if the elements of a list are strictly increasing, so that each is greater than the one before it. Large
+     * random access lists are checked in parallel chunks on the common fork-join pool, and only the first element that
+     * is not greater than the one before it is printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the list to test
      */
-    public static void equal(String message, String lhs, String rhs)
+    public static <T extends Comparable<? super T>> void isStrictlyIncreasing(String message, List<T> values)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " == " + rhs);
-        test(lhs.equals(rhs));
+        long start = clock();
+        int index = OrderCheck.firstUnordered(values, Comparator.<T> naturalOrder(), true);
+        testOrder(message, " (strictly increasing): ", values, values.size(), index, true, start);
     }
 
     /**
-     * A test that fails if it is reached in the code.
+     * Test if a boolean value is true.
      *
      * @param message
      *            the message to display when running the test
+     * @param value
+     *            the boolean value to test
      */
-    public static void fail(String message)
+    public static void isTrue(String message, boolean value)
     {
-        checkScope();
-        System.out.println("\t\t" + message);
-        test(false);
+        long start = clock();
+        boolean evaluation = value;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(value).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
@@ -297,15 +2728,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterOrEqual(String message, byte lhs, byte rhs)
+    public static void lessOrEqual(String message, byte lhs, byte rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs >= rhs);
+        long start = clock();
+        boolean evaluation = lhs <= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one char value is greater than or equal to another.
+     * Test if one char value is less than or equal to another.
      *
      * @param message
      *            the message to display when running the test
@@ -314,15 +2749,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterOrEqual(String message, char lhs, char rhs)
+    public static void lessOrEqual(String message, char lhs, char rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs >= rhs);
+        long start = clock();
+        boolean evaluation = lhs <= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if a Comparable object is greater than or equal to another object.
+     * Test if one Comparable object is less than or equal to another.
      *
      * @param message
      *            the message to display when running the test
@@ -333,15 +2772,19 @@ public class Tester
      * @param <T>
      *            the generic type of the Comparable object
      */
-    public static <T> void greaterOrEqual(String message, Comparable<T> lhs, T rhs)
+    public static <T> void lessOrEqual(String message, Comparable<T> lhs, T rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs.compareTo(rhs) >= 0);
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) <= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "<=", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one double value is greater than or equal to another within a supplied margin
+     * Test if one double value is less than or equal to another within a supplied margin
      *
      * @param message
      *            the message to display when running the test
@@ -352,15 +2795,20 @@ public class Tester
      * @param margin
      *            the maximum difference between which two values are still considered the same
      */
-    public static void greaterOrEqual(String message, double lhs, double rhs, double margin)
+    public static void lessOrEqual(String message, double lhs, double rhs, double margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs + " ± " + margin);
-        test(lhs >= rhs + Math.abs(margin));
+        long start = clock();
+        boolean evaluation = lhs <= rhs - Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one float value is greater than or equal to another within a supplied margin
+     * Test if one float value is less than or equal to another within a supplied margin
      *
      * @param message
      *            the message to display when running the test
@@ -371,15 +2819,20 @@ public class Tester
      * @param margin
      *            the maximum difference between which two values are still considered the same
      */
-    public static void greaterOrEqual(String message, float lhs, float rhs, float margin)
+    public static void lessOrEqual(String message, float lhs, float rhs, float margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs + " ± " + margin);
-        test(lhs >= rhs + Math.abs(margin));
+        long start = clock();
+        boolean evaluation = lhs <= rhs - Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one int value is greater than or equal to another.
+     * Test if one int value is less than or equal to another.
      *
      * @param message
      *            the message to display when running the test
@@ -388,15 +2841,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterOrEqual(String message, int lhs, int rhs)
+    public static void lessOrEqual(String message, int lhs, int rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs >= rhs);
+        long start = clock();
+        boolean evaluation = lhs <= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one long value is greater than or equal to another.
+     * Test if one long value is less than or equal to another.
      *
      * @param message
      *            the message to display when running the test
@@ -405,15 +2862,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterOrEqual(String message, long lhs, long rhs)
+    public static void lessOrEqual(String message, long lhs, long rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs >= rhs);
+        long start = clock();
+        boolean evaluation = lhs <= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one short value is greater than or equal to another.
+     * Test if one short value is less than or equal to another.
      *
      * @param message
      *            the message to display when running the test
@@ -422,15 +2883,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterOrEqual(String message, short lhs, short rhs)
+    public static void lessOrEqual(String message, short lhs, short rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " >= " + rhs);
-        test(lhs >= rhs);
+        long start = clock();
+        boolean evaluation = lhs <= rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one byte value is greater than another.
+     * Test if one byte value is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -439,15 +2904,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterThan(String message, byte lhs, byte rhs)
+    public static void lessThan(String message, byte lhs, byte rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs > rhs);
+        long start = clock();
+        boolean evaluation = lhs < rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one char value is greater than another.
+     * Test if one char value is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -456,15 +2925,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterThan(String message, char lhs, char rhs)
+    public static void lessThan(String message, char lhs, char rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs > rhs);
+        long start = clock();
+        boolean evaluation = lhs < rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if a Comparable object is greater than another object.
+     * Test if one Comparable object is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -475,15 +2948,19 @@ public class Tester
      * @param <T>
      *            the generic type of the Comparable object
      */
-    public static <T> void greaterThan(String message, Comparable<T> lhs, T rhs)
+    public static <T> void lessThan(String message, Comparable<T> lhs, T rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs.compareTo(rhs) > 0);
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) < 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "<", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one double value is greater than another within a supplied margin.
+     * Test if one double value is less than another within a supplied margin.
      *
      * @param message
      *            the message to display when running the test
@@ -494,15 +2971,20 @@ public class Tester
      * @param margin
      *            the maximum difference between which two values are still considered the same
      */
-    public static void greaterThan(String message, double lhs, double rhs, double margin)
+    public static void lessThan(String message, double lhs, double rhs, double margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs + " ± " + margin);
-        test(lhs > rhs + Math.abs(margin));
+        long start = clock();
+        boolean evaluation = lhs < rhs - Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one float value is greater than another within a supplied margin.
+     * Test if one float value is less than another within a supplied margin.
      *
      * @param message
      *            the message to display when running the test
@@ -513,15 +2995,20 @@ public class Tester
      * @param margin
      *            the maximum difference between which two values are still considered the same
      */
-    public static void greaterThan(String message, float lhs, float rhs, float margin)
+    public static void lessThan(String message, float lhs, float rhs, float margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs + " ± " + margin);
-        test(lhs > rhs + Math.abs(margin));
+        long start = clock();
+        boolean evaluation = lhs < rhs - Math.abs(margin);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one int value is greater than another.
+     * Test if one int value is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -530,15 +3017,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterThan(String message, int lhs, int rhs)
+    public static void lessThan(String message, int lhs, int rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs > rhs);
+        long start = clock();
+        boolean evaluation = lhs < rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one long value is greater than another.
+     * Test if one long value is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -547,15 +3038,19 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterThan(String message, long lhs, long rhs)
+    public static void lessThan(String message, long lhs, long rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs > rhs);
+        long start = clock();
+        boolean evaluation = lhs < rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one short value is greater than another.
+     * Test if one short value is less than another.
      *
      * @param message
      *            the message to display when running the test
@@ -564,128 +3059,155 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void greaterThan(String message, short lhs, short rhs)
-    {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " > " + rhs);
-        test(lhs > rhs);
-    }
-
-    /**
-     * Test if a boolean value is false.
-     *
-     * @param message
-     *            the message to display when running the test
-     * @param value
-     *            the boolean value to test
-     */
-    public static void isFalse(String message, boolean value)
-    {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + value);
-        test(!value);
-    }
-
-    /**
-     * Test if an Object is non-null.
-     *
-     * @param message
-     *            the message to display when running the test
-     * @param object
-     *            the Object to test
-     */
-    public static void isNotNull(String message, Object object)
+    public static void lessThan(String message, short lhs, short rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + object);
-        test(object != null);
+        long start = clock();
+        boolean evaluation = lhs < rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("<").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if an Object is null.
+     * Test if a text matches a snapshot file, as UTF-8. The text is streamed into a SHA-256 digest that is compared
+     * against the digest stored alongside the snapshot, so a matching text is checked without reading the snapshot or
+     * copying the text. Only on a mismatch are the text and the memory-mapped snapshot compared byte by byte, and only
+     * the line around the first difference is printed. In update mode, set by setSnapshotUpdate, the text is written
+     * to the snapshot instead.
      *
      * @param message
      *            the message to display when running the test
-     * @param object
-     *            the Object to test
+     * @param actual
+     *            the text to compare
+     * @param snapshot
+     *            the snapshot file, next to which the digest file is kept
      */
-    public static void isNull(String message, Object object)
+    public static void matchesSnapshot(String message, CharSequence actual, File snapshot)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + object);
-        test(object == null);
+        matchesSnapshot(message, Snapshot.of(actual), snapshot);
     }
 
     /**
-     * Test if a boolean value is true.
+     * Test if a streamed output matches a snapshot file. The source is asked to write its output once to compute its
+     * digest, and once more only if the digest does not match, so outputs too large to hold in memory can be
+     * compared. In update mode, set by setSnapshotUpdate, the output is written to the snapshot instead.
      *
      * @param message
      *            the message to display when running the test
-     * @param value
-     *            the boolean value to test
+     * @param actual
+     *            the source of the output to compare, which must write the same bytes each time
+     * @param snapshot
+     *            the snapshot file, next to which the digest file is kept
      */
-    public static void isTrue(String message, boolean value)
+    public static void matchesSnapshot(String message, SnapshotSource actual, File snapshot)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + value);
-        test(value);
+        long start = clock();
+        Snapshot outcome;
+        try
+        {
+            outcome = Snapshot.check(snapshot, actual);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        boolean evaluation = outcome.isPassed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (snapshot " + snapshot.getPath() + "): ");
+            Snapshot.Outcome kind = outcome.getOutcome();
+            if (kind == Snapshot.Outcome.MATCHED)
+            {
+                renderer.value(outcome.getSize()).text(" bytes match digest ").value(outcome.getDigest());
+            }
+            else if (kind == Snapshot.Outcome.UPDATED)
+            {
+                renderer.text("updated with ").value(outcome.getSize()).text(" bytes");
+            }
+            else if (kind == Snapshot.Outcome.MISSING)
+            {
+                renderer.text("no snapshot file; record one with setSnapshotUpdate(true) or vtest.snapshot.update");
+            }
+            else
+            {
+                renderer.value(outcome.getActual()).operator("==").value(outcome.getExpected()).text(
+                        " (first difference at line " + outcome.getLine() + ", byte " + outcome.getOffset() + ")");
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one byte value is greater than or equal to another.
+     * Test if no element of an iterator matches a predicate, consuming the iterator once in constant memory. The scan
+     * stops at the first element that matches, whose index and value are printed.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
      */
-    public static void lessOrEqual(String message, byte lhs, byte rhs)
+    public static <T> void noneMatch(String message, Iterator<T> values, Predicate<? super T> predicate)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs <= rhs);
+        long start = clock();
+        SequenceScan scan = SequenceScan.match(values, predicate, false);
+        boolean evaluation = scan.passed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (none match): ");
+            if (evaluation)
+            {
+                renderer.value(scan.getCount()).text(" elements do not match");
+            }
+            else
+            {
+                renderer.text("element ").value(scan.getIndex()).text(" matches: ").value(scan.getElement());
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one char value is less than or equal to another.
+     * Test if no element of an iterable matches a predicate, consuming it once in constant memory.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
      */
-    public static void lessOrEqual(String message, char lhs, char rhs)
+    public static <T> void noneMatch(String message, Iterable<T> values, Predicate<? super T> predicate)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs <= rhs);
+        noneMatch(message, values.iterator(), predicate);
     }
 
     /**
-     * Test if one Comparable object is less than or equal to another.
+     * Test if no element of a stream matches a predicate, consuming it once in constant memory. The stream is closed
+     * afterwards.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
-     * @param <T>
-     *            the generic type of the Comparable object
+     * @param values
+     *            the elements to test
+     * @param predicate
+     *            the predicate to test each element with
      */
-    public static <T> void lessOrEqual(String message, Comparable<T> lhs, T rhs)
+    public static <T> void noneMatch(String message, Stream<T> values, Predicate<? super T> predicate)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs.compareTo(rhs) <= 0);
+        try (Stream<T> stream = values)
+        {
+            noneMatch(message, stream.iterator(), predicate);
+        }
     }
 
     /**
-     * Test if one double value is less than or equal to another within a supplied margin
+     * Test if two object graphs are not structurally equal.
      *
      * @param message
      *            the message to display when running the test
@@ -693,18 +3215,22 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
+     * @see #deepEqual(String, Object, Object)
      */
-    public static void lessOrEqual(String message, double lhs, double rhs, double margin)
+    public static void notDeepEqual(String message, Object lhs, Object rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs + " ± " + margin);
-        test(lhs <= rhs - Math.abs(margin));
+        long start = clock();
+        boolean evaluation = DeepEquality.firstDifference(lhs, rhs, 0.0) != null;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (deep equals): ").value(lhs).operator("!=").value(rhs).done(),
+                    evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one float value is less than or equal to another within a supplied margin
+     * Test if two boolean values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -712,18 +3238,21 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
      */
-    public static void lessOrEqual(String message, float lhs, float rhs, float margin)
+    public static void notEqual(String message, boolean lhs, boolean rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs + " ± " + margin);
-        test(lhs <= rhs - Math.abs(margin));
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one int value is less than or equal to another.
+     * Test if two boolean arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -732,15 +3261,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void lessOrEqual(String message, int lhs, int rhs)
+    public static void notEqual(String message, boolean[] lhs, boolean[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs <= rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one long value is less than or equal to another.
+     * Test if two byte values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -749,15 +3283,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void lessOrEqual(String message, long lhs, long rhs)
+    public static void notEqual(String message, byte lhs, byte rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs <= rhs);
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one short value is less than or equal to another.
+     * Test if two byte arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -766,15 +3305,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void lessOrEqual(String message, short lhs, short rhs)
+    public static void notEqual(String message, byte[] lhs, byte[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " <= " + rhs);
-        test(lhs <= rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one byte value is less than another.
+     * Test if two char values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -783,15 +3327,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void lessThan(String message, byte lhs, byte rhs)
+    public static void notEqual(String message, char lhs, char rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs < rhs);
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one char value is less than another.
+     * Test if two char arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -800,15 +3349,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void lessThan(String message, char lhs, char rhs)
+    public static void notEqual(String message, char[] lhs, char[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs < rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one Comparable object is less than another.
+     * Test if a Comparable object is unequal to another object.
      *
      * @param message
      *            the message to display when running the test
@@ -819,15 +3373,19 @@ public class Tester
      * @param <T>
      *            the generic type of the Comparable object
      */
-    public static <T> void lessThan(String message, Comparable<T> lhs, T rhs)
+    public static <T> void notEqual(String message, Comparable<T> lhs, T rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs.compareTo(rhs) < 0);
+        long start = clock();
+        boolean evaluation = lhs.compareTo(rhs) != 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "!=", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one double value is less than another within a supplied margin.
+     * Test if an object is unequal to another object.
      *
      * @param message
      *            the message to display when running the test
@@ -835,18 +3393,42 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
      */
-    public static void lessThan(String message, double lhs, double rhs, double margin)
+    public static void notEqual(String message, Object lhs, Object rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs + " ± " + margin);
-        test(lhs < rhs - Math.abs(margin));
+        long start = clock();
+        boolean evaluation = !(lhs != null || rhs == null) || !lhs.equals(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (object equals): ").comparison(lhs, "!=", rhs, false).done(),
+                    evaluation);
+        }
+        test(evaluation, start);
+        start = clock();
+        evaluation = !(rhs != null || lhs == null) || !rhs.equals(lhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(" (symmetric object equals): ")
+                    .comparison(rhs, "!=", lhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
+        if (lhs != null && rhs != null)
+        {
+            start = clock();
+            int lhsHashCode = lhs.hashCode();
+            int rhsHashCode = rhs.hashCode();
+            evaluation = lhsHashCode != rhsHashCode;
+            if (shouldReport(evaluation))
+            {
+                report(Renderer.begin(message).text(" (hash code equals): ").value(lhsHashCode).operator("!=")
+                        .value(rhsHashCode).done(), evaluation);
+            }
+            test(evaluation, start);
+        }
     }
 
     /**
-     * Test if one float value is less than another within a supplied margin.
+     * Test if double char values are unequal within a supplied margin.
      *
      * @param message
      *            the message to display when running the test
@@ -857,15 +3439,22 @@ public class Tester
      * @param margin
      *            the maximum difference between which two values are still considered the same
      */
-    public static void lessThan(String message, float lhs, float rhs, float margin)
+    public static void notEqual(String message, double lhs, double rhs, double margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs + " ± " + margin);
-        test(lhs < rhs - Math.abs(margin));
+        long start = clock();
+        double difference = lhs - rhs;
+        boolean evaluation = Math.abs(difference) > margin;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one int value is less than another.
+     * Test if two double arrays are unequal within a supplied margin, element by element. Equal arrays have no
+     * difference to show, so when they fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -873,16 +3462,24 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
      */
-    public static void lessThan(String message, int lhs, int rhs)
+    public static void notEqual(String message, double[] lhs, double[] rhs, double margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs < rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs, margin);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one long value is less than another.
+     * Test if float char values are unequal within a supplied margin.
      *
      * @param message
      *            the message to display when running the test
@@ -890,16 +3487,25 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
      */
-    public static void lessThan(String message, long lhs, long rhs)
+    public static void notEqual(String message, float lhs, float rhs, float margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs < rhs);
+        long start = clock();
+        double difference = lhs - rhs;
+        boolean evaluation = Math.abs(difference) > margin;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if one short value is less than another.
+     * Test if two float arrays are unequal within a supplied margin, element by element. Equal arrays have no
+     * difference to show, so when they fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -907,16 +3513,24 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
+     * @param margin
+     *            the maximum difference between which two values are still considered the same
      */
-    public static void lessThan(String message, short lhs, short rhs)
+    public static void notEqual(String message, float[] lhs, float[] rhs, float margin)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " < " + rhs);
-        test(lhs < rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs, margin);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs)
+                    .text(" ± ").value(margin).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if two boolean values are unequal.
+     * Test if two int values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -925,15 +3539,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void notEqual(String message, boolean lhs, boolean rhs)
+    public static void notEqual(String message, int lhs, int rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if two byte values are unequal.
+     * Test if two int arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -942,15 +3561,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void notEqual(String message, byte lhs, byte rhs)
+    public static void notEqual(String message, int[] lhs, int[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if two char values are unequal.
+     * Test if two long values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -959,15 +3583,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void notEqual(String message, char lhs, char rhs)
+    public static void notEqual(String message, long lhs, long rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if a Comparable object is unequal to another object.
+     * Test if two long arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -975,18 +3604,21 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param <T>
-     *            the generic type of the Comparable object
      */
-    public static <T> void notEqual(String message, Comparable<T> lhs, T rhs)
+    public static void notEqual(String message, long[] lhs, long[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs.compareTo(rhs) != 0);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if an object is unequal to another object.
+     * Test if two short values are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -995,22 +3627,20 @@ public class Tester
      * @param rhs
      *            the right hand side of the equality
      */
-    public static void notEqual(String message, Object lhs, Object rhs)
+    public static void notEqual(String message, short lhs, short rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + " (object equals): " + lhs + " != " + rhs);
-        test(!(lhs != null || rhs == null) || !lhs.equals(rhs));
-        System.out.println("\t\t" + message + " (symmetric object equals): " + rhs + " != " + lhs);
-        test(!(rhs != null || lhs == null) || !rhs.equals(lhs));
-        if (lhs != null && rhs != null)
+        long start = clock();
+        boolean evaluation = lhs != rhs;
+        if (shouldReport(evaluation))
         {
-            System.out.println("\t\t" + message + " (hash code equals): " + lhs.hashCode() + " != " + rhs.hashCode());
-            test(lhs.hashCode() != rhs.hashCode());
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
         }
+        test(evaluation, start);
     }
 
     /**
-     * Test if double char values are unequal within a supplied margin.
+     * Test if two short arrays are unequal, element by element. Equal arrays have no difference to show, so when they
+     * fail the test they are printed from their first element.
      *
      * @param message
      *            the message to display when running the test
@@ -1018,19 +3648,21 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
      */
-    public static void notEqual(String message, double lhs, double rhs, double margin)
+    public static void notEqual(String message, short[] lhs, short[] rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs + " ± " + margin);
-        double difference = lhs - rhs;
-        test(Math.abs(difference) > margin);
+        long start = clock();
+        int mismatch = ArrayScanner.mismatch(lhs, rhs);
+        boolean evaluation = mismatch >= 0;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").value(lhs).operator("!=").value(rhs).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if float char values are unequal within a supplied margin.
+     * Test if two String objects are unequal.
      *
      * @param message
      *            the message to display when running the test
@@ -1038,109 +3670,419 @@ public class Tester
      *            the left hand side of the equality
      * @param rhs
      *            the right hand side of the equality
-     * @param margin
-     *            the maximum difference between which two values are still considered the same
      */
-    public static void notEqual(String message, float lhs, float rhs, float margin)
+    public static void notEqual(String message, String lhs, String rhs)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs + " ± " + margin);
-        double difference = lhs - rhs;
-        test(Math.abs(difference) > margin);
+        long start = clock();
+        boolean evaluation = !lhs.equals(rhs);
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).text(": ").comparison(lhs, "!=", rhs, false).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if two int values are unequal.
+     * A test that passes if it is reached in the code.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
      */
-    public static void notEqual(String message, int lhs, int rhs)
+    public static void pass(String message)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        long start = clock();
+        boolean evaluation = true;
+        if (shouldReport(evaluation))
+        {
+            report(Renderer.begin(message).done(), evaluation);
+        }
+        test(evaluation, start);
     }
 
     /**
-     * Test if two long values are unequal.
+     * Reset every scope's counters and latency histograms, and the total count used for progress reports.
+     */
+    public static void resetMetrics()
+    {
+        Metrics.reset();
+    }
+
+    /**
+     * Set the reporter that Tester writes a JSON record for each assertion to, alongside its console output. Records
+     * are written regardless of verbosity. The previous reporter is flushed, but not closed, before it is replaced.
+     * Initially there is no reporter, unless the system property vtest.json names a file to write records to.
      *
-     * @param message
-     *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param reporter
+     *            the new JSON reporter, or null to stop writing records
      */
-    public static void notEqual(String message, long lhs, long rhs)
+    public static void setJsonReporter(JsonReporter reporter)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        JsonReporter previousReporter = jsonReporter;
+        jsonReporter = reporter;
+        if (previousReporter != null)
+        {
+            previousReporter.flush();
+        }
     }
 
     /**
-     * Test if two short values are unequal.
+     * Enable or disable per-scope metrics. While enabled, Tester counts passed and failed assertions and records how
+     * long each assertion took to evaluate, per scope. This requires resolving the scope of every assertion, even in
+     * the quieter verbosities, so metrics are disabled by default unless the system property vtest.metrics is true.
      *
-     * @param message
-     *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param enabled
+     *            true to keep per-scope metrics
+     * @see #getMetrics()
      */
-    public static void notEqual(String message, short lhs, short rhs)
+    public static void setMetricsEnabled(boolean enabled)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(lhs != rhs);
+        Metrics.setEnabled(enabled);
     }
 
     /**
-     * Test if two String objects are unequal.
+     * Set the sink that Tester's verbose output is written to. The previous sink is flushed before it is replaced.
+     * The initial sink is a ConsoleSink, or an AsyncSink if the system property vtest.output is set to "async", or a
+     * MappedFileSink writing to the directory named by vtest.output.dir (by default build/vtest) if it is set to
+     * "mapped".
+     *
+     * @param outputSink
+     *            the new output sink
+     */
+    public static void setOutputSink(OutputSink outputSink)
+    {
+        if (outputSink == null)
+        {
+            throw new IllegalArgumentException("outputSink must not be null");
+        }
+        OutputSink previousSink = sink;
+        sink = outputSink;
+        previousSink.flush();
+    }
+
+    /**
+     * Periodically print the number of assertions made so far and the throughput since the last report, from a
+     * background thread. Progress reports only need a shared counter, so they do not require per-scope metrics. By
+     * default there are no progress reports, unless the system property vtest.progress is set to an interval in
+     * seconds.
+     *
+     * @param interval
+     *            the time between reports, or 0 to stop reporting progress
+     * @param unit
+     *            the unit of the interval
+     */
+    public static void setProgressInterval(long interval, TimeUnit unit)
+    {
+        Metrics.setProgressInterval(interval, unit);
+    }
+
+    /**
+     * Set the number of random values each forAll property is tried against. The default is 1000, or the system
+     * property vtest.property.trials if it is set. The values tried are seeded from each property's message, or from
+     * the system property vtest.property.seed if it is set, and are the same on every run.
+     *
+     * @param trials
+     *            the number of values tried, at least 1
+     */
+    public static void setPropertyTrials(int trials)
+    {
+        PropertyCheck.setTrials(trials);
+    }
+
+    /**
+     * Set the bounds used to render operands. Strings longer than maxChars are cut off, and collections, maps and
+     * arrays with more than maxElements elements are rendered as their size and a sample of their first and last
+     * elements. The defaults are 20 elements and 1000 characters, or the system properties vtest.render.elements and
+     * vtest.render.chars if they are set.
+     *
+     * @param maxElements
+     *            the maximum number of elements rendered for a collection, map or array
+     * @param maxChars
+     *            the maximum number of characters rendered for a single operand
+     */
+    public static void setRenderLimits(int maxElements, int maxChars)
+    {
+        Renderer.setLimits(maxElements, maxChars);
+    }
+
+    /**
+     * Report the slowest assertions of each scope. While enabled, sampled assertions are timed in two phases, the
+     * comparison of their operands and the rendering of their line, and their costs are totalled per message. When a
+     * thread leaves a scope, the call sites whose slowest call took at least the threshold are printed, slowest first,
+     * with their cost breakdown. Sampled assertions render their line even when nothing is printed. The report is off
+     * unless the system property vtest.slow sets the number of call sites, and the threshold is 1 millisecond unless
+     * vtest.slow.threshold sets it in milliseconds.
+     *
+     * @param top
+     *            the number of call sites reported per scope, or 0 to stop timing assertions
+     * @param threshold
+     *            the time that the slowest call at a call site must take for the call site to be reported
+     * @param unit
+     *            the unit of the threshold
+     * @see #setSlowAssertionSampling(int)
+     */
+    public static void setSlowAssertionReport(int top, long threshold, TimeUnit unit)
+    {
+        SlowAssertions.setReport(top, threshold, unit);
+    }
+
+    /**
+     * Set how often assertions are sampled for the slow assertion report. One in every interval assertions on each
+     * thread is timed and renders its line; the rest skip both. The interval is 64 unless the system property
+     * vtest.slow.sampling sets it, and an interval of 1 times every assertion at the cost of rendering every line.
+     *
+     * @param interval
+     *            the number of assertions on each thread for each one sampled, at least 1
+     */
+    public static void setSlowAssertionSampling(int interval)
+    {
+        SlowAssertions.setSampling(interval);
+    }
+
+    /**
+     * Set whether snapshot assertions write their output to the snapshot file instead of comparing against it, to
+     * record new snapshots or accept changed ones. Update mode is off unless the system property vtest.snapshot.update
+     * is set to true.
+     *
+     * @param update
+     *            true to write snapshots, or false to compare against them
+     */
+    public static void setSnapshotUpdate(boolean update)
+    {
+        Snapshot.setUpdate(update);
+    }
+
+    /**
+     * Set the number of samples taken by timing assertions. Each sample times a batch of calls that is large enough to
+     * take at least 10 microseconds. The warmup samples give the JIT compiler a chance to compile the task and are
+     * discarded. The defaults are 20 warmup and 50 measurement iterations, or the system properties
+     * vtest.timing.warmup and vtest.timing.measurement if they are set.
+     *
+     * @param warmupIterations
+     *            the number of samples taken and discarded before measuring
+     * @param measurementIterations
+     *            the number of samples measured, at least 2
+     */
+    public static void setTimingIterations(int warmupIterations, int measurementIterations)
+    {
+        TaskTimer.setIterations(warmupIterations, measurementIterations);
+    }
+
+    /**
+     * Set how much output Tester produces. The initial verbosity is FULL, or the value of the system property
+     * vtest.verbosity (full, failures-only or summary-only) if it is set.
+     *
+     * @param newVerbosity
+     *            the new verbosity
+     */
+    public static void setVerbosity(Verbosity newVerbosity)
+    {
+        if (newVerbosity == null)
+        {
+            throw new IllegalArgumentException("verbosity must not be null");
+        }
+        verbosity = newVerbosity;
+    }
+
+    /**
+     * Open a batch of soft assertions on the current thread. Until the batch is closed, failing assertions are recorded
+     * instead of thrown, and closing the batch throws one AssertionError that lists them all.
+     *
+     * @return the new batch, to be closed with try-with-resources
+     * @see #softly(Runnable)
+     */
+    public static SoftAssertions softAssertions()
+    {
+        return SoftAssertions.open(SoftAssertions.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Open a batch of soft assertions on the current thread, presized for an expected number of failures.
+     *
+     * @param capacity
+     *            the number of failures to presize the batch for
+     * @return the new batch, to be closed with try-with-resources
+     */
+    public static SoftAssertions softAssertions(int capacity)
+    {
+        return SoftAssertions.open(capacity);
+    }
+
+    /**
+     * Run assertions as a batch of soft assertions on the current thread. Failing assertions are recorded instead of
+     * thrown, and once the assertions have run one AssertionError that lists them all is thrown. If the assertions
+     * throw, the batch is still closed, and its failures are added to the exception as a suppressed AssertionError.
+     *
+     * @param assertions
+     *            the assertions to run
+     */
+    @SuppressWarnings("try")
+    public static void softly(Runnable assertions)
+    {
+        try (SoftAssertions batch = SoftAssertions.open(SoftAssertions.DEFAULT_CAPACITY))
+        {
+            assertions.run();
+        }
+    }
+
+    /**
+     * Run a task on many threads at once and test that none of them threw. The threads wait at a barrier until all of
+     * them have started, then each calls the task once with its index and the number of iterations to perform. The
+     * run's throughput and contention are printed with the result, and the returned result holds each thread's return
+     * value, so that invariants such as totals and lost updates can be asserted once every thread has finished. The
+     * threads are daemon platform threads.
      *
      * @param message
      *            the message to display when running the test
-     * @param lhs
-     *            the left hand side of the equality
-     * @param rhs
-     *            the right hand side of the equality
+     * @param threads
+     *            the number of threads to run the task on
+     * @param iterations
+     *            the number of operations each thread should perform
+     * @param task
+     *            the task to run on each thread
+     * @return the outcome of the run
      */
-    public static void notEqual(String message, String lhs, String rhs)
+    public static <T> StressResult<T> stress(String message, int threads, int iterations, StressTask<T> task)
     {
-        checkScope();
-        System.out.println("\t\t" + message + ": " + lhs + " != " + rhs);
-        test(!lhs.equals(rhs));
+        return stress(message, threads, StressResult.DAEMON_THREADS, iterations, task);
     }
 
     /**
-     * A test that passes if it is reached in the code.
+     * Run a task on many threads at once and test that none of them threw. The threads are created by a factory,
+     * which can create virtual threads on Java 21 or later with Thread.ofVirtual().factory(). Contention is not counted
+     * for virtual threads.
      *
      * @param message
      *            the message to display when running the test
+     * @param threads
+     *            the number of threads to run the task on
+     * @param factory
+     *            the factory that creates the threads
+     * @param iterations
+     *            the number of operations each thread should perform
+     * @param task
+     *            the task to run on each thread
+     * @return the outcome of the run
+     * @throws IllegalStateException
+     *             if the factory fails to create a thread, or the threads it creates do not all start within 30
+     *             seconds, in which case no thread runs the task
      */
-    public static void pass(String message)
-    {
-        checkScope();
-        System.out.println("\t\t" + message);
-        test(true);
+    public static <T> StressResult<T> stress(String message, int threads, ThreadFactory factory, int iterations,
+            StressTask<T> task)
+    {
+        long start = clock();
+        StressResult<T> result = StressResult.run(threads, factory, iterations, task);
+        List<Throwable> exceptions = result.getExceptions();
+        boolean evaluation = exceptions.isEmpty();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (stress): ").value(exceptions.size()).text(" of ")
+                    .value(threads).text(" threads failed (" + result + ")");
+            if (!evaluation)
+            {
+                renderer.text(" first exception ").value(exceptions.get(0));
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+        return result;
     }
 
-    private static void test(Boolean evaluation)
+    private static void test(boolean evaluation, long start)
     {
+        Verbosity localVerbosity = verbosity;
+        if (Metrics.isActive())
+        {
+            Metrics.count();
+        }
+        CharSequence slowest = start != 0L ? record(evaluation, start) : null;
         if (evaluation)
         {
-            System.out.println("\t\t\t✓ PASSED");
+            if (localVerbosity == Verbosity.SUMMARY_ONLY)
+            {
+                passed.increment();
+            }
+            if (slowest != null)
+            {
+                sink.println(slowest);
+            }
             assertTrue(true);
         }
         else
         {
-            System.out.println("\t\t\t✗ FAILED");
-            assertTrue(false);
+            if (localVerbosity == Verbosity.SUMMARY_ONLY)
+            {
+                failed.increment();
+            }
+            if (slowest != null)
+            {
+                sink.println(slowest);
+            }
+            if (SoftAssertions.current() == null)
+            {
+                sink.flush();
+                assertTrue(false);
+            }
+        }
+    }
+
+    /**
+     * Report and test the outcome of an order check over an array or a list, printing the first element that is out
+     * of order with the element before it.
+     */
+    private static void testOrder(String message, String label, Object values, int length, int index, boolean strict,
+            long start)
+    {
+        boolean evaluation = index < 0;
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(label);
+            if (evaluation)
+            {
+                renderer.value(length).text(" elements in order");
+            }
+            else
+            {
+                renderer.text("element ").value(index).text(" is out of order: ").value(elementAt(values, index - 1))
+                        .operator(strict ? ">=" : ">").value(elementAt(values, index));
+            }
+            report(renderer.done(), evaluation);
+        }
+        test(evaluation, start);
+    }
+
+    private static Object elementAt(Object values, int index)
+    {
+        return values instanceof List ? ((List<?>) values).get(index) : Array.get(values, index);
+    }
+
+    /**
+     * Check a property, and report and test its outcome, printing the minimal counterexample if it fails.
+     */
+    private static <V> void testProperty(String message, PropertyCheck.Property<V> property)
+    {
+        long start = clock();
+        PropertyCheck<V> check = PropertyCheck.check(property, PropertyCheck.seed(message));
+        boolean evaluation = check.isPassed();
+        if (shouldReport(evaluation))
+        {
+            Renderer renderer = Renderer.begin(message).text(" (for all): ");
+            if (evaluation)
+            {
+                renderer.value(check.getTrialCount()).text(" trials passed");
+            }
+            else
+            {
+                renderer.text("counterexample ").value(check.getCounterexample()).text(" shrunk ")
+                        .value(check.getShrinks()).text(" times from ").value(check.getOriginal())
+                        .text(" in trial ").value(check.getFailingTrial() + 1).text(" of ")
+                        .value(check.getTrialCount());
+                if (check.getThrown() != null)
+                {
+                    renderer.text(" threw ").value(check.getThrown());
+                }
+            }
+            report(renderer.text(" (seed " + check.getSeed() + ")").done(), evaluation);
         }
+        test(evaluation, start);
     }
 }
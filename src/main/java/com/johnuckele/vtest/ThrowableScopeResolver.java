@@ -0,0 +1,25 @@
+package com.johnuckele.vtest;
+
+/**
+ * A ScopeResolver for JVMs without StackWalker. The stack trace is taken from a fresh Throwable rather than through
+ * Thread.getStackTrace(), which avoids the extra security and thread state checks of the latter.
+ *
+ * @author John Uckele
+ */
+final class ThrowableScopeResolver extends ScopeResolver
+{
+    @Override
+    Scope resolve()
+    {
+        StackTraceElement[] elements = new Throwable().getStackTrace();
+        int depth = Math.min(elements.length, MAX_DEPTH);
+        for (int i = 0; i < depth; i++)
+        {
+            if (!isInternal(elements[i].getClassName()))
+            {
+                return scope(elements[i].getClassName(), elements[i].getMethodName());
+            }
+        }
+        return Scope.NONE;
+    }
+}
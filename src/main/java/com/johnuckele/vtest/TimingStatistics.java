@@ -0,0 +1,155 @@
+package com.johnuckele.vtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The distribution of the time taken by one call of a timed task, estimated from a set of samples. Each sample is the
+ * time taken by a batch of calls divided by the size of the batch, so for tasks that are fast enough to be batched the
+ * percentiles are percentiles of batch means rather than of single calls.
+ *
+ * The confidence interval of the mean is the 95% interval of Student's t distribution, with the critical value taken
+ * from a series approximation that is within 1% of the exact value for 4 or more samples.
+ *
+ * @author John Uckele
+ */
+final class TimingStatistics
+{
+    private final double[] samples;
+    private final int      batchSize;
+    private final double   mean;
+    private final double   standardDeviation;
+
+    /**
+     * Summarize a set of samples.
+     *
+     * @param samples
+     *            the nanoseconds taken per call in each sample, of which there must be at least 2; the array is sorted
+     *            in place
+     * @param batchSize
+     *            the number of calls timed together in each sample
+     */
+    TimingStatistics(double[] samples, int batchSize)
+    {
+        if (samples.length < 2)
+        {
+            throw new IllegalArgumentException("at least 2 samples are needed: " + samples.length);
+        }
+        Arrays.sort(samples);
+        this.samples = samples;
+        this.batchSize = batchSize;
+        double sum = 0.0;
+        for (double sample : samples)
+        {
+            sum += sample;
+        }
+        mean = sum / samples.length;
+        double squares = 0.0;
+        for (double sample : samples)
+        {
+            squares += (sample - mean) * (sample - mean);
+        }
+        standardDeviation = Math.sqrt(squares / (samples.length - 1));
+    }
+
+    int getSampleCount()
+    {
+        return samples.length;
+    }
+
+    int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    double getMean()
+    {
+        return mean;
+    }
+
+    double getStandardDeviation()
+    {
+        return standardDeviation;
+    }
+
+    /**
+     * Get half the width of the 95% confidence interval of the mean.
+     *
+     * @return the distance from the mean to either end of the interval, in nanoseconds
+     */
+    double getConfidence()
+    {
+        double degrees = samples.length - 1;
+        double critical = 1.96 + 2.37 / degrees + 2.8 / (degrees * degrees);
+        return critical * standardDeviation / Math.sqrt(samples.length);
+    }
+
+    double getMin()
+    {
+        return samples[0];
+    }
+
+    double getMax()
+    {
+        return samples[samples.length - 1];
+    }
+
+    /**
+     * Get a percentile of the samples, by the nearest rank method.
+     *
+     * @param percentile
+     *            the percentile to get, from 0 to 100
+     * @return the smallest sample that at least that percentage of the samples are less than or equal to
+     */
+    double getPercentile(double percentile)
+    {
+        if (percentile < 0.0 || percentile > 100.0)
+        {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * samples.length);
+        return samples[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Describe the mean and its confidence interval, as in "mean 1.23µs ± 0.04µs".
+     *
+     * @return the description
+     */
+    String describeMean()
+    {
+        return "mean " + format(mean) + " ± " + format(getConfidence());
+    }
+
+    @Override
+    public String toString()
+    {
+        return describeMean() + ", p50 " + format(getPercentile(50.0)) + ", p90 " + format(getPercentile(90.0))
+                + ", p99 " + format(getPercentile(99.0)) + ", max " + format(getMax()) + ", " + samples.length
+                + " samples of " + batchSize + (batchSize == 1 ? " call" : " calls");
+    }
+
+    /**
+     * Format a duration with three significant digits, in the largest unit that keeps it at least 1.
+     *
+     * @param nanos
+     *            the duration in nanoseconds
+     * @return the formatted duration, as in "1.23µs"
+     */
+    static String format(double nanos)
+    {
+        if (nanos < 999.5)
+        {
+            return String.format(Locale.ROOT, "%.3gns", nanos);
+        }
+        if (nanos < 999.5e3)
+        {
+            return String.format(Locale.ROOT, "%.3gµs", nanos / 1e3);
+        }
+        if (nanos < 999.5e6)
+        {
+            return String.format(Locale.ROOT, "%.3gms", nanos / 1e6);
+        }
+        return String.format(Locale.ROOT, "%.3gs", nanos / 1e9);
+    }
+}
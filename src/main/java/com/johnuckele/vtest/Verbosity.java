@@ -0,0 +1,42 @@
+package com.johnuckele.vtest;
+
+/**
+ * How much output Tester produces. Operands are only rendered into text when an assertion's output is actually
+ * printed, so quieter modes also make passing assertions cheaper.
+ *
+ * @author John Uckele
+ */
+public enum Verbosity
+{
+    /**
+     * Print scope headers, the message and operands of every assertion, and its pass/fail status. This is the default.
+     */
+    FULL,
+
+    /**
+     * Print only failing assertions, along with the headers of the scopes they failed in.
+     */
+    FAILURES_ONLY,
+
+    /**
+     * Print nothing per assertion; only a count of passed and failed assertions is printed when the JVM exits.
+     * Failures are still thrown as usual.
+     */
+    SUMMARY_ONLY;
+
+    /**
+     * Parse a verbosity name, ignoring case and accepting '-' in place of '_'.
+     *
+     * @param name
+     *            the name to parse, such as "failures-only"
+     * @return the named verbosity, or FULL if name is null
+     */
+    static Verbosity parse(String name)
+    {
+        if (name == null)
+        {
+            return FULL;
+        }
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,36 @@
+package com.johnuckele.vtest;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * A JUnit 5 extension that tells Tester which test is running, so that every assertion made on the test's thread is
+ * reported under the test, including assertions made from helper methods, and Tester does not have to walk the stack
+ * to find it. BeforeEach and AfterEach methods run inside the callbacks, so their assertions are reported under the
+ * test too.
+ *
+ * <pre>
+ * &#64;ExtendWith(VtestExtension.class)
+ * class WorldTests
+ * </pre>
+ *
+ * Assertions made on other threads, such as those a test starts, still find their scope from the stack. Only this
+ * class depends on the JUnit Jupiter API, which vtest does not bring in itself.
+ *
+ * @author John Uckele
+ */
+public class VtestExtension implements BeforeEachCallback, AfterEachCallback
+{
+    @Override
+    public void beforeEach(ExtensionContext context)
+    {
+        Tester.enterTest(context.getRequiredTestClass().getName(), context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context)
+    {
+        Tester.exitTest();
+    }
+}
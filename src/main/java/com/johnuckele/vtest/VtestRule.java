@@ -0,0 +1,54 @@
+package com.johnuckele.vtest;
+
+import org.junit.rules.TestRule;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+/**
+ * A JUnit 4 rule that tells Tester which test is running, so that every assertion made on the test's thread is
+ * reported under the test, including assertions made from helper methods, and Tester does not have to walk the stack
+ * to find it. Before and after methods run inside the rule, so their assertions are reported under the test too.
+ *
+ * <pre>
+ * &#64;Rule
+ * public final VtestRule vtest = new VtestRule();
+ * </pre>
+ *
+ * Assertions made on other threads, such as those a test starts, still find their scope from the stack.
+ *
+ * @author John Uckele
+ * @see VtestRunListener
+ */
+public class VtestRule implements TestRule
+{
+    @Override
+    public Statement apply(Statement base, Description description)
+    {
+        return new Statement()
+        {
+            @Override
+            public void evaluate() throws Throwable
+            {
+                Tester.enterTest(description.getClassName(), description.getMethodName());
+                try
+                {
+                    base.evaluate();
+                }
+                catch (Throwable e)
+                {
+                    // The test's own failure is reported, with any soft assertion batch it left open attached
+                    try
+                    {
+                        Tester.exitTest();
+                    }
+                    catch (AssertionError abandoned)
+                    {
+                        e.addSuppressed(abandoned);
+                    }
+                    throw e;
+                }
+                Tester.exitTest();
+            }
+        };
+    }
+}
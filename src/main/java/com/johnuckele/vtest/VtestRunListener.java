@@ -0,0 +1,37 @@
+package com.johnuckele.vtest;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * A JUnit 4 run listener that tells Tester which test is running, for every test in a run without changing the test
+ * classes. Add it to a JUnitCore, or to a build tool's JUnit 4 runner configuration. JUnit notifies a listener on the
+ * thread that runs the test, so assertions on that thread are reported under the test without walking the stack.
+ *
+ * Assertions made on other threads, such as those a test starts, still find their scope from the stack.
+ *
+ * @author John Uckele
+ * @see VtestRule
+ */
+@RunListener.ThreadSafe
+public class VtestRunListener extends RunListener
+{
+    @Override
+    public void testStarted(Description description)
+    {
+        Tester.enterTest(description.getClassName(), description.getMethodName());
+    }
+
+    @Override
+    public void testFinished(Description description)
+    {
+        try
+        {
+            Tester.exitTest();
+        }
+        catch (AssertionError e)
+        {
+            // A listener cannot fail the test, so a soft assertion batch left open is only printed and discarded
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class AllocationTests
+{
+    @Test
+    public void testAllocatesAtMost()
+    {
+        long[] counter = new long[1];
+        Tester.allocatesAtMost("incrementing allocates nothing", () ->
+        {
+            counter[0]++;
+        }, 0);
+        Tester.allocatesAtMost("an array of 1024 bytes", () -> new byte[1024], 2048);
+        // Object layouts differ between JVMs, so amortized growth is compared with a small array measured on this one
+        long smallArray = AllocationMeasurement.measure(() -> new Object[8]).getMedian();
+        List<Integer> list = new ArrayList<Integer>();
+        Tester.allocatesAtMost("amortized list growth", () -> list.add(1), smallArray);
+        try
+        {
+            Tester.allocatesAtMost("an array of 1024 bytes", () -> new byte[1024], 1023);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.allocatesAtMost("a string", () -> Long.toString(counter[0]++), 0);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testCollections()
+    {
+        long[] counter = new long[1];
+        Tester.allocatesAtMost("incrementing runs no collections", () ->
+        {
+            counter[0]++;
+        }, 0, true);
+        try
+        {
+            Tester.allocatesAtMost("collecting", (Runnable) System::gc, 0, true);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testMeasurement()
+    {
+        Tester.equal("an empty task allocates nothing", AllocationMeasurement.measure(() -> null).getMedian(), 0L);
+        AllocationMeasurement measurement = AllocationMeasurement.measure(() -> new long[16]);
+        AllocationMeasurement larger = AllocationMeasurement.measure(() -> new long[32]);
+        Tester.greaterOrEqual("the array is counted", measurement.getMedian(), 16L * 8);
+        // The array header size varies between JVMs, but sixteen more elements always add the same number of bytes
+        long elements = larger.getMin() - measurement.getMin();
+        Tester.equal("sixteen more elements are counted exactly", elements, 16L * 8);
+        Tester.lessOrEqual("the counter's overhead is subtracted", measurement.getMin() - 16L * 8, elements);
+        Tester.equal("calls are measured separately", measurement.getCalls(), 50);
+    }
+}
@@ -0,0 +1,157 @@
+package com.johnuckele.vtest;
+
+import org.junit.Test;
+
+public class ArrayTests
+{
+    @Test
+    public void testEqualityForIntegerArrays()
+    {
+        int[] values = new int[100000];
+        int[] sameValues = new int[100000];
+        int[] otherValues = new int[100000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i;
+            sameValues[i] = i;
+            otherValues[i] = i == 77777 ? -1 : i;
+        }
+
+        // Test ==
+        Tester.equal("equal", values, sameValues);
+        try
+        {
+            Tester.equal("equal", values, otherValues);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.equal("equal", values, new int[] { 0, 1, 2 });
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+
+        // Test !=
+        Tester.notEqual("notEqual", values, otherValues);
+        try
+        {
+            Tester.notEqual("notEqual", values, sameValues);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+
+        // Test contains
+        Tester.contains("contains", values, 99999);
+        try
+        {
+            Tester.contains("contains", values, -1);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testEqualityForFloatingPointArrays()
+    {
+        double[] values = new double[1000];
+        double[] closeValues = new double[1000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i;
+            closeValues[i] = i + 0.01;
+        }
+        Tester.equal("equal", values, closeValues, 0.1);
+        Tester.notEqual("notEqual", values, closeValues, 0.001);
+        Tester.contains("contains", values, 500.05, 0.1);
+
+        closeValues[999] = Double.NaN;
+        Tester.notEqual("NaN is never equal", values, closeValues, 0.1);
+        Tester.equal("float equal", new float[] { 1.0f, 2.0f }, new float[] { 1.05f, 2.05f }, 0.1f);
+    }
+
+    @Test
+    public void testExactEqualityForFloatingPointArrays()
+    {
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = i / 3.0;
+        }
+        values[999] = Double.NaN;
+        Tester.equal("exactly equal", values, values.clone());
+        Tester.equal("float exactly equal", new float[] { 1.0f, Float.NaN }, new float[] { 1.0f, Float.NaN });
+        Tester.equal("double mismatch", ArrayScanner.mismatch(values, values.clone()), -1);
+        double[] otherValues = values.clone();
+        otherValues[700] = Math.nextUp(otherValues[700]);
+        Tester.equal("nearest double mismatch", ArrayScanner.mismatch(values, otherValues), 700);
+        Tester.equal("signed zero mismatch", ArrayScanner.mismatch(new float[] { 0.0f }, new float[] { -0.0f }), 0);
+        try
+        {
+            Tester.equal("equal", values, otherValues);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testMismatch()
+    {
+        long[] longs = new long[1000];
+        long[] otherLongs = new long[1000];
+        otherLongs[640] = 1;
+        Tester.equal("long mismatch", ArrayScanner.mismatch(longs, otherLongs), 640);
+        Tester.equal("prefix mismatch", ArrayScanner.mismatch(new byte[] { 1, 2 }, new byte[] { 1, 2, 3 }), 2);
+        Tester.equal("no mismatch", ArrayScanner.mismatch(new char[] { 'a' }, new char[] { 'a' }), -1);
+        Tester.equal("null mismatch", ArrayScanner.mismatch(new short[0], null), 0);
+        Tester.equal("both null", ArrayScanner.mismatch((boolean[]) null, null), -1);
+
+        double[] doubles = new double[1000];
+        double[] otherDoubles = new double[1000];
+        otherDoubles[130] = 0.5;
+        Tester.equal("double mismatch", ArrayScanner.mismatch(doubles, otherDoubles, 0.25), 130);
+        Tester.equal("double within margin", ArrayScanner.mismatch(doubles, otherDoubles, 0.5), -1);
+    }
+
+    @Test
+    public void testFailureRendersWindow()
+    {
+        RecordingSink recordingSink = new RecordingSink();
+        OutputSink previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(recordingSink);
+        try
+        {
+            int[] values = new int[1000000];
+            int[] otherValues = new int[1000000];
+            otherValues[500000] = 7;
+            Tester.equal("large arrays", values, otherValues);
+        }
+        catch (AssertionError e)
+        {
+            // Expected
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+        }
+        String output = recordingSink.getOutput();
+        Tester.isTrue("window around mismatch", output.contains("[…, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 7, 0, 0, 0, 0, 0, 0, "
+                + "0, 0, 0, 0, …] (length 1000000) (first difference at index 500000)"));
+        Tester.lessThan("output is bounded", output.length(), 1000);
+    }
+}
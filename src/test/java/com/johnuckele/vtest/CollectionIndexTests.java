@@ -0,0 +1,102 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class CollectionIndexTests
+{
+    @Test
+    public void testContainsAll()
+    {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i++)
+        {
+            values.add(i);
+        }
+        List<Integer> members = new ArrayList<Integer>();
+        for (int i = 0; i < 10000; i += 7)
+        {
+            members.add(i);
+        }
+
+        Tester.containsAll("containsAll", values, members);
+        Tester.containsAll("containsAll on a set", new HashSet<Integer>(values), members);
+        Tester.containsAll("containsAll on a linked list", new LinkedList<Integer>(values), members);
+        Tester.containsEach("containsEach", values, 1, 2, 9999);
+        try
+        {
+            Tester.containsEach("containsEach", values, 1, -1, 2, -2);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testMissingValuesAreReported()
+    {
+        List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++)
+        {
+            values.add("value" + i);
+        }
+        Tester.equal("missing values", CollectionIndex.missing(values, Arrays.asList("value1", "x", "value2", "y")),
+                Arrays.asList("x", "y"));
+        Tester.isTrue("nothing missing", CollectionIndex.missing(values, values).isEmpty());
+    }
+
+    @Test
+    public void testCachedIndexFollowsChanges()
+    {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            values.add(i);
+        }
+        Tester.isTrue("indexed", CollectionIndex.missing(values, Arrays.asList(5)).isEmpty());
+
+        // Same size, so the cached index is reused and must be validated
+        values.set(5, -5);
+        Tester.equal("replaced value is missing", CollectionIndex.missing(values, Arrays.asList(5, -5)),
+                Arrays.asList(5));
+        values.set(6, -6);
+        Tester.isTrue("new value is found", CollectionIndex.missing(values, Arrays.asList(-6)).isEmpty());
+
+        // Size changes drop the cached index
+        values.remove(Integer.valueOf(-6));
+        Tester.equal("removed value is missing", CollectionIndex.missing(values, Arrays.asList(-6, 7)),
+                Arrays.asList(-6));
+        values.add(null);
+        Tester.isTrue("null is found", CollectionIndex.missing(values, Arrays.asList((Integer) null)).isEmpty());
+    }
+
+    @Test
+    public void testIndexesOfCollectedListsAreFreed() throws InterruptedException
+    {
+        int before = CollectionIndex.countCached();
+        for (int i = 0; i < 3; i++)
+        {
+            List<Integer> values = new ArrayList<Integer>();
+            for (int j = 0; j < 1000; j++)
+            {
+                values.add(j);
+            }
+            Tester.isTrue("indexed", CollectionIndex.missing(values, Arrays.asList(5)).isEmpty());
+        }
+        int after = CollectionIndex.countCached();
+        for (int attempt = 0; attempt < 20 && after > before; attempt++)
+        {
+            System.gc();
+            Thread.sleep(10);
+            after = CollectionIndex.countCached();
+        }
+        Tester.lessOrEqual("the indexes of collected lists are freed", after, before);
+    }
+}
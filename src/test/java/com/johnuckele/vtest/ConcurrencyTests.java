@@ -0,0 +1,94 @@
+package com.johnuckele.vtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConcurrencyTests
+{
+    private static final int THREADS    = 16;
+    private static final int ITERATIONS = 500;
+
+    @Test
+    public void testScopeIsTrackedPerThread() throws Exception
+    {
+        String output = hammer();
+        Tester.equal("class headers", count(output, "Starting tests for " + ConcurrencyTests.class.getName()),
+                THREADS);
+        Tester.equal("stressFirst headers", count(output, "\tstressFirst"), THREADS * ITERATIONS);
+        Tester.equal("stressSecond headers", count(output, "\tstressSecond"), THREADS * ITERATIONS);
+        Tester.equal("assertion lines", count(output, "\t\tstress"), 2 * THREADS * ITERATIONS);
+    }
+
+    private static String hammer() throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = System.out;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            System.setOut(new PrintStream(buffer, true, "UTF-8"));
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                futures.add(executor.submit(new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        start.await();
+                        for (int j = 0; j < ITERATIONS; j++)
+                        {
+                            stressFirst(j);
+                            stressSecond(j);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+            System.setOut(out);
+        }
+        return buffer.toString("UTF-8");
+    }
+
+    private static void stressFirst(int value)
+    {
+        Tester.equal("stress", value, value);
+    }
+
+    private static void stressSecond(int value)
+    {
+        Tester.lessThan("stress", value, value + 1);
+    }
+
+    private static int count(String output, String line)
+    {
+        int count = 0;
+        for (String outputLine : output.split("\n"))
+        {
+            if (outputLine.startsWith(line))
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,226 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class DeepEqualityTests
+{
+    private static class Vector
+    {
+        private final double x;
+        private final double y;
+
+        Vector(double x, double y)
+        {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class Body
+    {
+        private final String   name;
+        private final Vector   position;
+        private final int[]    tags;
+        private final boolean  fixed;
+        private Body           orbits;
+        private List<Body>     moons = new ArrayList<Body>();
+
+        Body(String name, Vector position, int[] tags, boolean fixed)
+        {
+            this.name = name;
+            this.position = position;
+            this.tags = tags;
+            this.fixed = fixed;
+        }
+    }
+
+    private static class NamedBody extends Body
+    {
+        private final Map<String, Integer> catalog = new HashMap<String, Integer>();
+
+        NamedBody(String name, Vector position)
+        {
+            super(name, position, new int[] { 1, 2, 3 }, false);
+        }
+    }
+
+    private static class Link
+    {
+        private final int value;
+        private Link      next;
+
+        Link(int value)
+        {
+            this.value = value;
+        }
+    }
+
+    private static Body system(double moonX)
+    {
+        Body sun = new Body("sun", new Vector(0.0, 0.0), new int[] { 1 }, true);
+        Body planet = new Body("planet", new Vector(1.0, 0.0), new int[] { 2, 3 }, false);
+        Body moon = new Body("moon", new Vector(moonX, 0.0), new int[] { 4 }, false);
+        planet.orbits = sun;
+        moon.orbits = planet;
+        sun.moons.add(planet);
+        planet.moons.add(moon);
+        return sun;
+    }
+
+    private static String pathOf(Object lhs, Object rhs)
+    {
+        DeepEquality.Difference difference = DeepEquality.firstDifference(lhs, rhs, 0.0);
+        return difference == null ? null : difference.getPath();
+    }
+
+    @Test
+    public void testObjectGraphs()
+    {
+        Tester.deepEqual("identical graphs with cycles", system(1.5), system(1.5));
+        Tester.notDeepEqual("graphs with a changed field", system(1.5), system(1.6));
+        Tester.deepEqual("graphs within a margin", system(1.5), system(1.5000001), 0.001);
+        Tester.equal("path to a changed field", pathOf(system(1.5), system(1.6)), "root.moons[0].moons[0].position.x");
+        try
+        {
+            Tester.deepEqual("graphs with a changed field", system(1.5), system(1.6));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testDifferences()
+    {
+        NamedBody lhs = new NamedBody("a", new Vector(0.0, 1.0));
+        NamedBody rhs = new NamedBody("a", new Vector(0.0, 1.0));
+        Tester.deepEqual("inherited fields", lhs, rhs);
+        lhs.catalog.put("id", 7);
+        rhs.catalog.put("id", 8);
+        Tester.equal("map value", pathOf(lhs, rhs), "root.catalog[id]");
+        rhs.catalog.remove("id");
+        DeepEquality.Difference difference = DeepEquality.firstDifference(lhs, rhs, 0.0);
+        Tester.equal("missing map entry", difference.getPath(), "root.catalog[id]");
+        Tester.equal("missing map entry value", difference.getRhs(), DeepEquality.ABSENT);
+
+        Tester.equal("primitive array element", pathOf(new int[] { 1, 2, 3 }, new int[] { 1, 5, 3 }), "root[1]");
+        Tester.equal("array length", pathOf(new long[] { 1, 2 }, new long[] { 1, 2, 3 }), "root[2]");
+        Tester.equal("list length", pathOf(Arrays.asList(1, 2), new LinkedList<Integer>(Arrays.asList(1, 2, 3))),
+                "root[2]");
+        Tester.equal("element before length", pathOf(Arrays.asList(1, 2), Arrays.asList(1, 3, 4)), "root[1]");
+        Tester.equal("boolean field", pathOf(new Body("a", null, null, true), new Body("a", null, null, false)),
+                "root.fixed");
+        Tester.equal("null field", pathOf(new Body("a", null, null, true), new Body("a", new Vector(0, 0), null,
+                true)), "root.position");
+        Tester.equal("different classes", pathOf(new Body("a", null, null, true), new NamedBody("a", null)), "root");
+        Tester.isNull("equal lists of different classes", pathOf(Arrays.asList(1, 2), new ArrayList<Integer>(
+                Arrays.asList(1, 2))));
+    }
+
+    @Test
+    public void testSetsOfValueObjects()
+    {
+        Set<Vector> lhs = new HashSet<Vector>();
+        Set<Vector> rhs = new HashSet<Vector>();
+        for (int i = 0; i < 20; i++)
+        {
+            lhs.add(new Vector(i, i));
+            rhs.add(new Vector(19 - i, 19 - i));
+        }
+        Tester.deepEqual("sets matched structurally", lhs, rhs);
+        rhs.add(new Vector(20, 20));
+        Tester.notDeepEqual("set with an extra element", lhs, rhs);
+        Tester.deepEqual("sets of strings", new HashSet<String>(Arrays.asList("a", "b")),
+                new HashSet<String>(Arrays.asList("b", "a")));
+    }
+
+    @Test
+    public void testLargeSetsOfObjects()
+    {
+        Set<Link> lhs = new HashSet<Link>();
+        Set<Link> rhs = new HashSet<Link>();
+        for (int i = 0; i < 20000; i++)
+        {
+            lhs.add(new Link(i));
+            rhs.add(new Link(i));
+        }
+        Tester.isNull("members are matched by structural hash", pathOf(lhs, rhs));
+        Link changed = new Link(-1);
+        rhs.add(changed);
+        Tester.equal("the unmatched member is reported", DeepEquality.firstDifference(lhs, rhs, 0.0).getRhs(), changed);
+        lhs.add(new Link(-2));
+        Tester.isNotNull("a member with another value is not matched", pathOf(lhs, rhs));
+
+        Set<Body> bodies = new HashSet<Body>(Arrays.asList(system(1.5), system(2.5)));
+        Set<Body> closeBodies = new HashSet<Body>(Arrays.asList(system(2.5001), system(1.5001)));
+        Tester.deepEqual("members differing only in floating point values share a hash", bodies, closeBodies, 0.001);
+    }
+
+    @Test
+    public void testQueuesAndMultisets()
+    {
+        Tester.deepEqual("equal deques", new ArrayDeque<Integer>(Arrays.asList(1, 2)),
+                new ArrayDeque<Integer>(Arrays.asList(1, 2)));
+        Tester.equal("deque element", pathOf(new ArrayDeque<Integer>(Arrays.asList(1, 2)), new ArrayDeque<Integer>(
+                Arrays.asList(2, 1))), "root[0]");
+        Tester.equal("deque length", pathOf(new ArrayDeque<Integer>(Arrays.asList(1)), new ArrayDeque<Integer>(
+                Arrays.asList(1, 2))), "root[1]");
+        Tester.deepEqual("deques of value objects", new ArrayDeque<Vector>(Arrays.asList(new Vector(1, 2))),
+                new ArrayDeque<Vector>(Arrays.asList(new Vector(1, 2))));
+
+        Map<String, Vector> lhs = new HashMap<String, Vector>();
+        Map<String, Vector> rhs = new HashMap<String, Vector>();
+        for (int i = 0; i < 20; i++)
+        {
+            lhs.put("key" + i, new Vector(i % 3, 0));
+            rhs.put("other" + i, new Vector(i % 3, 0));
+        }
+        Tester.deepEqual("values views as multisets", lhs.values(), rhs.values());
+        rhs.put("other0", new Vector(3, 0));
+        Tester.notDeepEqual("values views with a changed element", lhs.values(), rhs.values());
+        Tester.isTrue("an unmatched element is reported", pathOf(lhs.values(), rhs.values()).startsWith("root{"));
+        Tester.equal("a queue is not a multiset", pathOf(new ArrayDeque<Integer>(Arrays.asList(1)), lhs.values()),
+                "root");
+        try
+        {
+            Tester.deepEqual("deques in another order", new ArrayDeque<Integer>(Arrays.asList(1, 2)),
+                    new ArrayDeque<Integer>(Arrays.asList(2, 1)));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testLongChains()
+    {
+        Link lhs = new Link(0);
+        Link rhs = new Link(0);
+        Link lhsTail = lhs;
+        Link rhsTail = rhs;
+        for (int i = 1; i < 100000; i++)
+        {
+            lhsTail.next = new Link(i);
+            rhsTail.next = new Link(i);
+            lhsTail = lhsTail.next;
+            rhsTail = rhsTail.next;
+        }
+        lhsTail.next = lhs;
+        rhsTail.next = rhs;
+        Tester.deepEqual("long cyclic chains", lhs, rhs);
+    }
+}
@@ -0,0 +1,121 @@
+package com.johnuckele.vtest;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+
+public class IntegrationTests
+{
+    public static class RuleFixture
+    {
+        @Rule
+        public final VtestRule vtest = new VtestRule();
+
+        @Test
+        public void testWorld()
+        {
+            checkPopulation(10);
+        }
+    }
+
+    public static class ListenerFixture
+    {
+        @Test
+        public void testWorld()
+        {
+            checkPopulation(10);
+        }
+    }
+
+    private static void checkPopulation(int population)
+    {
+        Tester.greaterThan("the world is populated", population, 0);
+    }
+
+    private static String run(Class<?> fixture, boolean listen)
+    {
+        RecordingSink recordingSink = new RecordingSink();
+        OutputSink previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(recordingSink);
+        try
+        {
+            JUnitCore core = new JUnitCore();
+            if (listen)
+            {
+                core.addListener(new VtestRunListener());
+            }
+            Result result = core.run(fixture);
+            Tester.setOutputSink(previousSink);
+            Tester.isTrue("the fixture passed", result.wasSuccessful());
+            return recordingSink.getOutput();
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+        }
+    }
+
+    @Test
+    public void testRule()
+    {
+        String output = run(RuleFixture.class, false);
+        Tester.isTrue("the header names the test class", output.contains("Starting tests for "
+                + RuleFixture.class.getName()));
+        Tester.isTrue("the header names the test method, not the helper", output.contains("\ttestWorld\n"));
+        Tester.isFalse("the helper is not a scope", output.contains("checkPopulation"));
+    }
+
+    @Test
+    public void testRunListener()
+    {
+        String output = run(ListenerFixture.class, true);
+        Tester.isTrue("the header names the test method", output.contains(ListenerFixture.class.getName()
+                + System.lineSeparator() + "\ttestWorld"));
+        Tester.isFalse("the helper is not a scope", output.contains("checkPopulation"));
+        output = run(ListenerFixture.class, false);
+        Tester.isTrue("without the listener the stack is walked", output.contains("\tcheckPopulation"));
+    }
+
+    @Test
+    public void testExtension() throws NoSuchMethodException
+    {
+        Method method = ListenerFixture.class.getMethod("testWorld");
+        ExtensionContext context = (ExtensionContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { ExtensionContext.class }, (proxy, called, arguments) ->
+                {
+                    if (called.getName().equals("getRequiredTestClass"))
+                    {
+                        return ListenerFixture.class;
+                    }
+                    else if (called.getName().equals("getRequiredTestMethod"))
+                    {
+                        return method;
+                    }
+                    throw new UnsupportedOperationException(called.getName());
+                });
+        VtestExtension extension = new VtestExtension();
+        RecordingSink recordingSink = new RecordingSink();
+        OutputSink previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(recordingSink);
+        try
+        {
+            extension.beforeEach(context);
+            checkPopulation(10);
+            extension.afterEach(context);
+            checkPopulation(10);
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+        }
+        Tester.isTrue("the header names the test method", recordingSink.getOutput().contains(ListenerFixture.class
+                .getName() + System.lineSeparator() + "\ttestWorld"));
+        Tester.isTrue("scope is found from the stack after the test", recordingSink.getOutput().contains(
+                "\tcheckPopulation"));
+    }
+}
@@ -0,0 +1,140 @@
+package com.johnuckele.vtest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class JsonReporterTests
+{
+    private static String[] record(Verbosity recordVerbosity, Runnable assertions) throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        JsonReporter previousReporter = Tester.getJsonReporter();
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setJsonReporter(new JsonReporter(buffer));
+        Tester.setVerbosity(recordVerbosity);
+        try
+        {
+            assertions.run();
+        }
+        finally
+        {
+            Tester.getJsonReporter().close();
+            Tester.setJsonReporter(previousReporter);
+            Tester.setVerbosity(previousVerbosity);
+        }
+        return buffer.toString("UTF-8").split("\n");
+    }
+
+    private static String withoutNanos(String record)
+    {
+        return record.replaceAll("\"nanos\":[0-9]+}$", "\"nanos\":N}");
+    }
+
+    @Test
+    public void testRecordsAssertions() throws Exception
+    {
+        String[] records = record(Verbosity.SUMMARY_ONLY, () -> {
+            Tester.equal("sum", 2 + 2, 4);
+            Tester.lessThan("double", 1.5, 2.5, 0.1);
+            Tester.isTrue("flag", true);
+            Tester.equal("list", Arrays.asList(1, 2), Arrays.asList(1, 2));
+        });
+        String prefix = "{\"class\":\"com.johnuckele.vtest.JsonReporterTests\","
+                + "\"method\":\"lambda$testRecordsAssertions$0\",";
+        Tester.equal("record count", records.length, 6);
+        Tester.equal("int record", withoutNanos(records[0]), prefix + "\"message\":\"sum\",\"operator\":\"==\","
+                + "\"operands\":[\"4\",\"4\"],\"outcome\":\"passed\",\"nanos\":N}");
+        Tester.equal("double record", withoutNanos(records[1]), prefix + "\"message\":\"double\",\"operator\":\"<\","
+                + "\"operands\":[\"1.5\",\"2.5\",\"0.1\"],\"outcome\":\"passed\",\"nanos\":N}");
+        Tester.equal("boolean record", withoutNanos(records[2]), prefix
+                + "\"message\":\"flag\",\"operands\":[\"true\"],\"outcome\":\"passed\",\"nanos\":N}");
+        Tester.isTrue("object record", records[3].contains("\"operator\":\"==\",\"operands\":[\"[1, 2]\",\"[1, 2]\"]"));
+        Tester.isTrue("hash code record", records[5].contains("\"message\":\"list\",\"operator\":\"==\""));
+    }
+
+    @Test
+    public void testRecordsFailures() throws Exception
+    {
+        int[] softFailures = new int[1];
+        String[] records = record(Verbosity.FAILURES_ONLY, () -> {
+            try (SoftAssertions softly = Tester.softAssertions())
+            {
+                Tester.equal("text", "a\"b\\c\tdé😀", "x");
+                Tester.fail("failure");
+                softFailures[0] = softly.getFailureCount();
+            }
+            catch (AssertionError e)
+            {
+                // Expected
+            }
+        });
+        Tester.equal("soft failures", softFailures[0], 2);
+        Tester.equal("record count", records.length, 2);
+        Tester.isTrue("escaped record", records[0].contains(
+                "\"operands\":[\"a\\\"b\\\\c\\tdé😀\",\"x\"],\"outcome\":\"failed\""));
+        Tester.isTrue("failure record",
+                records[1].contains("\"message\":\"failure\",\"operands\":[],\"outcome\":\"failed\""));
+    }
+
+    @Test
+    public void testRecordsOnlyExplicitOperators() throws Exception
+    {
+        String[] records = record(Verbosity.SUMMARY_ONLY, () -> {
+            Tester.allMatch("positive", Arrays.asList(1, 2, 3).iterator(), i -> i > 0);
+            Tester.isSorted("sorted", Arrays.asList(1, 2, 3).iterator());
+            Tester.notEqual("different", 1, 2);
+        });
+        Tester.equal("record count", records.length, 3);
+        Tester.isTrue("match record has no operator", !records[0].contains("\"operator\""));
+        Tester.isTrue("sorted record has no operator", !records[1].contains("\"operator\""));
+        Tester.isTrue("not equal record", records[2].contains("\"operator\":\"!=\",\"operands\":[\"1\",\"2\"]"));
+    }
+
+    @Test
+    public void testEncodesNumbers()
+    {
+        JsonReporter.Encoder encoder = new JsonReporter.Encoder();
+        encoder.number(0).raw(",").number(-42).raw(",").number(Long.MAX_VALUE).raw(",").number(Long.MIN_VALUE);
+        Tester.equal("numbers", encoder.toString(), "0,-42,9223372036854775807,-9223372036854775808");
+    }
+
+    @Test
+    public void testReportsAcrossThreads() throws Exception
+    {
+        final int threads = 4;
+        final int assertions = 1000;
+        String[] records = record(Verbosity.SUMMARY_ONLY, () -> {
+            Thread[] workers = new Thread[threads];
+            for (int i = 0; i < threads; i++)
+            {
+                workers[i] = new Thread(() -> {
+                    for (int j = 0; j < assertions; j++)
+                    {
+                        Tester.equal("value", j, j);
+                    }
+                });
+                workers[i].start();
+            }
+            for (Thread worker : workers)
+            {
+                try
+                {
+                    worker.join();
+                }
+                catch (InterruptedException e)
+                {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        boolean wellFormed = true;
+        for (String record : records)
+        {
+            wellFormed &= record.startsWith("{\"class\":") && record.endsWith("}");
+        }
+        Tester.equal("record count", records.length, threads * assertions);
+        Tester.isTrue("records are not interleaved", wellFormed);
+    }
+}
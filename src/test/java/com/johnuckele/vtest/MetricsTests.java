@@ -0,0 +1,116 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class MetricsTests
+{
+    private static ScopeMetrics metricsFor(String methodName)
+    {
+        for (ScopeMetrics metrics : Tester.getMetrics())
+        {
+            if (metrics.getClassName().equals(MetricsTests.class.getName())
+                    && metrics.getMethodName().equals(methodName))
+            {
+                return metrics;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testScopeMetrics()
+    {
+        boolean previousEnabled = Tester.isMetricsEnabled();
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setMetricsEnabled(true);
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        int softFailures = 0;
+        try
+        {
+            for (int i = 0; i < 100; i++)
+            {
+                Tester.equal("value", i, i);
+            }
+            try (SoftAssertions softly = Tester.softAssertions())
+            {
+                Tester.isTrue("soft failure", false);
+                softFailures = softly.getFailureCount();
+            }
+            catch (AssertionError e)
+            {
+                // Expected
+            }
+        }
+        finally
+        {
+            Tester.setMetricsEnabled(previousEnabled);
+            Tester.setVerbosity(previousVerbosity);
+        }
+        ScopeMetrics metrics = metricsFor("testScopeMetrics");
+        Tester.isNotNull("metrics for this method", metrics);
+        Tester.equal("passed", metrics.getPassed(), 100L);
+        Tester.equal("failed", metrics.getFailed(), 1L);
+        Tester.equal("total", metrics.getTotal(), 101L);
+        Tester.equal("latency count", metrics.getLatency().getCount(), 101L);
+        Tester.lessOrEqual("median latency", metrics.getLatency().getPercentile(50.0), metrics.getLatency().getMax());
+        Tester.isNull("no metrics while disabled", metricsFor("testLatencyHistogram"));
+        Tester.equal("the soft failure was recorded", softFailures, 1);
+    }
+
+    @Test
+    public void testLatencyHistogram()
+    {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Tester.equal("empty percentile", histogram.getPercentile(99.0), 0L);
+        for (long i = 1; i <= 1000; i++)
+        {
+            histogram.record(i * 1000L);
+        }
+        Tester.equal("count", histogram.getCount(), 1000L);
+        Tester.equal("max", histogram.getMax(), 1000000L);
+        Tester.equal("mean", histogram.getMean(), 500500.0, 0.001);
+        long median = histogram.getPercentile(50.0);
+        Tester.greaterOrEqual("median upper bound", median, 500000L);
+        Tester.lessOrEqual("median precision", median, 500000L * 5 / 4);
+        Tester.equal("p100", histogram.getPercentile(100.0), 1000000L);
+        Tester.equal("exact small values", LatencyHistogram.upperBound(LatencyHistogram.bucket(7)), 7L);
+        boolean bounded = true;
+        for (long value = 16; value > 0 && value < Long.MAX_VALUE / 3; value = value * 3 + 1)
+        {
+            long upperBound = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+            bounded &= upperBound >= value && upperBound <= value + value / 4;
+        }
+        Tester.isTrue("bucket bounds", bounded);
+        histogram.reset();
+        Tester.equal("count after reset", histogram.getCount(), 0L);
+    }
+
+    @Test
+    public void testProgressReporter() throws Exception
+    {
+        RecordingSink recordingSink = new RecordingSink();
+        OutputSink previousSink = Tester.getOutputSink();
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setOutputSink(recordingSink);
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        Tester.setProgressInterval(20, TimeUnit.MILLISECONDS);
+        try
+        {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (recordingSink.getLines().isEmpty() && System.nanoTime() < deadline)
+            {
+                Tester.isTrue("progress", true);
+            }
+        }
+        finally
+        {
+            Tester.setProgressInterval(0, TimeUnit.MILLISECONDS);
+            Tester.setOutputSink(previousSink);
+            Tester.setVerbosity(previousVerbosity);
+        }
+        String line = recordingSink.getLines().get(0);
+        Tester.isTrue("progress line", line.matches("vtest progress: [0-9]+ assertions, [0-9]+ assertions/s"));
+    }
+}
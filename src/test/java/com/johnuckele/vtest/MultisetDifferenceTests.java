@@ -0,0 +1,74 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MultisetDifferenceTests
+{
+    @Test
+    public void testEqualIgnoringOrder()
+    {
+        List<Integer> numbers = new ArrayList<Integer>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++)
+        {
+            numbers.add(random.nextInt(1000));
+        }
+        List<Integer> shuffled = new ArrayList<Integer>(numbers);
+        Collections.shuffle(shuffled, random);
+        Tester.equalIgnoringOrder("shuffled integers", numbers, shuffled);
+        Tester.equalIgnoringOrder("shuffled strings", Arrays.asList("a", "b", "a", null),
+                new LinkedList<String>(Arrays.asList(null, "a", "a", "b")));
+        Tester.equalIgnoringOrder("empty", Collections.emptyList(), Collections.emptySet());
+        try
+        {
+            Tester.equalIgnoringOrder("different counts", Arrays.asList(1, 1, 2), Arrays.asList(1, 2, 2));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testSymmetricDifference()
+    {
+        MultisetDifference difference = MultisetDifference.of(Arrays.asList(1, 1, 1, 2, 3), Arrays.asList(3, 4, 4, 1));
+        Map<Object, Integer> extraInLhs = new HashMap<Object, Integer>();
+        extraInLhs.put(1, 2);
+        extraInLhs.put(2, 1);
+        Tester.equal("extra in lhs", difference.getExtraInLhs(), extraInLhs);
+        Tester.equal("extra in rhs", difference.getExtraInRhs(), Collections.<Object, Integer> singletonMap(4, 2));
+
+        difference = MultisetDifference.of(Arrays.asList("x", "y", "y"), Arrays.asList("y", "z"));
+        Tester.equal("extra strings in lhs", difference.getExtraInLhs().keySet(),
+                new HashSet<Object>(Arrays.asList("x", "y")));
+        Tester.equal("extra strings in rhs", difference.getExtraInRhs(), Collections.<Object, Integer> singletonMap(
+                "z", 1));
+    }
+
+    @Test
+    public void testMixedElementTypes()
+    {
+        Tester.isFalse("Integer and Long are different elements",
+                MultisetDifference.isEqual(Arrays.<Object> asList(1, 2), Arrays.<Object> asList(1L, 2)));
+        Tester.isTrue("mixed elements", MultisetDifference.isEqual(Arrays.<Object> asList(1, "a", null, 'c'),
+                Arrays.<Object> asList('c', null, "a", 1)));
+        Tester.isTrue("characters", MultisetDifference.isEqual(Arrays.asList('a', 'b', 'b'),
+                Arrays.asList('b', 'a', 'b')));
+        Tester.isTrue("longs", MultisetDifference.isEqual(Arrays.asList(Long.MIN_VALUE, 0L, Long.MAX_VALUE),
+                Arrays.asList(Long.MAX_VALUE, Long.MIN_VALUE, 0L)));
+        Tester.equal("boxed back to the element type", MultisetDifference.of(Arrays.asList((short) 5),
+                Collections.<Short> emptyList()).getExtraInLhs().keySet().iterator().next(), (Object) (short) 5);
+    }
+}
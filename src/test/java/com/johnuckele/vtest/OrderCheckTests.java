@@ -0,0 +1,130 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class OrderCheckTests
+{
+    private static int[] ascending(int length)
+    {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++)
+        {
+            values[i] = i;
+        }
+        return values;
+    }
+
+    @Test
+    public void testLargeArrays()
+    {
+        int[] values = ascending(1 << 22);
+        Tester.isSorted("four million ints", values);
+        Tester.isStrictlyIncreasing("four million distinct ints", values);
+        long[] longs = new long[1 << 20];
+        Tester.isSorted("equal longs are sorted", longs);
+        Tester.equal("equal longs are not strictly increasing", OrderCheck.firstUnordered(longs, true), 1);
+        // Out of order pairs on chunk boundaries and in several chunks, of which only the first is reported
+        for (int index : new int[] { 1, 1 << 14, 1 << 16, 3 << 20, (1 << 22) - 1 })
+        {
+            int[] copy = values.clone();
+            copy[index] = -1;
+            copy[copy.length - 1] = -2;
+            Tester.equal("the first out of order index", OrderCheck.firstUnordered(copy, false), index);
+        }
+        try
+        {
+            int[] copy = values.clone();
+            copy[1 << 21] = 0;
+            Tester.isSorted("an element out of place", copy);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testPrimitiveTypes()
+    {
+        Tester.isSorted("bytes", new byte[] { -3, 0, 0, 7 });
+        Tester.isStrictlyIncreasing("chars", new char[] { 'a', 'b', 'z' });
+        Tester.isSorted("shorts", new short[] { -1, 1 });
+        Tester.isSorted("floats", new float[] { -1.5f, 0.0f, Float.NaN });
+        Tester.isStrictlyIncreasing("negative zero comes before zero", new double[] { -0.0, 0.0, Double.NaN });
+        Tester.isSorted("empty", new int[0]);
+        Tester.equal("NaN is last", OrderCheck.firstUnordered(new double[] { Double.NaN, 1.0 }, false), 1);
+        try
+        {
+            Tester.isStrictlyIncreasing("repeated char", new char[] { 'a', 'b', 'b' });
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testListsAndObjectArrays()
+    {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 200000; i++)
+        {
+            list.add(i / 2);
+        }
+        Tester.isSorted("a large list", list);
+        List<Integer> reversed = new ArrayList<Integer>(list);
+        Collections.reverse(reversed);
+        Tester.isSortedBy("a large list in reverse order", reversed, Comparator.<Integer> reverseOrder());
+        Tester.equal("pairs are not strictly increasing", OrderCheck.firstUnordered(list, Comparator.naturalOrder(),
+                true), 1);
+        Tester.isSorted("a linked list", new LinkedList<String>(Arrays.asList("a", "b", "c")));
+        Tester.isStrictlyIncreasing("strings", new String[] { "a", "b", "c" });
+        Tester.isSortedBy("by length", new String[] { "c", "bb", "aaa" }, Comparator.comparingInt(String::length));
+        Tester.equal("a linked list out of order", OrderCheck.firstUnordered(new LinkedList<Integer>(Arrays.asList(1,
+                3, 2)), Comparator.naturalOrder(), false), 2);
+        try
+        {
+            Tester.isSortedBy("by length", Arrays.asList("aa", "b"), Comparator.comparingInt(String::length));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testSplitting()
+    {
+        // Small chunks split the check on any machine, even where the common pool has a single worker
+        int[] values = ascending(1000);
+        Tester.equal("a sorted array in chunks", OrderCheck.check(values, null, false, values.length, 7), -1);
+        boolean found = true;
+        for (int index = 1; index < values.length; index++)
+        {
+            int[] copy = values.clone();
+            copy[index] = -1;
+            copy[copy.length - 1] = -2;
+            found &= OrderCheck.check(copy, null, false, copy.length, 7) == index;
+        }
+        Tester.isTrue("the first out of order index in every position", found);
+        Integer[] boxed = new Integer[1000];
+        for (int i = 0; i < boxed.length; i++)
+        {
+            boxed[i] = i / 2;
+        }
+        Tester.equal("equal neighbours in chunks", OrderCheck.check(boxed, Comparator.naturalOrder(), true,
+                boxed.length, 16), 1);
+        Tester.equal("a list in chunks", OrderCheck.check(Arrays.asList(boxed), Comparator.reverseOrder(), false,
+                boxed.length, 16), 2);
+    }
+}
@@ -0,0 +1,237 @@
+package com.johnuckele.vtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class OutputSinkTests
+{
+    private static final int THREADS = 8;
+    private static final int LINES   = 5000;
+
+    @Test
+    public void testAsyncSinkPreservesPerThreadOrder() throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        final AsyncSink sink = new AsyncSink(new PrintStream(buffer, false, "UTF-8"), 64);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < THREADS; i++)
+        {
+            final int thread = i;
+            threads.add(new Thread(() -> {
+                for (int line = 0; line < LINES; line++)
+                {
+                    sink.println(thread + ":" + line);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        sink.close();
+
+        String[] lines = buffer.toString("UTF-8").split(System.lineSeparator());
+        Tester.equal("line count", lines.length, THREADS * LINES);
+        int[] expected = new int[THREADS];
+        boolean ordered = true;
+        for (String line : lines)
+        {
+            int separator = line.indexOf(':');
+            int thread = Integer.parseInt(line.substring(0, separator));
+            ordered &= Integer.parseInt(line.substring(separator + 1)) == expected[thread]++;
+        }
+        Tester.isTrue("lines are in per-thread order", ordered);
+    }
+
+    @Test
+    public void testAsyncSinkFlush() throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        AsyncSink sink = new AsyncSink(new PrintStream(buffer, false, "UTF-8"), AsyncSink.DEFAULT_CAPACITY);
+        try
+        {
+            sink.println("first");
+            sink.println(new StringBuilder("second"));
+            sink.flush();
+            Tester.equal("flushed output", buffer.toString("UTF-8"),
+                    "first" + System.lineSeparator() + "second" + System.lineSeparator());
+        }
+        finally
+        {
+            sink.close();
+        }
+        sink.println("after close");
+        Tester.isTrue("closed sink writes synchronously", buffer.toString("UTF-8").endsWith("after close"
+                + System.lineSeparator()));
+    }
+
+    @Test
+    public void testAsyncSinkKeepsEntriesRacingClose() throws Exception
+    {
+        for (int attempt = 0; attempt < 20; attempt++)
+        {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            AsyncSink sink = new AsyncSink(new PrintStream(buffer, true, "UTF-8"), 16);
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int i = 0; i < THREADS; i++)
+            {
+                threads.add(new Thread(() ->
+                {
+                    for (int line = 0; line < 100; line++)
+                    {
+                        sink.println("line");
+                    }
+                }));
+            }
+            for (Thread thread : threads)
+            {
+                thread.start();
+            }
+            sink.close();
+            for (Thread thread : threads)
+            {
+                thread.join();
+            }
+            String[] lines = buffer.toString("UTF-8").split(System.lineSeparator());
+            Tester.equal("no line is lost or repeated", lines.length, THREADS * 100);
+        }
+    }
+
+    @Test
+    public void testTesterWritesToSink() throws Exception
+    {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        OutputSink previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(new AsyncSink(new PrintStream(buffer, false, "UTF-8"), 16));
+        try
+        {
+            Tester.equal("async equal", 1, 1);
+            Tester.flush();
+        }
+        finally
+        {
+            Tester.getOutputSink().close();
+            Tester.setOutputSink(previousSink);
+        }
+        Tester.isTrue("assertion written to sink", buffer.toString("UTF-8").contains("\t\tasync equal: 1 == 1"));
+    }
+
+    @Test
+    public void testMappedFileSinkRollsSegments() throws Exception
+    {
+        File directory = Files.createTempDirectory("vtest").toFile();
+        MappedFileSink sink = new MappedFileSink(directory, "log", 256);
+        StringBuilder expected = new StringBuilder();
+        for (int line = 0; line < 100; line++)
+        {
+            String entry = "line " + line + (line % 10 == 0 ? " ünïcödé 😀" : "");
+            sink.println(entry);
+            expected.append(entry).append(System.lineSeparator());
+        }
+        String longEntry = new String(new char[1000]).replace('\0', 'x');
+        sink.println(longEntry);
+        expected.append(longEntry).append(System.lineSeparator());
+        sink.close();
+        sink.println("after close");
+
+        StringBuilder actual = new StringBuilder();
+        int segments = 0;
+        while (sink.getSegmentFile(segments).exists())
+        {
+            actual.append(new String(Files.readAllBytes(sink.getSegmentFile(segments).toPath()),
+                    StandardCharsets.UTF_8));
+            segments++;
+        }
+        Tester.greaterThan("segment count", segments, 3);
+        Tester.equal("segments hold the whole log", actual.toString(), expected.toString());
+    }
+
+    @Test
+    public void testMappedFileSinkWritesFromManyThreads() throws Exception
+    {
+        File directory = Files.createTempDirectory("vtest").toFile();
+        MappedFileSink sink = new MappedFileSink(directory, "log", 4096);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < THREADS; i++)
+        {
+            final int thread = i;
+            threads.add(new Thread(() ->
+            {
+                for (int line = 0; line < LINES; line++)
+                {
+                    sink.println(thread + ":" + line);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        sink.close();
+
+        StringBuilder log = new StringBuilder();
+        for (int segment = 0; sink.getSegmentFile(segment).exists(); segment++)
+        {
+            log.append(new String(Files.readAllBytes(sink.getSegmentFile(segment).toPath()), StandardCharsets.UTF_8));
+        }
+        String[] lines = log.toString().split(System.lineSeparator());
+        Tester.equal("line count", lines.length, THREADS * LINES);
+        int[] expected = new int[THREADS];
+        boolean ordered = true;
+        for (String line : lines)
+        {
+            int separator = line.indexOf(':');
+            int thread = Integer.parseInt(line.substring(0, separator));
+            ordered &= Integer.parseInt(line.substring(separator + 1)) == expected[thread]++;
+        }
+        Tester.isTrue("lines are whole and in per-thread order", ordered);
+    }
+
+    @Test
+    public void testMappedFileSinkIndexesScopes() throws Exception
+    {
+        File directory = Files.createTempDirectory("vtest").toFile();
+        MappedFileSink sink = new MappedFileSink(directory, "log", 128);
+        OutputSink previousSink = Tester.getOutputSink();
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setOutputSink(sink);
+        Tester.setVerbosity(Verbosity.FULL);
+        try
+        {
+            // Assertions from another thread start a new scope in this sink
+            Thread thread = new Thread(() -> Tester.equal("mapped equal", 1, 1));
+            thread.start();
+            thread.join();
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+            Tester.setVerbosity(previousVerbosity);
+            sink.close();
+        }
+        List<String> index = Files.readAllLines(sink.getIndexFile().toPath(), StandardCharsets.UTF_8);
+        Tester.equal("index entries", index.size(), 1);
+        String[] fields = index.get(0).split("\t");
+        Tester.equal("indexed class", fields[2], OutputSinkTests.class.getName());
+        Tester.isTrue("indexed method", fields[3].startsWith("lambda$testMappedFileSinkIndexesScopes$"));
+        byte[] segment = Files.readAllBytes(sink.getSegmentFile(Integer.parseInt(fields[0])).toPath());
+        String fromOffset = new String(segment, StandardCharsets.UTF_8).substring(Integer.parseInt(fields[1]));
+        Tester.isTrue("offset points at the header", fromOffset.startsWith("Starting tests for "
+                + OutputSinkTests.class.getName()));
+    }
+}
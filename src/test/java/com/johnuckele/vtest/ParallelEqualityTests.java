@@ -0,0 +1,103 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class ParallelEqualityTests
+{
+    private static List<Integer> numbers(int count)
+    {
+        List<Integer> numbers = new ArrayList<Integer>(count);
+        for (int i = 0; i < count; i++)
+        {
+            numbers.add(i * 7);
+        }
+        return numbers;
+    }
+
+    private static Map<String, Integer> names(int count)
+    {
+        Map<String, Integer> names = new HashMap<String, Integer>();
+        for (int i = 0; i < count; i++)
+        {
+            names.put("name " + i, i);
+        }
+        return names;
+    }
+
+    @Test
+    public void testLargeCollections()
+    {
+        Tester.equal("large lists", numbers(100000), numbers(100000));
+        Tester.equal("large sets", new HashSet<Integer>(numbers(100000)), new TreeSet<Integer>(numbers(100000)));
+        Tester.equal("large maps", names(100000), new TreeMap<String, Integer>(names(100000)));
+        try
+        {
+            List<Integer> changed = numbers(100000);
+            changed.set(50000, -1);
+            Tester.equal("a changed element", numbers(100000), changed);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testSplitPasses()
+    {
+        List<Integer> list = numbers(10000);
+        list.set(9999, null);
+        ParallelEquality lists = ParallelEquality.compare(list, new ArrayList<Integer>(list), 16, 64);
+        Tester.isTrue("lists are equal both ways", lists.isLhsEqual() && lists.isRhsEqual());
+        Tester.equal("the list hash code", lists.getLhsHashCode(), list.hashCode());
+
+        Set<Integer> set = new HashSet<Integer>(numbers(10000));
+        Set<Integer> other = new TreeSet<Integer>(numbers(10000));
+        ParallelEquality sets = ParallelEquality.compare(set, other, 16, 64);
+        Tester.isTrue("sets are equal both ways", sets.isLhsEqual() && sets.isRhsEqual());
+        Tester.equal("the set hash codes", sets.getRhsHashCode(), other.hashCode());
+        other.remove(700);
+        other.add(-1);
+        sets = ParallelEquality.compare(set, other, 16, 64);
+        Tester.isFalse("sets with a different element differ", sets.isLhsEqual() || sets.isRhsEqual());
+
+        Map<String, Integer> map = names(10000);
+        map.put("nothing", null);
+        Map<String, Integer> copy = new TreeMap<String, Integer>(map);
+        ParallelEquality maps = ParallelEquality.compare(map, copy, 16, 64);
+        Tester.isTrue("maps are equal both ways", maps.isLhsEqual() && maps.isRhsEqual());
+        Tester.equal("the map hash code", maps.getLhsHashCode(), map.hashCode());
+        copy.remove("nothing");
+        copy.put("something", null);
+        maps = ParallelEquality.compare(map, copy, 16, 64);
+        Tester.isFalse("a null value for another key differs", maps.isLhsEqual() || maps.isRhsEqual());
+    }
+
+    @Test
+    public void testSequentialFallback()
+    {
+        Tester.isNull("small collections", ParallelEquality.compare(numbers(10), numbers(10)));
+        Tester.isNull("different sizes", ParallelEquality.compare(numbers(10000), numbers(10001), 16, 64));
+        Tester.isNull("linked lists", ParallelEquality.compare(new LinkedList<Integer>(numbers(10000)),
+                numbers(10000), 16, 64));
+        Tester.isNull("a list and a set", ParallelEquality.compare(numbers(10000), new HashSet<Integer>(numbers(
+                10000)), 16, 64));
+        Tester.isNull("collections outside the JDK", ParallelEquality.compare(new ArrayList<Integer>(numbers(100))
+        {
+            private static final long serialVersionUID = 1L;
+        }, numbers(100), 16, 64));
+        Tester.isNotNull("JDK views", ParallelEquality.compare(Arrays.asList(1, 2, 3), numbers(3), 1, 64));
+    }
+}
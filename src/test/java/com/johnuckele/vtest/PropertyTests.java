@@ -0,0 +1,136 @@
+package com.johnuckele.vtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PropertyTests
+{
+    private int previousTrials;
+
+    @Before
+    public void setUp()
+    {
+        previousTrials = PropertyCheck.getTrials();
+    }
+
+    @After
+    public void tearDown()
+    {
+        Tester.setPropertyTrials(previousTrials);
+    }
+
+    @Test
+    public void testPassingProperties()
+    {
+        Tester.setPropertyTrials(10000);
+        LongAdder trials = new LongAdder();
+        Tester.forAllInts("absolute values of bounded ints are not negative", Generators.ints(-1000, 1000), x ->
+        {
+            trials.increment();
+            return Math.abs(x) >= 0;
+        });
+        Tester.equal("every trial ran", trials.sum(), 10000L);
+        Tester.forAllLongs("addition of longs commutes", Generators.longs(), x -> x + 1 == 1 + x);
+        Tester.forAllDoubles("doubles stay in their range", Generators.doubles(-1.5, 2.5), x -> x >= -1.5 && x <= 2.5);
+        Tester.forAll("sorting is idempotent", Generators.intArrays(Generators.ints(), 20), array ->
+        {
+            int[] sorted = array.clone();
+            Arrays.sort(sorted);
+            int[] again = sorted.clone();
+            Arrays.sort(again);
+            return Arrays.equals(sorted, again);
+        });
+    }
+
+    @Test
+    public void testLambdaGenerators()
+    {
+        Tester.forAllInts("custom int generators", random -> random.nextInt(100), x -> x >= 0 && x < 100);
+        Tester.forAllLongs("custom long generators", random -> random.nextLong(1L, 10L), x -> x > 0L);
+        Tester.forAllDoubles("custom double generators", random -> random.nextDouble(), x -> x < 1.0);
+        Tester.forAll("custom generators", random -> "id-" + random.nextInt(10), id -> id.startsWith("id-"));
+        PropertyCheck<Integer> check = PropertyCheck.check(PropertyCheck.ofInts(random -> random.nextInt(100),
+                x -> x < 50), 6L);
+        Tester.isFalse("custom generators can fail", check.isPassed());
+        Tester.equal("without shrink candidates the value is kept", check.getCounterexample(), check.getOriginal());
+    }
+
+    @Test
+    public void testShrinking()
+    {
+        PropertyCheck<Integer> check = PropertyCheck.check(PropertyCheck.ofInts(Generators.ints(), x -> x < 1234), 1L);
+        Tester.isFalse("large ints fail", check.isPassed());
+        Tester.equal("the counterexample is the smallest failure", (int) check.getCounterexample(), 1234);
+        Tester.isTrue("the counterexample was shrunk", check.getShrinks() > 0);
+
+        PropertyCheck<Long> longs = PropertyCheck.check(PropertyCheck.ofLongs(Generators.longs(-100L, -10L),
+                x -> x > -50L), 2L);
+        Tester.equal("negative ranges shrink towards zero", (long) longs.getCounterexample(), -50L);
+
+        PropertyCheck<int[]> arrays = PropertyCheck.check(PropertyCheck.of(Generators.intArrays(Generators.ints(0,
+                100), 50), array -> Arrays.stream(array).sum() < 100), 3L);
+        Tester.isFalse("large sums fail", arrays.isPassed());
+        Tester.lessOrEqual("the array shrinks to a few elements", arrays.getCounterexample().length, 2);
+        Tester.equal("that sum to the boundary", Arrays.stream(arrays.getCounterexample()).sum(), 100);
+
+        PropertyCheck<Double> doubles = PropertyCheck.check(PropertyCheck.ofDoubles(Generators.doubles(-10.0, 10.0),
+                x -> x < 1.0 / 3.0), 4L);
+        Tester.isTrue("doubles shrink near the boundary", doubles.getCounterexample() < 0.34);
+
+        PropertyCheck<Integer> thrown = PropertyCheck.check(PropertyCheck.ofInts(Generators.ints(0, 100),
+                x -> 10 / x > 0), 5L);
+        Tester.equal("dividing by zero fails", (int) thrown.getCounterexample(), 0);
+        Tester.isTrue("the exception is kept", thrown.getThrown() instanceof ArithmeticException);
+    }
+
+    @Test
+    public void testDeterminism()
+    {
+        Tester.setPropertyTrials(5000);
+        PropertyCheck.Property<Integer> property = PropertyCheck.ofInts(Generators.ints(), x -> x % 1000 != 7);
+        PropertyCheck<Integer> first = PropertyCheck.check(property, 42L);
+        PropertyCheck<Integer> second = PropertyCheck.check(property, 42L);
+        Tester.isFalse("a rare value is found", first.isPassed());
+        Tester.equal("the same seed fails the same trial", first.getFailingTrial(), second.getFailingTrial());
+        Tester.equal("with the same value", first.getOriginal(), second.getOriginal());
+        Tester.equal("the seed comes from the message", PropertyCheck.seed("a property"),
+                (long) "a property".hashCode());
+
+        IntGenerator dice = Generators.ints(1, 6);
+        SplittableRandom random = new SplittableRandom(7L);
+        for (int i = 0; i < 1000; i++)
+        {
+            int roll = dice.next(random);
+            Tester.isTrue("dice stay in range", roll >= 1 && roll <= 6);
+        }
+        Tester.equal("ints shrink towards zero", dice.shrink(6), new int[] { 1, 4, 5 });
+    }
+
+    @Test
+    public void testFailures()
+    {
+        try
+        {
+            Tester.forAllInts("every int is small", Generators.ints(), x -> x < 100);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.setPropertyTrials(0);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (IllegalArgumentException e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+}
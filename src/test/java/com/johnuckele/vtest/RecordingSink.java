@@ -0,0 +1,43 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An OutputSink that keeps every entry in memory, for tests that check Tester's output.
+ */
+public class RecordingSink implements OutputSink
+{
+    private final List<String> lines = new ArrayList<String>();
+
+    @Override
+    public synchronized void println(CharSequence line)
+    {
+        lines.add(line.toString());
+    }
+
+    @Override
+    public void flush()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+
+    public synchronized List<String> getLines()
+    {
+        return new ArrayList<String>(lines);
+    }
+
+    public synchronized String getOutput()
+    {
+        StringBuilder output = new StringBuilder();
+        for (String line : lines)
+        {
+            output.append(line).append('\n');
+        }
+        return output.toString();
+    }
+}
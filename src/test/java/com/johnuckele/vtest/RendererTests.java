@@ -0,0 +1,102 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+public class RendererTests
+{
+    @Test
+    public void testSmallValuesRenderLikeToString()
+    {
+        List<Integer> list = Arrays.asList(1, 2, 3);
+        Map<String, Integer> map = new TreeMap<String, Integer>();
+        map.put("a", 1);
+        map.put("b", 2);
+        Tester.equal("list", render(list), list.toString());
+        Tester.equal("map", render(map), map.toString());
+        Tester.equal("int array", render(new int[] { 1, 2, 3 }), "[1, 2, 3]");
+        Tester.equal("null", render(null), "null");
+    }
+
+    @Test
+    public void testLargeCollectionsAreSampled()
+    {
+        List<Integer> list = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++)
+        {
+            list.add(i);
+        }
+        String expected = "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9, …, 99990, 99991, 99992, 99993, 99994, 99995, 99996, 99997, "
+                + "99998, 99999] (size 100000)";
+        Tester.equal("array list", render(list), expected);
+        Tester.equal("linked list", render(new LinkedList<Integer>(list)), expected);
+        Tester.isTrue("set shows head and size", render(new HashSet<Integer>(list)).endsWith(", …] (size 100000)"));
+        long[] array = new long[1000];
+        Tester.equal("array", render(array), "[0, 0, 0, 0, 0, 0, 0, 0, 0, 0, …, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0] "
+                + "(length 1000)");
+    }
+
+    @Test
+    public void testCharacterBudget()
+    {
+        StringBuilder longString = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            longString.append('x');
+        }
+        String rendered = render(longString);
+        Tester.isTrue("string is cut off", rendered.endsWith("… (length 5000)"));
+        Tester.lessThan("string is bounded", rendered.length(), Renderer.DEFAULT_MAX_CHARS + 32);
+
+        List<String> strings = new ArrayList<String>();
+        for (int i = 0; i < 10; i++)
+        {
+            strings.add(longString.toString());
+        }
+        Tester.lessThan("collection is bounded", render(strings).length(), Renderer.DEFAULT_MAX_CHARS + 64);
+    }
+
+    @Test
+    public void testSelfReference()
+    {
+        List<Object> list = new ArrayList<Object>();
+        list.add(list);
+        Tester.equal("self reference", render(list), "[(this Collection)]");
+    }
+
+    @Test
+    public void testDifferenceWindow()
+    {
+        List<Integer> lhs = new ArrayList<Integer>();
+        List<Integer> rhs = new ArrayList<Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            lhs.add(i);
+            rhs.add(i == 500 ? -1 : i);
+        }
+        Tester.equal("first mismatch", Renderer.firstMismatch(lhs, rhs), 500);
+        Tester.equal("prefix mismatch", Renderer.firstMismatch(lhs, lhs.subList(0, 10)), 10);
+        Tester.equal("no mismatch", Renderer.firstMismatch(lhs, new ArrayList<Integer>(lhs)), -1);
+        Tester.equal("string mismatch", Renderer.firstMismatch("abcd", "abXd"), 2);
+        Tester.equal("array mismatch", Renderer.firstMismatch(new double[] { 1, 2 }, new double[] { 1, 3 }), 1);
+        Tester.equal("not sequences", Renderer.firstMismatch(new Object(), new Object()), -1);
+
+        String rendered = Renderer.begin("").comparison(lhs, "==", rhs, true).done().toString();
+        Tester.equal("window", rendered, "\t\t[…, 490, 491, 492, 493, 494, 495, 496, 497, 498, 499, 500, 501, 502, "
+                + "503, 504, 505, 506, 507, 508, 509, 510, …] (size 1000) == […, 490, 491, 492, 493, 494, 495, 496, "
+                + "497, 498, 499, -1, 501, 502, 503, 504, 505, 506, 507, 508, 509, 510, …] (size 1000) (first "
+                + "difference at index 500)");
+    }
+
+    private static String render(Object value)
+    {
+        return Renderer.begin("").value(value).done().toString().substring(2);
+    }
+}
@@ -0,0 +1,34 @@
+package com.johnuckele.vtest;
+
+import org.junit.Test;
+
+public class ScopeResolverTests
+{
+    @Test
+    public void testResolvesCaller()
+    {
+        ScopeResolver resolver = ScopeResolver.create();
+        Scope scope = resolver.resolve();
+        Tester.equal("class scope", scope.getClassName(), ScopeResolverTests.class.getName());
+        Tester.equal("method scope", scope.getMethodName(), "testResolvesCaller");
+        Tester.isTrue("scope is interned", scope == resolver.resolve());
+    }
+
+    @Test
+    public void testFallbackMatchesStackWalker()
+    {
+        Scope fallback = new ThrowableScopeResolver().resolve();
+        Scope preferred = ScopeResolver.create().resolve();
+        Tester.equal("class scope", fallback.getClassName(), preferred.getClassName());
+        Tester.equal("method scope", fallback.getMethodName(), preferred.getMethodName());
+    }
+
+    @Test
+    public void testInternalClasses()
+    {
+        Tester.isTrue("Tester is internal", ScopeResolver.isInternal(Tester.class.getName()));
+        Tester.isTrue("Tester lambdas are internal", ScopeResolver.isInternal(Tester.class.getName() + "$$Lambda$1"));
+        Tester.isFalse("test classes are not internal", ScopeResolver.isInternal(TestTests.class.getName()));
+        Tester.isFalse("prefixed classes are not internal", ScopeResolver.isInternal(Tester.class.getName() + "Tests"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.johnuckele.vtest;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class SequenceScanTests
+{
+    private static Stream<Integer> numbers(int count)
+    {
+        return IntStream.range(0, count).boxed();
+    }
+
+    @Test
+    public void testMatching()
+    {
+        Tester.allMatch("a million numbers are non-negative", numbers(1000000), n -> n >= 0);
+        Tester.noneMatch("no number is negative", numbers(1000000).iterator(), n -> n < 0);
+        Tester.allMatch("iterables", Arrays.asList("a", "b"), s -> s.length() == 1);
+        try
+        {
+            Tester.allMatch("numbers are below 1000", numbers(1000000), n -> n < 1000);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.noneMatch("no number is 500", numbers(1000), n -> n == 500);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        SequenceScan scan = SequenceScan.match(numbers(100).iterator(), n -> n < 42, true);
+        Tester.equal("the first violation's index", scan.getIndex(), 42L);
+        Tester.equal("the first violation's value", scan.getElement(), (Object) 42);
+    }
+
+    @Test
+    public void testCount()
+    {
+        Tester.hasCount("a million numbers", numbers(1000000), 1000000);
+        Tester.hasCount("empty", Collections.emptyList(), 0);
+        try
+        {
+            Tester.hasCount("one too few", numbers(9).iterator(), 10);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testOrder()
+    {
+        Tester.isSorted("ascending numbers", numbers(1000000));
+        Tester.isSorted("equal neighbors are sorted", Arrays.asList(1, 1, 2));
+        Tester.isSortedBy("descending by comparator", Stream.of(3, 2, 2, 1), Comparator.reverseOrder());
+        Tester.isMonotonic("decreasing", Arrays.asList(5, 5, 3, 1, 1));
+        Tester.isMonotonic("constant", Arrays.asList(5, 5, 5));
+        Tester.isMonotonic("increasing after a plateau", Stream.of(1, 1, 2, 3));
+        try
+        {
+            Tester.isSorted("out of order", Arrays.asList(1, 2, 4, 3).iterator());
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.isMonotonic("turns around", Arrays.asList(1, 2, 2, 1));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        SequenceScan scan = SequenceScan.sorted(Arrays.asList(1, 2, 4, 3).iterator(), Comparator.naturalOrder(),
+                false);
+        Tester.equal("the element out of order", scan.getIndex(), 3L);
+        Tester.equal("the element before it", scan.getPrevious(), (Object) 4);
+        Tester.isFalse("strict order rejects equal neighbors", SequenceScan.sorted(Arrays.asList(1, 1).iterator(),
+                Comparator.naturalOrder(), true).passed());
+    }
+
+    @Test
+    public void testEqualElements()
+    {
+        Tester.equalElements("a stream and a range", numbers(1000000), IntStream.range(0, 1000000).boxed());
+        List<String> list = Arrays.asList("a", "b", "c");
+        Tester.equalElements("a list and a deque", list, new ArrayDeque<String>(list));
+        Tester.equalElements("arrays compare by content", Arrays.asList(new int[] { 1 }).iterator(),
+                Arrays.asList(new int[] { 1 }).iterator());
+        try
+        {
+            Tester.equalElements("different elements", numbers(10), Stream.of(0, 1, 2, 4));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.equalElements("lhs is shorter", numbers(3), numbers(4));
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        SequenceScan scan = SequenceScan.equalElements(numbers(4).iterator(), numbers(3).iterator());
+        Tester.isTrue("rhs ended", scan.isRhsEnded());
+        Tester.equal("at the first missing index", scan.getIndex(), 3L);
+    }
+
+    @Test
+    public void testStreamsAreClosed()
+    {
+        AtomicInteger closed = new AtomicInteger();
+        Tester.allMatch("all match", numbers(10).onClose(closed::incrementAndGet), value -> value >= 0);
+        Tester.noneMatch("none match", numbers(10).onClose(closed::incrementAndGet), value -> value < 0);
+        Tester.hasCount("count", numbers(10).onClose(closed::incrementAndGet), 10);
+        Tester.isSorted("sorted", numbers(10).onClose(closed::incrementAndGet));
+        Tester.isSortedBy("sorted by", numbers(10).onClose(closed::incrementAndGet), Comparator.naturalOrder());
+        Tester.isMonotonic("monotonic", numbers(10).onClose(closed::incrementAndGet));
+        Tester.equalElements("equal elements", numbers(10).onClose(closed::incrementAndGet), numbers(10).onClose(
+                closed::incrementAndGet));
+        try
+        {
+            Tester.hasCount("failing count", numbers(10).onClose(closed::incrementAndGet), 11);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        Tester.equal("every stream is closed, even on failure", closed.get(), 9);
+    }
+}
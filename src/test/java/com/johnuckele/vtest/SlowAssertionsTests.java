@@ -0,0 +1,267 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SlowAssertionsTests
+{
+    private int           previousTop;
+    private long          previousThreshold;
+    private int           previousSampling;
+    private OutputSink    previousSink;
+    private RecordingSink recordingSink;
+
+    /**
+     * A value that is slow to compare or to render.
+     */
+    private static final class Sluggish
+    {
+        private final long equalsMillis;
+        private final long toStringMillis;
+
+        Sluggish(long equalsMillis, long toStringMillis)
+        {
+            this.equalsMillis = equalsMillis;
+            this.toStringMillis = toStringMillis;
+        }
+
+        private static void pause(long millis)
+        {
+            try
+            {
+                Thread.sleep(millis);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            pause(equalsMillis);
+            return other == this;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 0;
+        }
+
+        @Override
+        public String toString()
+        {
+            pause(toStringMillis);
+            return "sluggish";
+        }
+    }
+
+    @Before
+    public void setUp()
+    {
+        previousTop = SlowAssertions.getTop();
+        previousThreshold = SlowAssertions.getThreshold();
+        previousSampling = SlowAssertions.getSampling();
+        // Every assertion is sampled, so that each test's few assertions are all timed
+        Tester.setSlowAssertionSampling(1);
+        previousSink = Tester.getOutputSink();
+        recordingSink = new RecordingSink();
+    }
+
+    @After
+    public void tearDown()
+    {
+        Tester.setOutputSink(previousSink);
+        Tester.setSlowAssertionReport(previousTop, previousThreshold, TimeUnit.NANOSECONDS);
+        Tester.setSlowAssertionSampling(previousSampling);
+    }
+
+    private String runScope(Runnable assertions)
+    {
+        Tester.setOutputSink(recordingSink);
+        Tester.enterTest(SlowAssertionsTests.class.getName(), "fixture");
+        try
+        {
+            assertions.run();
+        }
+        finally
+        {
+            Tester.exitTest();
+            Tester.setOutputSink(previousSink);
+        }
+        return recordingSink.getOutput();
+    }
+
+    @Test
+    public void testReportsSlowestCallSites()
+    {
+        Tester.setSlowAssertionReport(2, 1, TimeUnit.MILLISECONDS);
+        Sluggish slowToRender = new Sluggish(0, 50);
+        Sluggish slowToCompare = new Sluggish(10, 0);
+        String output = runScope(() ->
+        {
+            Tester.isNotNull("slow to render", slowToRender);
+            Tester.equal("slow to compare", slowToCompare, slowToCompare);
+            Tester.isTrue("quick", true);
+        });
+        int header = output.indexOf("slowest assertions in " + SlowAssertionsTests.class.getName() + ".fixture:");
+        Tester.isTrue("the scope is reported when it ends", header >= 0);
+        String report = output.substring(header);
+        Tester.isTrue("the slowest call site comes first", report.indexOf("slow to render: 1 call") < report.indexOf(
+                "slow to compare: 3 calls"));
+        Tester.isFalse("quick call sites are left out", report.contains("quick"));
+        Tester.isTrue("the cost is broken down", report.contains("(comparison ") && report.contains(", rendering "));
+    }
+
+    @Test
+    public void testReportPrecedesNextScope()
+    {
+        Tester.setSlowAssertionReport(1, 0, TimeUnit.MILLISECONDS);
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.FULL);
+        Tester.setOutputSink(recordingSink);
+        try
+        {
+            Tester.enterTest(SlowAssertionsTests.class.getName(), "first");
+            Tester.isTrue("in the first scope", true);
+            Tester.enterTest(SlowAssertionsTests.class.getName(), "second");
+            Tester.isTrue("in the second scope", true);
+            Tester.exitTest();
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+            Tester.setVerbosity(previousVerbosity);
+        }
+        String output = recordingSink.getOutput();
+        int report = output.indexOf("slowest assertions in " + SlowAssertionsTests.class.getName() + ".first:");
+        Tester.isTrue("the first scope is reported", report >= 0);
+        Tester.lessThan("before the second scope's header", report, output.indexOf("\tsecond"));
+    }
+
+    @Test
+    public void testComparisonAndRenderingPhases()
+    {
+        Tester.setSlowAssertionReport(1, 0, TimeUnit.MILLISECONDS);
+        Sluggish value = new Sluggish(5, 0);
+        Tester.setOutputSink(recordingSink);
+        Tester.enterTest(SlowAssertionsTests.class.getName(), "phases");
+        Tester.equal("sluggish equals", value, value);
+        Renderer renderer = Renderer.current();
+        Tester.exitTest();
+        Tester.setOutputSink(previousSink);
+        Tester.isTrue("rendering is timed until the line is reported", renderer.finished() >= renderer.began());
+        Tester.isTrue("each check of equal is a call", recordingSink.getOutput().contains("sluggish equals: 3 calls"));
+        Tester.setSlowAssertionReport(0, 0, TimeUnit.MILLISECONDS);
+        Tester.isFalse("assertions are not sampled while the report is off", SlowAssertions.sample());
+    }
+
+    @Test
+    public void testSampling()
+    {
+        if (System.getProperty("vtest.slow.sampling") == null)
+        {
+            Tester.equal("assertions are sampled by default", previousSampling, SlowAssertions.DEFAULT_SAMPLING);
+        }
+        Tester.setSlowAssertionReport(1, 0, TimeUnit.MILLISECONDS);
+        Tester.setSlowAssertionSampling(4);
+        Verbosity previousVerbosity = Tester.getVerbosity();
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        String output;
+        try
+        {
+            output = runScope(() ->
+            {
+                for (int i = 0; i < 40; i++)
+                {
+                    Tester.isTrue("sampled", true);
+                }
+            });
+        }
+        finally
+        {
+            Tester.setVerbosity(previousVerbosity);
+        }
+        Tester.isTrue("one in four assertions is timed", output.contains("sampled: 10 calls"));
+        output = runScope(() ->
+        {
+            for (int i = 0; i < 40; i++)
+            {
+                Tester.isTrue("printed and sampled", true);
+            }
+        });
+        Tester.isTrue("printed assertions are sampled too", output.contains("printed and sampled: 10 calls"));
+        Tester.setMetricsEnabled(true);
+        try
+        {
+            Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+            output = runScope(() ->
+            {
+                for (int i = 0; i < 40; i++)
+                {
+                    Tester.isTrue("sampled with metrics", true);
+                }
+            });
+        }
+        finally
+        {
+            Tester.setMetricsEnabled(false);
+            Tester.setVerbosity(previousVerbosity);
+        }
+        Tester.isTrue("sampling goes on while metrics are enabled", output.contains("sampled with metrics: 10 calls"));
+        Tester.setSlowAssertionReport(1, 1, TimeUnit.HOURS);
+        output = runScope(() -> Tester.isTrue("not slow", true));
+        Tester.isFalse("nothing is reported below the threshold", output.contains("not slow: 1 call"));
+    }
+
+    @Test
+    public void testDetectorsOfEndedThreadsAreCollected() throws InterruptedException
+    {
+        Tester.setSlowAssertionReport(1, 1, TimeUnit.HOURS);
+        Tester.setOutputSink(recordingSink);
+        int before = SlowAssertions.countDetectors();
+        for (int i = 0; i < 50; i++)
+        {
+            Thread thread = new Thread(() -> Tester.isTrue("on a short lived thread", true));
+            thread.start();
+            thread.join();
+        }
+        Tester.setOutputSink(previousSink);
+        int after = SlowAssertions.countDetectors();
+        for (int attempt = 0; attempt < 20 && after > before; attempt++)
+        {
+            System.gc();
+            Thread.sleep(10);
+            after = SlowAssertions.countDetectors();
+        }
+        Tester.lessOrEqual("the detectors of ended threads are not kept", after, before);
+    }
+
+    @Test
+    public void testInvalidSettings()
+    {
+        try
+        {
+            Tester.setSlowAssertionSampling(0);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (IllegalArgumentException e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.setSlowAssertionReport(-1, 0, TimeUnit.MILLISECONDS);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (IllegalArgumentException e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.johnuckele.vtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotTests
+{
+    private boolean previousUpdate;
+    private File    directory;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        previousUpdate = Snapshot.isUpdate();
+        Tester.setSnapshotUpdate(false);
+        directory = Files.createTempDirectory("vtest").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException
+    {
+        Tester.setSnapshotUpdate(previousUpdate);
+        // Deepest paths first, so that each directory is empty when it is deleted
+        try (Stream<Path> paths = Files.walk(directory.toPath()))
+        {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toArray(Path[]::new))
+            {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static String world(int moons)
+    {
+        StringBuilder world = new StringBuilder();
+        for (int i = 0; i < moons; i++)
+        {
+            world.append("moon ").append(i).append(": orbit ").append(i * 3).append('\n');
+        }
+        return world.toString();
+    }
+
+    @Test
+    public void testRecordAndMatch() throws IOException
+    {
+        File snapshot = new File(directory, "snapshots/world.txt");
+        try
+        {
+            Tester.matchesSnapshot("a missing snapshot", world(10), snapshot);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        Tester.setSnapshotUpdate(true);
+        Tester.matchesSnapshot("recording the world", world(1000), snapshot);
+        Tester.setSnapshotUpdate(false);
+        Tester.equal("the snapshot holds the text", new String(Files.readAllBytes(snapshot.toPath()),
+                StandardCharsets.UTF_8), world(1000));
+        Tester.isTrue("the digest is stored", new File(snapshot.getPath() + ".sha256").isFile());
+        Tester.matchesSnapshot("the same world", world(1000), snapshot);
+
+        Snapshot outcome = Snapshot.check(snapshot, Snapshot.of(world(1000)));
+        Tester.equal("a match by digest", outcome.getOutcome(), Snapshot.Outcome.MATCHED);
+        Tester.equal("the size is counted", outcome.getSize(), snapshot.length());
+        Tester.isTrue("without a digest the files are compared",
+                new File(snapshot.getPath() + ".sha256").delete());
+        Tester.equal("a match by comparison", Snapshot.check(snapshot, Snapshot.of(world(1000))).getDigest(),
+                outcome.getDigest());
+    }
+
+    @Test
+    public void testDifferences() throws IOException
+    {
+        File snapshot = new File(directory, "world.txt");
+        Tester.setSnapshotUpdate(true);
+        Tester.matchesSnapshot("recording the world", world(100), snapshot);
+        Tester.setSnapshotUpdate(false);
+
+        String changed = world(100).replace("moon 42: orbit 126", "moon 42: orbit 127");
+        try
+        {
+            Tester.matchesSnapshot("a changed orbit", changed, snapshot);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        AtomicInteger writes = new AtomicInteger();
+        Snapshot outcome = Snapshot.check(snapshot, out ->
+        {
+            writes.incrementAndGet();
+            Snapshot.of(changed).writeTo(out);
+        });
+        Tester.equal("the digest is checked before comparing", writes.get(), 2);
+        Tester.equal("the line of the difference", outcome.getLine(), 43L);
+        Tester.equal("the offset of the difference", outcome.getOffset(), (long) world(100).indexOf("126") + 2);
+        Tester.equal("the snapshot's line", outcome.getExpected(), "moon 42: orbit 126");
+        Tester.equal("the output's line", outcome.getActual(), "moon 42: orbit 127");
+
+        outcome = Snapshot.check(snapshot, Snapshot.of(world(99)));
+        Tester.equal("a shorter output differs at its end", outcome.getOffset(), (long) world(99).length());
+        Tester.equal("the snapshot continues", outcome.getExpected(), "moon 99: orbit 297");
+        Tester.equal("the output has ended", outcome.getActual(), "");
+        outcome = Snapshot.check(snapshot, Snapshot.of(world(101)));
+        Tester.equal("a longer output differs at the snapshot's end", outcome.getOffset(), snapshot.length());
+        Tester.equal("the output continues", outcome.getActual(), "moon 100: orbit 300");
+    }
+
+    @Test
+    public void testLongLines() throws IOException
+    {
+        File snapshot = new File(directory, "line.txt");
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 100000; i++)
+        {
+            line.append(i % 10);
+        }
+        Tester.setSnapshotUpdate(true);
+        Tester.matchesSnapshot("recording a long line", line, snapshot);
+        Tester.setSnapshotUpdate(false);
+        line.setCharAt(50000, 'x');
+        Snapshot outcome = Snapshot.check(snapshot, Snapshot.of(line));
+        Tester.equal("the difference is on the first line", outcome.getLine(), 1L);
+        Tester.isTrue("only the text around the difference is kept", outcome.getActual().length() < 130);
+        Tester.isTrue("the context is cut", outcome.getActual().startsWith("…") && outcome.getActual().contains(
+                "9x1234"));
+    }
+
+    @Test
+    public void testFailedUpdate() throws IOException
+    {
+        File snapshot = new File(directory, "world.txt");
+        Tester.setSnapshotUpdate(true);
+        Tester.matchesSnapshot("recording the world", world(100), snapshot);
+        try
+        {
+            Snapshot.check(snapshot, out ->
+            {
+                out.write(world(50).getBytes(StandardCharsets.UTF_8));
+                throw new IOException("the source failed");
+            });
+            Tester.fail("The update should have failed");
+        }
+        catch (IOException e)
+        {
+            Tester.pass("The update should have failed");
+        }
+        Tester.setSnapshotUpdate(false);
+        Tester.equal("the old snapshot is kept", new String(Files.readAllBytes(snapshot.toPath()),
+                StandardCharsets.UTF_8), world(100));
+        Tester.matchesSnapshot("the old snapshot still matches by digest", world(100), snapshot);
+        Tester.equal("no temporary file is left", directory.list().length, 2);
+
+        // A failed comparison releases its mapping, so the snapshot can be replaced straight away
+        Tester.equal("a changed world", Snapshot.check(snapshot, Snapshot.of(world(101))).getOutcome(),
+                Snapshot.Outcome.DIFFERENT);
+        Tester.setSnapshotUpdate(true);
+        Tester.matchesSnapshot("recording the changed world", world(101), snapshot);
+        Tester.setSnapshotUpdate(false);
+        Tester.matchesSnapshot("the changed world", world(101), snapshot);
+    }
+}
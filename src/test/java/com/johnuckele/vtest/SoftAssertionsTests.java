@@ -0,0 +1,195 @@
+package com.johnuckele.vtest;
+
+import org.junit.Test;
+
+public class SoftAssertionsTests
+{
+    @Test
+    public void testFailuresAreCollected()
+    {
+        String message = null;
+        try
+        {
+            try (SoftAssertions softly = Tester.softAssertions(2))
+            {
+                Tester.equal("first failure", 1, 2);
+                Tester.isTrue("a pass", true);
+                Tester.equal("second failure", "a", "b");
+                Tester.isNull("third failure", "not null");
+                Tester.equal("failure count", softly.getFailureCount(), 3);
+            }
+            Tester.fail("Closing the batch should have failed");
+        }
+        catch (AssertionError e)
+        {
+            message = e.getMessage();
+        }
+        Tester.isNotNull("batch failure", message);
+        Tester.equal("batch failure message", message, "3 soft assertions failed:" + System.lineSeparator()
+                + "\tfirst failure: 1 == 2" + System.lineSeparator()
+                + "\tsecond failure: a == b (first difference at index 0)" + System.lineSeparator()
+                + "\tthird failure: not null");
+    }
+
+    @Test
+    public void testPassingBatch()
+    {
+        try (SoftAssertions softly = Tester.softAssertions())
+        {
+            Tester.isTrue("a pass", true);
+            Tester.equal("nothing recorded", softly.getFailureCount(), 0);
+        }
+        Tester.isNull("batch is closed", SoftAssertions.current());
+        try
+        {
+            Tester.isTrue("failures throw again", false);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testQuietFailuresAreRendered()
+    {
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        String message = null;
+        try (SoftAssertions softly = Tester.softAssertions())
+        {
+            Tester.lessThan("quiet failure", 2L, 1L);
+            Tester.equal("quiet failure is recorded", softly.getFailureCount(), 1);
+        }
+        catch (AssertionError e)
+        {
+            message = e.getMessage();
+        }
+        finally
+        {
+            Tester.setVerbosity(Verbosity.FULL);
+        }
+        Tester.isNotNull("batch failure", message);
+        Tester.isTrue("batch failure message", message.endsWith("quiet failure: 2 < 1"));
+    }
+
+    @Test
+    public void testNestedBatches()
+    {
+        SoftAssertions outer = Tester.softAssertions();
+        SoftAssertions inner = Tester.softAssertions();
+        try
+        {
+            outer.close();
+            Tester.fail("Closing the outer batch first should have failed");
+        }
+        catch (IllegalStateException e)
+        {
+            Tester.pass("Closing the outer batch first should have failed");
+        }
+        inner.close();
+        outer.close();
+        Tester.isNull("batches are closed", SoftAssertions.current());
+    }
+
+    @Test
+    public void testNestedFailuresAreRecordedInTheEnclosingBatch()
+    {
+        String message = null;
+        try
+        {
+            SoftAssertions outer = Tester.softAssertions();
+            Tester.isTrue("outer failure", false);
+            SoftAssertions inner = Tester.softAssertions();
+            Tester.isTrue("inner failure", false);
+            inner.close();
+            Tester.equal("the inner batch is one failure of the outer batch", outer.getFailureCount(), 2);
+            outer.close();
+            Tester.fail("Closing the outer batch should have failed");
+        }
+        catch (AssertionError e)
+        {
+            message = e.getMessage();
+        }
+        Tester.isNull("batches are closed", SoftAssertions.current());
+        Tester.equal("batch failure message", message, "2 soft assertions failed:" + System.lineSeparator()
+                + "\touter failure: false" + System.lineSeparator()
+                + "\t1 soft assertion failed:" + System.lineSeparator()
+                + "\t\tinner failure: false");
+    }
+
+    @Test
+    public void testSoftly()
+    {
+        String message = null;
+        try
+        {
+            Tester.softly(() ->
+            {
+                Tester.equal("a failure", 1, 2);
+                Tester.isTrue("a pass", true);
+            });
+            Tester.fail("The batch should have failed");
+        }
+        catch (AssertionError e)
+        {
+            message = e.getMessage();
+        }
+        Tester.equal("batch failure message", message, "1 soft assertion failed:" + System.lineSeparator()
+                + "\ta failure: 1 == 2");
+        Tester.isNull("the batch is closed", SoftAssertions.current());
+        Throwable thrown = null;
+        try
+        {
+            Tester.softly(() ->
+            {
+                Tester.isTrue("a failure before an exception", false);
+                throw new IllegalStateException("broken fixture");
+            });
+        }
+        catch (IllegalStateException e)
+        {
+            thrown = e;
+        }
+        Tester.isNotNull("the exception is thrown", thrown);
+        Tester.equal("the failures are attached", thrown.getSuppressed().length, 1);
+        Tester.isNull("the batch is closed after an exception", SoftAssertions.current());
+    }
+
+    @Test
+    public void testBatchesLeftOpenAreDiscarded()
+    {
+        String message = null;
+        Tester.enterTest(SoftAssertionsTests.class.getName(), "leftOpen");
+        try
+        {
+            SoftAssertions outer = Tester.softAssertions();
+            Tester.softAssertions();
+            Tester.isTrue("left open", false);
+            Tester.isTrue("the failure is recorded", outer.getFailureCount() == 0);
+        }
+        finally
+        {
+            try
+            {
+                Tester.exitTest();
+            }
+            catch (AssertionError e)
+            {
+                message = e.getMessage();
+            }
+        }
+        Tester.isNull("the batches are discarded", SoftAssertions.current());
+        Tester.equal("the batches are reported", message, "2 soft assertion batches were left open:"
+                + System.lineSeparator() + "1 soft assertion failed:" + System.lineSeparator() + "\tleft open: false");
+        try
+        {
+            Tester.isTrue("failures throw again", false);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class StressTests
+{
+    @Test
+    public void testNoLostUpdates()
+    {
+        AtomicLong counter = new AtomicLong();
+        StressResult<Long> result = Tester.stress("incrementing an AtomicLong", 4, 10000, (thread, iterations) ->
+        {
+            long last = 0;
+            for (int i = 0; i < iterations; i++)
+            {
+                last = counter.incrementAndGet();
+            }
+            return last;
+        });
+        Tester.equal("no updates are lost", counter.get(), result.getOperations());
+        Tester.equal("every thread has a result", result.getResults().size(), 4);
+        Tester.equal("the last increment saw the total", result.getResults().stream().mapToLong(Long::longValue)
+                .max().getAsLong(), 40000L);
+        Tester.greaterThan("throughput is measured", result.getThroughput(), 0.0, 0.0);
+        Tester.greaterOrEqual("contention is counted for platform threads", result.getBlockedCount(), 0L);
+    }
+
+    @Test
+    public void testMonitorContention()
+    {
+        Object lock = new Object();
+        long[] total = new long[1];
+        StressResult<Void> result = Tester.stress("incrementing under a lock", 4, 10000, (thread, iterations) ->
+        {
+            for (int i = 0; i < iterations; i++)
+            {
+                synchronized (lock)
+                {
+                    total[0]++;
+                }
+            }
+            return null;
+        });
+        synchronized (lock)
+        {
+            Tester.equal("no updates are lost", total[0], result.getOperations());
+        }
+        Tester.greaterOrEqual("monitor contention is counted for platform threads", result.getBlockedCount(), 0L);
+        Tester.greaterOrEqual("waits are counted for platform threads", result.getWaitedCount(), 0L);
+        Tester.isTrue("contention is printed", result.toString().contains("blocked " + result.getBlockedCount()));
+    }
+
+    @Test
+    public void testThreadFactory()
+    {
+        AtomicInteger created = new AtomicInteger();
+        ThreadFactory factory = runnable ->
+        {
+            created.incrementAndGet();
+            return new Thread(runnable);
+        };
+        StressResult<Integer> result = Tester.stress("custom threads", 3, factory, 0, (thread, iterations) -> thread);
+        Tester.equal("the factory creates every thread", created.get(), 3);
+        Tester.equal("results are in thread order", result.getResults().get(2), (Integer) 2);
+    }
+
+    @Test
+    public void testExceptions()
+    {
+        try
+        {
+            Tester.stress("one thread throws", 3, 1, (thread, iterations) ->
+            {
+                if (thread == 1)
+                {
+                    throw new IllegalStateException("thread 1 failed");
+                }
+                return thread;
+            });
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        StressResult<Object> result = StressResult.run(2, StressResult.DAEMON_THREADS, 1, (thread, iterations) ->
+        {
+            throw new Exception("checked");
+        });
+        Tester.equal("checked exceptions are collected", result.getExceptions().size(), 2);
+        Tester.isNull("failed threads have no result", result.getResults().get(0));
+    }
+
+    @Test
+    public void testFailedThreadCreation()
+    {
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger ran = new AtomicInteger();
+        Thread[] first = new Thread[1];
+        ThreadFactory failing = runnable ->
+        {
+            if (created.getAndIncrement() == 0)
+            {
+                first[0] = new Thread(runnable);
+                return first[0];
+            }
+            return null;
+        };
+        try
+        {
+            StressResult.run(3, failing, 1, (thread, iterations) -> ran.incrementAndGet());
+            Tester.fail("A factory that returns no thread should have failed the run");
+        }
+        catch (IllegalStateException e)
+        {
+            Tester.pass("A factory that returns no thread should have failed the run");
+        }
+        try
+        {
+            first[0].join(10000L);
+        }
+        catch (InterruptedException e)
+        {
+            throw new IllegalStateException(e);
+        }
+        Tester.isFalse("the started thread is released", first[0].isAlive());
+        Tester.equal("the task is not run", ran.get(), 0);
+        try
+        {
+            StressResult.run(2, runnable ->
+            {
+                throw new UnsupportedOperationException("no threads");
+            }, 1, (thread, iterations) -> thread);
+            Tester.fail("A factory that throws should have failed the run");
+        }
+        catch (IllegalStateException e)
+        {
+            Tester.isTrue("the factory's exception is the cause",
+                    e.getCause() instanceof UnsupportedOperationException);
+        }
+        try
+        {
+            // Threads that never run their runnable never reach the barrier
+            StressResult.run(2, runnable -> new Thread(), 1, (thread, iterations) -> thread, 1000000L);
+            Tester.fail("Threads that never reach the barrier should have failed the run");
+        }
+        catch (IllegalStateException e)
+        {
+            Tester.isTrue("the wait is bounded", e.getMessage().startsWith("0 of 2 threads reached the barrier"));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.johnuckele.vtest;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TimingTests
+{
+    private int previousWarmup;
+    private int previousMeasurement;
+
+    @Before
+    public void setUp()
+    {
+        previousWarmup = TaskTimer.getWarmupIterations();
+        previousMeasurement = TaskTimer.getMeasurementIterations();
+        Tester.setTimingIterations(2, 10);
+    }
+
+    @After
+    public void tearDown()
+    {
+        Tester.setTimingIterations(previousWarmup, previousMeasurement);
+    }
+
+    private static Callable<Long> sleep(long millis)
+    {
+        return () ->
+        {
+            Thread.sleep(millis);
+            return millis;
+        };
+    }
+
+    @Test
+    public void testCompletesWithin()
+    {
+        long[] values = new long[64];
+        Tester.completesWithin("summing an array", () ->
+        {
+            long sum = 0;
+            for (long value : values)
+            {
+                sum += value;
+            }
+            return sum;
+        }, 1, TimeUnit.SECONDS);
+        AtomicLong counter = new AtomicLong();
+        Tester.completesWithin("incrementing a counter", () -> counter.incrementAndGet(), 99.0, 1, TimeUnit.SECONDS);
+        Tester.completesWithin("runnable", (Runnable) counter::incrementAndGet, 50.0, 1, TimeUnit.SECONDS);
+        try
+        {
+            Tester.completesWithin("sleeping", sleep(2), 100, TimeUnit.MICROSECONDS);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+        try
+        {
+            Tester.completesWithin("sleeping", sleep(2), 10.0, 100, TimeUnit.MICROSECONDS);
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testFasterThan()
+    {
+        AtomicLong counter = new AtomicLong();
+        Tester.fasterThan("counting is faster than sleeping", () -> counter.incrementAndGet(), sleep(1));
+        try
+        {
+            Tester.fasterThan("sleeping is faster than counting", sleep(1), () -> counter.incrementAndGet());
+            Tester.fail("Preceding case should have failed");
+        }
+        catch (AssertionError e)
+        {
+            Tester.pass("Preceding case should have failed");
+        }
+    }
+
+    @Test
+    public void testOutput()
+    {
+        OutputSink previousSink = Tester.getOutputSink();
+        RecordingSink recording = new RecordingSink();
+        Tester.setOutputSink(recording);
+        try
+        {
+            Tester.completesWithin("sleeping", sleep(1), 90.0, 1, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            Tester.setOutputSink(previousSink);
+        }
+        String line = recording.getLines().get(recording.getLines().size() - 1);
+        Tester.isTrue("percentile and limit are printed", line.contains("sleeping (completes within): p90 ")
+                && line.contains(" <= 1.00s ("));
+        Tester.isTrue("distribution is printed", line.contains("mean ") && line.contains(", p99 ")
+                && line.contains(", 10 samples of 1 call)"));
+    }
+
+    @Test
+    public void testStatistics()
+    {
+        double[] samples = new double[100];
+        for (int i = 0; i < samples.length; i++)
+        {
+            samples[i] = samples.length - i;
+        }
+        TimingStatistics statistics = new TimingStatistics(samples, 4);
+        Tester.equal("mean", statistics.getMean(), 50.5, 1e-9);
+        Tester.equal("p50", statistics.getPercentile(50.0), 50.0, 0.0);
+        Tester.equal("p99", statistics.getPercentile(99.0), 99.0, 0.0);
+        Tester.equal("p0 is the minimum", statistics.getPercentile(0.0), 1.0, 0.0);
+        Tester.equal("max", statistics.getMax(), 100.0, 0.0);
+        Tester.equal("standard deviation", statistics.getStandardDeviation(), 29.011, 0.001);
+        Tester.equal("confidence", statistics.getConfidence(), 5.757, 0.01);
+        Tester.equal("nanoseconds", TimingStatistics.format(12.0), "12.0ns");
+        Tester.equal("microseconds", TimingStatistics.format(1234.0), "1.23µs");
+        Tester.equal("rounding up to the next unit", TimingStatistics.format(999_999.0), "1.00ms");
+        Tester.equal("seconds", TimingStatistics.format(2.5e9), "2.50s");
+    }
+}
@@ -0,0 +1,96 @@
+package com.johnuckele.vtest;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VerbosityTests
+{
+    private final RecordingSink recordingSink = new RecordingSink();
+    private OutputSink          previousSink;
+
+    @Before
+    public void setUp()
+    {
+        previousSink = Tester.getOutputSink();
+        Tester.setOutputSink(recordingSink);
+    }
+
+    @After
+    public void tearDown()
+    {
+        Tester.setOutputSink(previousSink);
+        Tester.setVerbosity(Verbosity.FULL);
+    }
+
+    @Test
+    public void testFailuresOnly()
+    {
+        Tester.setVerbosity(Verbosity.FAILURES_ONLY);
+        Tester.equal("quiet pass", 1, 1);
+        boolean failed = false;
+        try
+        {
+            Tester.equal("loud failure", 1, 2);
+        }
+        catch (AssertionError e)
+        {
+            failed = true;
+        }
+        List<String> lines = recordingSink.getLines();
+        Tester.setVerbosity(Verbosity.FULL);
+        Tester.isTrue("failure was thrown", failed);
+        Tester.equal("failure output", lines.toString(), Arrays.asList("\ttestFailuresOnly",
+                "\t\tloud failure: 1 == 2" + System.lineSeparator() + "\t\t\t✗ FAILED").toString());
+    }
+
+    @Test
+    public void testSummaryOnly()
+    {
+        Tester.setVerbosity(Verbosity.SUMMARY_ONLY);
+        Tester.isTrue("quiet pass", true);
+        try
+        {
+            Tester.isTrue("quiet failure", false);
+        }
+        catch (AssertionError e)
+        {
+            // Expected
+        }
+        int lineCount = recordingSink.getLines().size();
+        Tester.setVerbosity(Verbosity.FULL);
+        Tester.equal("nothing printed", lineCount, 0);
+    }
+
+    @Test
+    public void testOperandsAreNotRenderedWhenQuiet()
+    {
+        Unrenderable operand = new Unrenderable();
+        Tester.setVerbosity(Verbosity.FAILURES_ONLY);
+        Tester.equal("quiet object equal", operand, operand);
+        Tester.contains("quiet contains", Arrays.asList(operand), operand);
+        Tester.isNotNull("quiet not null", operand);
+        Tester.setVerbosity(Verbosity.FULL);
+        Tester.pass("operands were not rendered");
+    }
+
+    @Test
+    public void testParse()
+    {
+        Tester.equal("null", Verbosity.parse(null), Verbosity.FULL);
+        Tester.equal("dashes", Verbosity.parse("failures-only"), Verbosity.FAILURES_ONLY);
+        Tester.equal("case", Verbosity.parse("Summary_Only"), Verbosity.SUMMARY_ONLY);
+    }
+
+    private static class Unrenderable
+    {
+        @Override
+        public String toString()
+        {
+            throw new IllegalStateException("operand should not be rendered");
+        }
+    }
+}